@@ -1,15 +1,24 @@
 package com.mnasser.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.mnasser.util.DenseIntMap;
+
 /**
  * Simple implementation of a Graph as listing of all edges <code>E</code>
  * between vertices <code>V</code>.
  * 
  * </p>
+ * Vertices are indexed by id in a {@link DenseIntMap}, so graphs with ids {@code 1..n}
+ * (the usual case) find a vertex with a single array load. Sizing the graph with 
+ * {@code AdjacencyListGraph(n)} pre-allocates room for ids up to {@code n}.  Far 
+ * scattered ids fall back to hashing.
+ * </p>
  * TODO : replace array of vertices/edges with a Heap or Binary tree of sorts
  * @author Moe
  */
@@ -18,7 +27,7 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	public AdjacencyListGraph(int initialSize) {
 		vertices    = new ArrayList<  Vertex<E>  >(initialSize);
 		edges       = new ArrayList<   Edge<E>   >(initialSize);
-		_vertMap    = new HashMap<Integer,Vertex<E>>(initialSize);//new IntMap< Vertex<E> >(  );  
+		_vertMap    = new DenseIntMap< Vertex<E> >(initialSize);
 		_elementMap = new HashMap<    E , Vertex<E>    >(initialSize);
 	}
 	public AdjacencyListGraph() {
@@ -28,15 +37,17 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	private List<Vertex<E>> vertices = null; 
 	private List<Edge<E>>   edges    = null; 
 	
-	private HashMap<Integer, Vertex<E>> _vertMap    = null;      // map of primitive int -> Vertex
-	//private IntMap<Vertex<E>>     _vertMap    = null;
+	private DenseIntMap<Vertex<E>> _vertMap   = null;      // id -> Vertex. Array indexed for dense ids, no boxing
 	private Map<E , Vertex<E>>    _elementMap = null; // so we can look up vertices by their elements quickly
 	
 	private int connected_vertices = 0; // so we know if there are any nodes with zero edges in O(1) time
+	private int slots = 0;              // next vertex slot. Never reused, so removals leave holes
 
 	@Override public List<Edge<E>>   getEdges()    { return edges;    }
 	@Override public List<Vertex<E>> getVertices() { return vertices; }//Collections.sort(vertices); return vertices; }
 	
+	@Override int slotCount(){ return slots; }
+	
 	public int   getEdgeCount(){	return edges.size();	}
 	public int getVertexCount(){	return vertices.size(); }
 	
@@ -111,6 +122,11 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	private Vertex<E> __addVertex(int id, E element){
 		Vertex<E> v = new Vertex<E>(id , element);
 		v.directed = isDirected();
+		v.slot = slots++;
+		if( v.directed ){
+			v.outEdges = new ArrayList<Edge<E>>();
+			v.inEdges  = new ArrayList<Edge<E>>();
+		}
 		vertices.add( v );
 		_vertMap.put( v.id , v );
 		if( element != null )
@@ -271,8 +287,9 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	}
 	/**Internal addEdge which doesn't create new objects*/
 	private void __addEdge( Edge<E> e ){
-		e.src.edges.add( e );
-		e.dst.edges.add( e );
+		e.src.addEdge( e );
+		e.dst.addEdge( e );
+		e.slot = edges.size();
 		edges.add( e );
 		if ( e.src.edges.size() == 1 ) connected_vertices++;
 		if ( e.src.edges.size() == 1 ) connected_vertices++;
@@ -280,9 +297,12 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	
 	
 	
+	/**True if there's an edge equal to {@code e}. Asks {@code e.src}'s own edges
+	 * (through their index when it has lots) rather than scanning every edge in the graph.*/
 	@Override
 	public boolean hasEdge(Edge<E> e){
-		return  edges.contains(e);
+		Vertex<E> a = getVertex( e.src );
+		return a != null && a.equals( e.src ) && a.hasNeighbor( e.dst );
 	}
 	@Override
 	public boolean hasEdge(Vertex<E> a, Vertex<E> b){
@@ -290,8 +310,8 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	}
 	@Override
 	public boolean hasEdge(int a, int b){
-		return (_vertMap.containsKey(a) && _vertMap.containsKey(b)
-			&& _vertMap.get(a).hasNeighbor(_vertMap.get(b)));
+		Vertex<E> va = _vertMap.get(a), vb = _vertMap.get(b);
+		return ( va != null && vb != null && va.hasNeighbor(vb) );
 	}
 	@Override
 	public boolean hasEdge(E a, E b){
@@ -311,7 +331,7 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	
 	@Override
 	public Vertex<E> getVertex(int id){
-		return (hasVertex(id))? _vertMap.get(id) : null;
+		return _vertMap.get(id);
 	}
 	@Override
 	public Vertex<E> getVertex(Vertex<E> a){
@@ -349,11 +369,41 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 	/**Removes the given edge from this graph.  
 	 * </p>
 	 * The vertices incident on this edge will also no longer have this edge 
-	 * connecting them */
+	 * connecting them.
+	 * </p>
+	 * Edges know their position in every list holding them, so removing one of our own
+	 * edges is {@code O(1)}: the last edge of each list is swapped into its place. This
+	 * reorders {@code getEdges()} (still compact, so {@code getRandomEdge()} is unaffected).*/
 	public synchronized void removeEdge(Edge<E> e){
-		e.src.removeEdge(e);
-		e.dst.removeEdge(e);
-		edges.remove(e);
+		Edge<E> f = __findEdge( e );
+		if( f == null ) return;
+		f.src.removeEdge(f);
+		f.dst.removeEdge(f);
+		int last = edges.size() - 1;
+		Edge<E> moved = edges.remove( last );
+		if( f.slot != last ){
+			edges.set( f.slot, moved );
+			moved.slot = f.slot;
+		}
+		f.slot = -1;
+	}
+	
+	/**Returns our own instance of edge {@code e}: {@code e} itself if it belongs to this
+	 * graph, otherwise the first edge equal to it. (Directed graphs only look at the
+	 * outbound edges of {@code e}'s source). Null if there is no such edge.*/
+	private Edge<E> __findEdge(Edge<E> e){
+		if( e.slot >= 0 && e.slot < edges.size() && edges.get( e.slot ) == e )
+			return e;
+		Vertex<E> a = getVertex( e.src );
+		if( a == null ) return null;
+		List<Edge<E>> es = (a.outEdges != null)? a.outEdges : a.edges;
+		Edge<E> match = null;
+		for( int ii = 0, len = es.size(); ii < len; ii++ ){
+			Edge<E> f = es.get(ii);
+			if( f == e ) return f;
+			if( match == null && f.equals(e) ) match = f;
+		}
+		return match;
 	}
 	
 	/**Removes the vertex from this graph.
@@ -376,4 +426,184 @@ public class AdjacencyListGraph<E> extends Graph<E>{
 		if( v.element != null )
 			_elementMap.remove(v.element);
 	}
+	
+	
+	/**
+	 * Collects vertices and edges as plain ints and turns them into a graph in one go.
+	 * </p>
+	 * {@code addEdge()} on the graph itself takes the graph's lock and callers usually check
+	 * {@code hasEdge()} first, a linear scan of the vertex's edges. A builder just appends to int
+	 * arrays : no locking, no {@code Vertex} or {@code Edge} objects until {@code build()}.
+	 * Duplicate edges are dropped in one sort based pass ({@code removeDuplicates()}, also run
+	 * by {@code build()}) so building costs {@code O(m log m)} rather than {@code O(m * degree)}.
+	 * </p>
+	 * Duplicates are edges with the same end points, either way round unless directed (like
+	 * {@code Edge.equals()}). The first one added is kept, cost and all. Edges keep the order
+	 * they were added in. Vertices are added in order : those given to {@code addVertex()}
+	 * first, then the rest as they turn up on edges.
+	 * </p>
+	 * Not thread safe. Give each thread its own builder and {@code addAll()} them together.
+	 */
+	public static class Builder<E> {
+		private final boolean directed;
+		private int[] src = new int[ 64 ], dst = new int[ 64 ], cost = new int[ 64 ];
+		private int m = 0;
+		private int[] verts = new int[ 16 ]; // explicitly added vertices
+		private int vertCount = 0;
+		private DenseIntMap<E> elements = null;
+
+		public Builder(){
+			this( false );
+		}
+		/**@param directed Whether {@code build()} makes a {@link DirectedGraph}*/
+		public Builder(boolean directed){
+			this.directed = directed;
+		}
+
+		public Builder<E> addVertex(int id){
+			if( vertCount == verts.length ) verts = Arrays.copyOf( verts, vertCount * 2 );
+			verts[ vertCount++ ] = id;
+			return this;
+		}
+		public Builder<E> addVertex(int id, E element){
+			element( id, element );
+			return addVertex( id );
+		}
+		public Builder<E> addEdge(int a, int b){
+			return addEdge( a, b, 0 );
+		}
+		public Builder<E> addEdge(int a, int b, int c){
+			ensure( m + 1 );
+			src[m] = a;
+			dst[m] = b;
+			cost[m++] = c;
+			return this;
+		}
+		/**Adds edges {@code a[off+i] -> b[off+i]} for {@code i < len}.
+		 * @param c Costs, read from the same positions. Null for all 0.*/
+		public Builder<E> addEdges(int[] a, int[] b, int[] c, int off, int len){
+			ensure( m + len );
+			System.arraycopy( a, off, src, m, len );
+			System.arraycopy( b, off, dst, m, len );
+			if( c != null ) System.arraycopy( c, off, cost, m, len );
+			else Arrays.fill( cost, m, m + len, 0 );
+			m += len;
+			return this;
+		}
+		/**Adds edges between the IDs (and elements) of the given edges' end points*/
+		public Builder<E> addEdges(Edge<E>[] es){
+			return addEdges( Arrays.asList( es ) );
+		}
+		public Builder<E> addEdges(Collection<Edge<E>> es){
+			ensure( m + es.size() );
+			for( Edge<E> e : es ){
+				element( e.src.id, e.src.element );
+				element( e.dst.id, e.dst.element );
+				addEdge( e.src.id, e.dst.id, e.cost() );
+			}
+			return this;
+		}
+		/**Appends everything added to {@code other}, after what was added here*/
+		public Builder<E> addAll(Builder<E> other){
+			for( int ii = 0; ii < other.vertCount; ii++ )
+				addVertex( other.verts[ii] );
+			addEdges( other.src, other.dst, other.cost, 0, other.m );
+			if( other.elements != null ){
+				for( int ii = 0; ii < other.vertCount; ii++ )
+					element( other.verts[ii], other.elements.get( other.verts[ii] ) );
+				for( int ii = 0; ii < other.m; ii++ ){
+					element( other.src[ii], other.elements.get( other.src[ii] ) );
+					element( other.dst[ii], other.elements.get( other.dst[ii] ) );
+				}
+			}
+			return this;
+		}
+
+		/**Number of edges added so far, duplicates included unless already removed*/
+		public int getEdgeCount(){
+			return m;
+		}
+
+		/**Drops all but the first of every set of duplicate edges. 
+		 * @return Number of edges left*/
+		public int removeDuplicates(){
+			long[] keys = new long[ m ];
+			for( int ii = 0; ii < m; ii++ )
+				keys[ii] = key( src[ii], dst[ii] );
+			long[] distinct = keys.clone();
+			Arrays.sort( distinct );
+			int u = 0;
+			for( int ii = 0; ii < m; ii++ )
+				if( u == 0 || distinct[ii] != distinct[u-1] ) distinct[u++] = distinct[ii];
+			if( u == m ) return m;
+
+			// keep the first edge of each distinct key, in the order they were added
+			boolean[] taken = new boolean[ u ];
+			int k = 0;
+			for( int ii = 0; ii < m; ii++ ){
+				int d = Arrays.binarySearch( distinct, 0, u, keys[ii] );
+				if( taken[d] ) continue;
+				taken[d] = true;
+				src[k] = src[ii];
+				dst[k] = dst[ii];
+				cost[k++] = cost[ii];
+			}
+			return m = k;
+		}
+
+		/**Removes duplicate edges and builds the graph. The builder can be reused afterwards.
+		 * @throws BadVertexAddition if an ID was given two different elements*/
+		public AdjacencyListGraph<E> build(){
+			removeDuplicates();
+			// sized for the vertices we know of. Edges can name any number of ids (or as few as 
+			// two), so vertices only seen on edges grow the index as they turn up
+			AdjacencyListGraph<E> g = directed ? new DirectedGraph<E>( vertCount ) 
+			                                   : new AdjacencyListGraph<E>( vertCount );
+			for( int ii = 0; ii < vertCount; ii++ )
+				vertex( g, verts[ii] );
+
+			for( int ii = 0; ii < m; ii++ ){
+				vertex( g, src[ii] );
+				vertex( g, dst[ii] );
+			}
+
+			// size every adjacency list up front
+			int[] degree = new int[ g.slotCount() ];
+			for( int ii = 0; ii < m; ii++ ){
+				degree[ g.getVertex( src[ii] ).slot ]++;
+				degree[ g.getVertex( dst[ii] ).slot ]++;
+			}
+			for( Vertex<E> v : g.vertices )
+				if( degree[ v.slot ] > 0 )
+					((ArrayList<Edge<E>>) v.edges).ensureCapacity( degree[ v.slot ] );
+			((ArrayList<Edge<E>>) g.edges).ensureCapacity( m );
+
+			for( int ii = 0; ii < m; ii++ )
+				g.__addEdge( new Edge<E>( g.getVertex( src[ii] ), g.getVertex( dst[ii] ), cost[ii] ) );
+			return g;
+		}
+
+		private Vertex<E> vertex(AdjacencyListGraph<E> g, int id){
+			Vertex<E> v = g.getVertex( id );
+			return (v != null)? v : g.addVertex( new Vertex<E>( id, (elements == null)? null : elements.get( id ) ) );
+		}
+		private void element(int id, E element){
+			if( element == null ) return;
+			if( elements == null ) elements = new DenseIntMap<E>();
+			E old = elements.get( id );
+			if( old == null ) elements.put( id, element );
+			else if( ! old.equals( element ) ) throw BVA( id, element );
+		}
+		private long key(int a, int b){
+			if( ! directed && b < a ){ int t = a; a = b; b = t; }
+			return ((long) a << 32) | (b & 0xFFFFFFFFL);
+		}
+		private void ensure(int size){
+			if( size <= src.length ) return;
+			int len = Math.max( size, src.length * 2 );
+			src  = Arrays.copyOf( src,  len );
+			dst  = Arrays.copyOf( dst,  len );
+			cost = Arrays.copyOf( cost, len );
+		}
+	}
 }
@@ -0,0 +1,128 @@
+package com.mnasser.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.mnasser.util.DisjointSet;
+
+/**
+ * Boruvka's Minimum Spanning Tree algorithm, with the edge scans spread over a fork join pool.
+ * </p>
+ * Every round each component picks its cheapest edge out to another component, and all of
+ * those get added at once. Each round at least halves the number of components, so there are
+ * at most {@code log n} rounds. Edges are compared on cost then on their index, so there are no
+ * ties and the picked edges can't form a cycle.
+ * </p>
+ * The scan for the cheapest edges is the bulk of the work and is split over the pool : each
+ * edge offers itself to both of its end points' components through an atomic min over
+ * {@code (cost, index)} packed into one {@code long}. Adding the picked edges, relabeling
+ * components ({@link DisjointSet}) and dropping the edges now inside a component are linear
+ * and stay on the calling thread.
+ * </p>
+ * Disconnected graphs get one tree per component, and directed edges are taken as undirected.
+ *
+ * @author Moe
+ */
+public class BoruvkaMST {
+
+	/**Edges scanned per task. Below this forking costs more than it saves.*/
+	static final int GRAIN = 1 << 14;
+	private static final long NONE = Long.MAX_VALUE;
+
+	/**Minimum spanning tree (or forest) of {@code G}, using the common pool*/
+	public static SpanningTree findMST(Graph<?> G){
+		return findMST( G, ForkJoinPool.commonPool() );
+	}
+
+	/**Minimum spanning tree (or forest) of {@code G}, scanning edges on {@code pool}*/
+	public static SpanningTree findMST(Graph<?> G, ForkJoinPool pool){
+		CsrGraph<?> c = CsrGraph.freeze( G ).asUndirected();
+		int n = c.getVertexCount();
+
+		// every edge once, no self loops
+		int m = 0;
+		for( int s = 0; s < n; s++ )
+			for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ )
+				if( s < c.targets[k] ) m++;
+		int[] src = new int[ m ], dst = new int[ m ], cost = new int[ m ], live = new int[ m ];
+		m = 0;
+		for( int s = 0; s < n; s++ )
+			for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ )
+				if( s < c.targets[k] ){
+					src[m]  = s;
+					dst[m]  = c.targets[k];
+					cost[m] = c.costs[k];
+					live[m] = m;
+					m++;
+				}
+
+		DisjointSet sets = new DisjointSet( n );
+		int[] comp = new int[ n ];
+		for( int v = 0; v < n; v++ ) comp[v] = v;
+		AtomicLongArray best = new AtomicLongArray( n );
+		for( int v = 0; v < n; v++ ) best.set( v, NONE );
+
+		int[] tsrc = new int[ Math.max( 0, n - 1 ) ], tdst = new int[ tsrc.length ], tcost = new int[ tsrc.length ];
+		int t = 0;
+		int alive = m;
+		while( alive > 0 ){
+			pool.invoke( new Cheapest( src, dst, cost, live, comp, best, 0, alive ) );
+
+			for( int v = 0; v < n; v++ ){
+				long b = best.get( v );
+				if( b == NONE ) continue;
+				best.set( v, NONE );
+				int e = (int) b;
+				if( sets.union( src[e], dst[e] ) ){ // the other side may have picked it too
+					tsrc[t]  = src[e];
+					tdst[t]  = dst[e];
+					tcost[t] = cost[e];
+					t++;
+				}
+			}
+
+			for( int v = 0; v < n; v++ ) comp[v] = sets.find( v );
+			int kept = 0;
+			for( int ii = 0; ii < alive; ii++ ){
+				int e = live[ii];
+				if( comp[ src[e] ] != comp[ dst[e] ] ) live[kept++] = e;
+			}
+			alive = kept;
+		}
+		return SpanningTree.fromEdges( c.ids, tsrc, tdst, tcost, t );
+	}
+
+	/**Offers each live edge in {@code [lo,hi)} to the components at both its ends*/
+	@SuppressWarnings("serial")
+	private static final class Cheapest extends RecursiveAction {
+		private final int[] src, dst, cost, live, comp;
+		private final AtomicLongArray best;
+		private final int lo, hi;
+		Cheapest(int[] src, int[] dst, int[] cost, int[] live, int[] comp, AtomicLongArray best, int lo, int hi){
+			this.src = src; this.dst = dst; this.cost = cost;
+			this.live = live; this.comp = comp; this.best = best;
+			this.lo = lo; this.hi = hi;
+		}
+		@Override
+		protected void compute(){
+			if( hi - lo > GRAIN ){
+				int mid = (lo + hi) >>> 1;
+				invokeAll( new Cheapest( src, dst, cost, live, comp, best, lo, mid ),
+						   new Cheapest( src, dst, cost, live, comp, best, mid, hi ) );
+				return;
+			}
+			for( int ii = lo; ii < hi; ii++ ){
+				int e = live[ii];
+				long key = (long) cost[e] << 32 | e; // cost first, index breaks ties
+				min( best, comp[ src[e] ], key );
+				min( best, comp[ dst[e] ], key );
+			}
+		}
+	}
+
+	private static void min(AtomicLongArray a, int i, long v){
+		long cur;
+		while( v < (cur = a.get( i )) && ! a.compareAndSet( i, cur, v ) );
+	}
+}
@@ -0,0 +1,545 @@
+package com.mnasser.graph;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable graph stored in compressed sparse row (CSR) form.
+ * </p>
+ * Vertices are numbered by a dense internal index {@code 0..n-1} (in ascending
+ * order of their IDs) and the adjacency of vertex {@code i} lives in the slots
+ * {@code offsets[i] .. offsets[i+1]-1} of the {@code targets} and {@code costs} arrays.
+ * Each row is kept sorted by target index so edge look ups are a binary search.
+ * </p>
+ * For undirected graphs every edge is written into the rows of both of its end points
+ * (self loops only once). Directed graphs keep their outbound edges in the main arrays.
+ * The reversed (inbound) arrays are only built the first time something asks for
+ * inbound edges, so algorithms which only walk forward never pay for them.
+ * </p>
+ * No {@code Vertex} or {@code Edge} objects are stored. The {@code Graph} API is served
+ * by light weight vertex handles which are created on demand (one per vertex, so the
+ * {@code visited} style flags used by {@code DFS}, {@code PrimMST} etc still work)
+ * and by {@code Edge} objects which are created per call.
+ * </p>
+ * Example :
+ * <pre>
+ * Graph&lt;String&gt; G = ... // build up as usual
+ * CsrGraph&lt;String&gt; C = CsrGraph.freeze( G );
+ * </pre>
+ *
+ * @author Moe
+ */
+public class CsrGraph<V> extends Graph<V> {
+
+	private final boolean directed;
+	private final int n;     // vertex count
+	private final int m;     // edge count
+
+	final int[] ids;         // index -> vertex id (ascending)
+	private final V[] elements;    // index -> element. Null if graph isn't parameterized
+
+	final int[] offsets;     // row starts of the outbound (or undirected) adjacency. length n+1
+	final int[] targets;     // index of the vertex on the other side of each slot
+	final int[] costs;       // cost of the edge in each slot
+
+	// reversed adjacency. For directed graphs built on first call to in()
+	private volatile Rows inRows = null;
+
+	private final int minId;         // if ids are dense we skip the binary search
+	private final boolean denseIds;
+
+	private Map<V, Integer> _elementMap = null; // element -> index
+
+	// Vertex handles. Created lazily since most primitive users never need them.
+	private volatile AtomicReferenceArray<Vertex<V>> views = null;
+
+
+	/**Package private. Takes ownership of the given arrays.
+	 * @see CsrGraph#fromEdges(int[], Object[], int[], int[], int[], int, boolean) */
+	CsrGraph(int[] ids, V[] elements, int[] offsets, int[] targets, int[] costs, int m, boolean directed){
+		this.ids       = ids;
+		this.elements  = elements;
+		this.offsets   = offsets;
+		this.targets   = targets;
+		this.costs     = costs;
+		this.n         = ids.length;
+		this.m         = m;
+		this.directed  = directed;
+
+		this.minId     = (n == 0)? 0 : ids[0];
+		this.denseIds  = (n == 0) || ( (long) ids[n-1] - ids[0] + 1 == n );
+		if( n > 0 )
+			ensureMaxId( ids[n-1] );
+		if( ! directed )
+			inRows = new Rows( offsets, targets, costs ); // same thing both ways
+
+		if( elements != null ){
+			_elementMap = new HashMap<V, Integer>( n );
+			for( int ii = 0; ii < n; ii++ )
+				if( elements[ii] != null )
+					_elementMap.put( elements[ii], ii );
+		}
+	}
+
+	/**
+	 * Freezes the given graph {@code G} into a new {@code CsrGraph}. Later changes
+	 * to {@code G} are not seen by the frozen copy.
+	 * </p>
+	 * Runs in {@code O(n log n + m log n)} time.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <X> CsrGraph<X> freeze(Graph<X> G){
+		if( G instanceof CsrGraph )
+			return (CsrGraph<X>) G;
+
+		List<Vertex<X>> sorted = new ArrayList<Vertex<X>>( G.getVertices() );
+		sorted.sort( Comparator.comparingInt( v -> v.id ) );
+		int n = sorted.size();
+
+		int[] ids = new int[n];
+		X[] elements = null;
+		for( int ii = 0; ii < n; ii++ ){
+			Vertex<X> v = sorted.get( ii );
+			ids[ii] = v.id;
+			if( v.element != null ){
+				if( elements == null ) elements = (X[]) new Object[n];
+				elements[ii] = v.element;
+			}
+		}
+
+		List<Edge<X>> es = G.getEdges();
+		int m = es.size();
+		int[] src = new int[m], dst = new int[m], cost = new int[m];
+		for( int ii = 0; ii < m; ii++ ){
+			Edge<X> e = es.get(ii);
+			src[ii]  = Arrays.binarySearch( ids, e.src.id );
+			dst[ii]  = Arrays.binarySearch( ids, e.dst.id );
+			cost[ii] = e.cost();
+		}
+		return fromEdges( ids, elements, src, dst, cost, m, G.isDirected() );
+	}
+
+	/**
+	 * Builds a {@code CsrGraph} out of a plain edge list.
+	 *
+	 * @param ids Sorted (ascending), unique vertex IDs. Index {@code i} here is vertex {@code i} below.
+	 * @param elements Optional elements per vertex index. Can be null.
+	 * @param src Source vertex index of each edge
+	 * @param dst Destination vertex index of each edge
+	 * @param cost Cost of each edge. Can be null for unweighted graphs.
+	 * @param m Number of edges to read from the three arrays
+	 * @param directed Whether the resulting graph is directed
+	 */
+	static <X> CsrGraph<X> fromEdges(int[] ids, X[] elements, int[] src, int[] dst, int[] cost,
+			int m, boolean directed){
+		int n = ids.length;
+
+		// count degrees
+		int[] offsets = new int[n+1];
+		for( int ii = 0; ii < m; ii++ ){
+			offsets[ src[ii] + 1 ]++;
+			if( ! directed && src[ii] != dst[ii] )
+				offsets[ dst[ii] + 1 ]++;
+		}
+		for( int ii = 0; ii < n; ii++ )
+			offsets[ii+1] += offsets[ii];
+
+		// scatter edges into their rows
+		int[] targets = new int[ offsets[n] ];
+		int[] costs   = new int[ offsets[n] ];
+		int[] next   = Arrays.copyOf( offsets, n );
+		for( int ii = 0; ii < m; ii++ ){
+			int s = src[ii], d = dst[ii], c = (cost == null)? 0 : cost[ii];
+			int k = next[s]++;
+			targets[k] = d;
+			costs[k]   = c;
+			if( ! directed && s != d ){
+				k = next[d]++;
+				targets[k] = s;
+				costs[k]   = c;
+			}
+		}
+
+		sortRows( offsets, targets, costs );
+
+		return new CsrGraph<X>( ids, elements, offsets, targets, costs, m, directed );
+	}
+
+	/**One direction of adjacency : row offsets, and the vertex index & edge cost in each slot*/
+	static final class Rows {
+		final int[] offsets, others, costs;
+		Rows(int[] offsets, int[] others, int[] costs){
+			this.offsets = offsets;
+			this.others  = others;
+			this.costs   = costs;
+		}
+	}
+
+	/**This graph if it's undirected, else a copy with every edge made undirected (same
+	 * vertex indices). For algorithms like MSTs which don't care about direction.*/
+	CsrGraph<V> asUndirected(){
+		if( ! directed ) return this;
+		int[] src = new int[ m ], dst = new int[ m ];
+		for( int s = 0; s < n; s++ )
+			for( int k = offsets[s]; k < offsets[s+1]; k++ ){
+				src[k] = s;
+				dst[k] = targets[k];
+			}
+		return fromEdges( ids, elements, src, dst, costs, m, false );
+	}
+
+	/**Returns the inbound adjacency (the outbound one for undirected graphs), 
+	 * building it on first use. Rows come out sorted since we fill them in source order.*/
+	Rows in(){
+		Rows r = inRows;
+		if( r != null ) return r;
+		synchronized( this ){
+			if( inRows == null ){
+				int[] inOffsets = new int[n+1];
+				int len = offsets[n];
+				for( int k = 0; k < len; k++ )
+					inOffsets[ targets[k] + 1 ]++;
+				for( int ii = 0; ii < n; ii++ )
+					inOffsets[ii+1] += inOffsets[ii];
+				int[] inSources = new int[len], inCosts = new int[len];
+				int[] next = Arrays.copyOf( inOffsets, n );
+				for( int s = 0; s < n; s++ ){
+					for( int k = offsets[s], end = offsets[s+1]; k < end; k++ ){
+						int j = next[ targets[k] ]++;
+						inSources[j] = s;
+						inCosts[j]   = costs[k];
+					}
+				}
+				inRows = new Rows( inOffsets, inSources, inCosts );
+			}
+			return inRows;
+		}
+	}
+
+	/**Sorts each row by target index, carrying the costs along with it*/
+	private static void sortRows(int[] offsets, int[] targets, int[] costs){
+		long[] scratch = null;
+		for( int ii = 0, n = offsets.length - 1; ii < n; ii++ ){
+			int from = offsets[ii], to = offsets[ii+1], len = to - from;
+			if( len < 2 ) continue;
+			if( scratch == null || scratch.length < len )
+				scratch = new long[ Math.max( len, 16 ) ];
+			// pack target in the high bits so sorting the longs sorts by target
+			for( int k = 0; k < len; k++ )
+				scratch[k] = ((long) targets[from+k] << 32) | (costs[from+k] & 0xFFFFFFFFL);
+			Arrays.sort( scratch, 0, len );
+			for( int k = 0; k < len; k++ ){
+				targets[from+k] = (int) (scratch[k] >>> 32);
+				costs  [from+k] = (int) scratch[k];
+			}
+		}
+	}
+
+
+	/**Returns the internal index of the vertex with the given ID. -1 if there is no such vertex*/
+	int indexOf(int id){
+		if( denseIds ){
+			long idx = (long) id - minId;
+			return ( idx >= 0 && idx < n ) ? (int) idx : -1;
+		}
+		int idx = Arrays.binarySearch( ids, id );
+		return ( idx < 0 ) ? -1 : idx;
+	}
+	/**Returns the internal index of the vertex which is equal to {@code a}. -1 if not found*/
+	int indexOf(Vertex<V> a){
+		if( a == null ) return -1;
+		int idx = indexOf( a.id );
+		if( idx < 0 || a.element == null ) return idx;
+		return ( elements != null && a.element.equals( elements[idx] ) )? idx : -1;
+	}
+
+	/**Returns the slot in [from, to) holding target {@code t}; -1 if there is none.*/
+	static int findSlot(int[] targets, int from, int to, int t){
+		int k = Arrays.binarySearch( targets, from, to, t );
+		return ( k < 0 ) ? -1 : k;
+	}
+
+	/**Returns the slot of the (outbound) edge from index {@code a} to index {@code b}; -1 otherwise*/
+	int edgeSlot(int a, int b){
+		if( a < 0 || b < 0 ) return -1;
+		return findSlot( targets, offsets[a], offsets[a+1], b );
+	}
+
+	/**Number of outbound (or, when undirected, incident) slots on vertex index {@code i}*/
+	int degree(int i){
+		return offsets[i+1] - offsets[i];
+	}
+	/**Number of inbound slots on vertex index {@code i}. Same as degree() for undirected graphs.*/
+	int inDegree(int i){
+		if( ! directed ) return degree(i);
+		Rows in = in();
+		return in.offsets[i+1] - in.offsets[i];
+	}
+
+	/**Returns the (shared) vertex handle for internal index {@code i}*/
+	Vertex<V> vertexAt(int i){
+		AtomicReferenceArray<Vertex<V>> vs = views;
+		if( vs == null ){
+			synchronized( this ){
+				if( views == null )
+					views = new AtomicReferenceArray<Vertex<V>>( n );
+				vs = views;
+			}
+		}
+		Vertex<V> v = vs.get(i);
+		if( v == null ){
+			vs.compareAndSet( i, null, new CsrVertex<V>( this, i ) );
+			v = vs.get(i);
+		}
+		return v;
+	}
+
+
+	@Override public boolean isDirected()     { return directed; }
+	@Override public int     getEdgeCount()   { return m; }
+	@Override public int     getVertexCount() { return n; }
+	@Override int            slotCount()      { return n; }
+
+	/**Returns a read only list view over the vertices of this graph (in ascending ID order)*/
+	@Override
+	public List<Vertex<V>> getVertices() {
+		return new AbstractList<Vertex<V>>() {
+			@Override public Vertex<V> get(int i) { return vertexAt(i); }
+			@Override public int size() { return n; }
+		};
+	}
+
+	/**Returns a newly materialized list of all edges in this graph.
+	 * This is {@code O(m)} per call so hold on to the result if it's needed more than once.*/
+	@Override
+	public List<Edge<V>> getEdges() {
+		List<Edge<V>> es = new ArrayList<Edge<V>>( m );
+		for( int ii = 0; ii < n; ii++ ){
+			for( int k = offsets[ii], end = offsets[ii+1]; k < end; k++ ){
+				int t = targets[k];
+				if( directed || t >= ii ) // undirected edges live in both rows; only take one of them
+					es.add( new Edge<V>( vertexAt(ii), vertexAt(t), costs[k] ) );
+			}
+		}
+		return es;
+	}
+
+	@Override
+	public boolean hasDisjointNodes() {
+		for( int ii = 0; ii < n; ii++ ){
+			if( degree(ii) == 0 && ( ! directed || inDegree(ii) == 0 ) )
+				return true;
+		}
+		return false;
+	}
+
+
+	@Override public boolean hasVertex(int id)         { return indexOf(id) >= 0; }
+	@Override public boolean hasVertex(Vertex<V> a)    { return indexOf(a) >= 0; }
+	@Override public boolean hasVertex(V element)      {
+		return element != null && _elementMap != null && _elementMap.containsKey( element );
+	}
+
+	@Override
+	public Vertex<V> getVertex(int id) {
+		int idx = indexOf(id);
+		return ( idx < 0 ) ? null : vertexAt( idx );
+	}
+	@Override
+	public Vertex<V> getVertex(Vertex<V> a) {
+		int idx = indexOf(a);
+		return ( idx < 0 ) ? null : vertexAt( idx );
+	}
+	@Override
+	public Vertex<V> getVertex(V element) {
+		if( element == null || _elementMap == null ) return null;
+		Integer idx = _elementMap.get( element );
+		return ( idx == null ) ? null : vertexAt( idx );
+	}
+
+
+	@Override public boolean hasEdge(int a, int b)              { return edgeSlot( indexOf(a), indexOf(b) ) >= 0; }
+	@Override public boolean hasEdge(Vertex<V> a, Vertex<V> b)  { return edgeSlot( indexOf(a), indexOf(b) ) >= 0; }
+	@Override public boolean hasEdge(Edge<V> e)                 { return e != null && hasEdge( e.src, e.dst ); }
+	@Override
+	public boolean hasEdge(V a, V b) {
+		Vertex<V> va = getVertex(a), vb = getVertex(b);
+		return va != null && vb != null && hasEdge( va, vb );
+	}
+
+	@Override
+	public Edge<V> getEdge(int a, int b) {
+		return edgeAt( indexOf(a), indexOf(b) );
+	}
+	@Override
+	public Edge<V> getEdge(Vertex<V> a, Vertex<V> b) {
+		return edgeAt( indexOf(a), indexOf(b) );
+	}
+	private Edge<V> edgeAt(int a, int b){
+		int k = edgeSlot( a, b );
+		return ( k < 0 ) ? null : new Edge<V>( vertexAt(a), vertexAt(b), costs[k] );
+	}
+
+
+	private static UnsupportedOperationException immutable(){
+		return new UnsupportedOperationException("CsrGraph is immutable! Modify the original graph and freeze() it again.");
+	}
+	@Override public Vertex<V> addVertex(V element)              { throw immutable(); }
+	@Override public Vertex<V> addVertex(int id, V element)      { throw immutable(); }
+	@Override public Vertex<V> addVertex(int id)                 { throw immutable(); }
+	@Override public Vertex<V> addVertex(Vertex<V> v)            { throw immutable(); }
+	@Override public void addEdge(Vertex<V> a, Vertex<V> b)      { throw immutable(); }
+	@Override public void addEdge(Vertex<V> a, Vertex<V> b, int cost) { throw immutable(); }
+	@Override public void addEdge(Edge<V> e)                     { throw immutable(); }
+	@Override public void addEdge(int a, int b)                  { throw immutable(); }
+	@Override public void addEdge(int a, int b, int cost)        { throw immutable(); }
+	@Override public void addEdge(V a, V b)                      { throw immutable(); }
+	@Override public void addEdge(V a, V b, int cost)            { throw immutable(); }
+	@Override public void removeVertex(Vertex<V> v)              { throw immutable(); }
+	@Override public void removeEdge(Edge<V> e)                  { throw immutable(); }
+
+
+	/**
+	 * Vertex handle which answers all of its adjacency questions out of the
+	 * arrays of the owning {@code CsrGraph}. Its own {@code edges} list stays empty.
+	 */
+	static class CsrVertex<V> extends Vertex<V> {
+		private final CsrGraph<V> g;
+		private final int idx;
+
+		CsrVertex(CsrGraph<V> g, int idx){
+			super( g.ids[idx], (g.elements == null)? null : g.elements[idx], Collections.<Edge<V>>emptyList() );
+			this.g = g;
+			this.idx = idx;
+			this.slot = idx;
+			this.directed = g.directed;
+		}
+
+		/**Adds edges for slots [from,to) to {@code out}, pointing away from us if {@code outward}*/
+		private void collect(List<Edge<V>> out, int[] others, int[] cs, int from, int to,
+				boolean outward, boolean skipLoops){
+			for( int k = from; k < to; k++ ){
+				int t = others[k];
+				if( skipLoops && t == idx ) continue;
+				Vertex<V> o = g.vertexAt( t );
+				out.add( outward ? new Edge<V>( this, o, cs[k] ) : new Edge<V>( o, this, cs[k] ) );
+			}
+		}
+
+		@Override
+		public List<Edge<V>> getEdges() {
+			List<Edge<V>> es = new ArrayList<Edge<V>>( g.degree(idx) );
+			collect( es, g.targets, g.costs, g.offsets[idx], g.offsets[idx+1], true, false );
+			if( g.directed ){
+				Rows in = g.in();
+				collect( es, in.others, in.costs, in.offsets[idx], in.offsets[idx+1], false, false );
+			}
+			return es;
+		}
+		@Override
+		List<Edge<V>> getOutBound() {
+			List<Edge<V>> es = new ArrayList<Edge<V>>( g.degree(idx) );
+			collect( es, g.targets, g.costs, g.offsets[idx], g.offsets[idx+1], true, true );
+			return es;
+		}
+		@Override
+		List<Edge<V>> getInBound() {
+			List<Edge<V>> es = new ArrayList<Edge<V>>( g.inDegree(idx) );
+			Rows in = g.in();
+			collect( es, in.others, in.costs, in.offsets[idx], in.offsets[idx+1], false, true );
+			return es;
+		}
+
+		@Override
+		public void forEachNeighbor(Consumer<? super Vertex<V>> action) {
+			for( int k = g.offsets[idx], end = g.offsets[idx+1]; k < end; k++ )
+				action.accept( g.vertexAt( g.targets[k] ) );
+			if( g.directed ){
+				Rows in = g.in();
+				for( int k = in.offsets[idx], end = in.offsets[idx+1]; k < end; k++ )
+					action.accept( g.vertexAt( in.others[k] ) );
+			}
+		}
+		@Override
+		public void forEachOutNeighbor(Consumer<? super Vertex<V>> action) {
+			for( int k = g.offsets[idx], end = g.offsets[idx+1]; k < end; k++ )
+				if( g.targets[k] != idx )
+					action.accept( g.vertexAt( g.targets[k] ) );
+		}
+		@Override
+		public void forEachInNeighbor(Consumer<? super Vertex<V>> action) {
+			Rows in = g.in();
+			int[] offs = in.offsets, srcs = in.others;
+			for( int k = offs[idx], end = offs[idx+1]; k < end; k++ )
+				if( srcs[k] != idx )
+					action.accept( g.vertexAt( srcs[k] ) );
+		}
+		@Override
+		public void forEachOutNeighborId(IntConsumer action) {
+			for( int k = g.offsets[idx], end = g.offsets[idx+1]; k < end; k++ )
+				if( g.targets[k] != idx )
+					action.accept( g.ids[ g.targets[k] ] );
+		}
+		@Override
+		public void forEachInNeighborId(IntConsumer action) {
+			Rows in = g.in();
+			int[] offs = in.offsets, srcs = in.others;
+			for( int k = offs[idx], end = offs[idx+1]; k < end; k++ )
+				if( srcs[k] != idx )
+					action.accept( g.ids[ srcs[k] ] );
+		}
+
+		@Override
+		public Edge<V> getEdge(Vertex<V> b) {
+			int bi = g.indexOf( b );
+			if( bi < 0 ) return null;
+			Edge<V> e = g.edgeAt( idx, bi );
+			return ( e != null || ! g.directed ) ? e : g.edgeAt( bi, idx );
+		}
+		@Override
+		public Vertex<V> getNeighbor(Edge<V> e) {
+			return hasEdge(e) ? e.otherSide(this) : null;
+		}
+		@Override
+		boolean hasEdge(Edge<V> e) {
+			return e != null && e.isIncidentOn(this) && g.hasEdge( e );
+		}
+		@Override
+		boolean hasNeighbor(Vertex<V> b) {
+			return getEdge( b ) != null;
+		}
+		@Override
+		int numEdges(Vertex<V> b) {
+			int bi = g.indexOf( b );
+			if( bi < 0 ) return 0;
+			int cnt = count( g.targets, g.offsets[idx], g.offsets[idx+1], bi );
+			if( g.directed && bi != idx ){
+				Rows in = g.in();
+				cnt += count( in.others, in.offsets[idx], in.offsets[idx+1], bi );
+			}
+			return cnt;
+		}
+		/**Counts (parallel) slots on a sorted row which hold {@code t}*/
+		private static int count(int[] others, int from, int to, int t){
+			int k = findSlot( others, from, to, t );
+			if( k < 0 ) return 0;
+			int lo = k, hi = k;
+			while( lo > from   && others[lo-1] == t ) lo--;
+			while( hi < to - 1 && others[hi+1] == t ) hi++;
+			return hi - lo + 1;
+		}
+		@Override
+		void removeEdge(Edge<V> e) {
+			throw immutable();
+		}
+	}
+}
@@ -37,7 +37,6 @@ public class DFS {
 		System.out.println("=========TRAVERSING======");
 		for( Vertex v : (List<Vertex>) g.getVertices() ) {
 			System.out.println("\nStarting at " + v);
-			g.clearVisited();
 			traverseDFS( v );
 		}
 	}
@@ -47,21 +46,21 @@ public class DFS {
 	public static void traverseDFS(Vertex s ){
 		traverseDFS(s, null, false, new RunningTotal());
 	}
+	/**Depth first traversal from {@code s}, keeping its visited marks in {@code bth}'s context.
+	 * So calling this again & again with the same {@code FinishingOrder} (as Kosaraju's first
+	 * pass does) doesn't walk vertices an earlier call already visited. Without a
+	 * {@code FinishingOrder} every call starts out with nothing visited.*/
 	public static void traverseDFS(Vertex s, FinishingOrder bth, boolean reverse, RunningTotal rt){
-		s.visited = true;
-		rt.inc();
-		//System.out.println( "visiting " + s ); //s + ((p==null)?"":" (from "+p.id+")" ));
-		//int v = 0;
-		for( Edge e : (List<Edge>) ((reverse)?s.getInBound():s.getOutBound())  ){
-			if( ! ((reverse)? e.src.isVisited() : e.dst.isVisited()) ) {
-				traverseDFS( ((reverse)?e.src:e.dst), bth, reverse, rt );
-				//v++;
-			}
-		}
-		if( bth != null && s.order == -1 )  {
-			bth.doBackTrack( s );
-			//System.out.println("Backtracking. "+s.id+" is #"+ ((bth!=null)?s.order:"")+")");
-		}
+		traverseDFS( s, bth, reverse, rt, ( bth != null )? bth.ctx : new TraversalContext() );
+	}
+	/**Depth first traversal from {@code s} which keeps its visited marks in {@code ctx}
+	 * instead of on the vertices, so other traversals may walk the same graph at once.
+	 * Vertices already visited in {@code ctx} are not walked again.
+	 * </p>
+	 * Walks with an explicit stack (see {@link GraphTraversal#dfs}) so long paths 
+	 * don't overflow the call stack.*/
+	public static void traverseDFS(Vertex s, FinishingOrder bth, boolean reverse, RunningTotal rt, TraversalContext ctx){
+		GraphTraversal.dfs( s, bth, reverse, rt, ctx );
 	}
 	
 	public interface BackTrackHook{
@@ -70,8 +69,18 @@ public class DFS {
 	public static class FinishingOrder implements BackTrackHook {
 		private int _order = 0;
 		private List<Integer> ordering = new ArrayList<Integer>(); // this might hurt
+		private final TraversalContext ctx;
+		
+		/**Records finishing orders into a context of its own*/
+		public FinishingOrder(){
+			this( new TraversalContext() );
+		}
+		/**Records finishing orders into {@code ctx}, leaving the vertices untouched*/
+		public FinishingOrder(TraversalContext ctx){
+			this.ctx = ctx;
+		}
 		public void doBackTrack(Vertex s){
-			s.order = ++_order;
+			ctx.setOrder( s, ++_order );
 			ordering.add(s.id);
 		}
 		@Override
@@ -0,0 +1,155 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+
+import com.mnasser.util.DisjointSet;
+
+/**
+ * Single-linkage clustering of a graph's vertices, for every {@code k} at once.
+ * </p>
+ * Single-linkage merges the two closest clusters, again & again, which is exactly the order
+ * Kruskal's algorithm takes the minimum spanning tree's edges in. So Kruskal runs once
+ * ({@link KruskalMST#findMSTSorted(Graph)}), and the tree edges sorted by cost are the whole
+ * merge sequence. Stopping after {@code n - k} of them leaves {@code k} clusters, and the next
+ * one is the cheapest edge between any two of them : the spacing of that clustering.
+ * </p>
+ * The merges are kept as a dendrogram in primitive arrays. Nodes {@code 0..n-1} are the
+ * vertices; merge {@code i} makes node {@code n + i} the parent of the two clusters it joins,
+ * at cost {@code getMergeCost(i)}. A node's parent always comes after it, so the clusters at any
+ * {@code k} come out of one pass from the top down in {@code O(n)}. The spacing at any {@code k}
+ * is a single array read.
+ * </p>
+ * A disconnected graph can't go below one cluster per connected component.
+ *
+ * @author Moe
+ */
+public class Dendrogram {
+
+	private final int[] ids;        // vertex index -> id, ascending
+	private final int[] parent;     // node -> parent node. Itself for a top node
+	private final int[] mergeCost;  // merge i -> cost of the edge it took
+	private final int[] mergeSrc, mergeDst; // merge i -> that edge's end points (vertex indices)
+	private final int n, merges;
+
+	private Dendrogram(int[] ids, int[] parent, int[] mergeCost, int[] mergeSrc, int[] mergeDst){
+		this.ids = ids;
+		this.parent = parent;
+		this.mergeCost = mergeCost;
+		this.mergeSrc = mergeSrc;
+		this.mergeDst = mergeDst;
+		this.n = ids.length;
+		this.merges = mergeCost.length;
+	}
+
+	/**Single-linkage clustering of the vertices of {@code G}, with edge costs as distances*/
+	public static Dendrogram of(Graph<?> G){
+		return of( KruskalMST.findMSTSorted( G ) );
+	}
+
+	/**Single-linkage clustering from a minimum spanning tree (or forest)*/
+	public static Dendrogram of(SpanningTree T){
+		int n = T.ids.length, m = T.getEdgeCount();
+		long[] keys = new long[ m ];
+		m = 0;
+		for( int v = 0; v < n; v++ )
+			if( T.parent[v] != v ) keys[m++] = KruskalMST.key( T.cost[v], v );
+		Arrays.sort( keys );
+
+		int[] parent = new int[ n + m ], top = new int[ n ];
+		int[] cost = new int[ m ], src = new int[ m ], dst = new int[ m ];
+		for( int x = 0; x < parent.length; x++ ) parent[x] = x;
+		for( int v = 0; v < n; v++ ) top[v] = v;  // set leader -> its dendrogram node
+		DisjointSet sets = new DisjointSet( n );
+		for( int ii = 0; ii < m; ii++ ){
+			int v = (int) keys[ii];
+			int a = sets.find( v ), b = sets.find( T.parent[v] );
+			parent[ top[a] ] = parent[ top[b] ] = n + ii;
+			sets.union( a, b );
+			top[ sets.find( a ) ] = n + ii;
+			cost[ii] = T.cost[v];
+			src[ii]  = T.parent[v];
+			dst[ii]  = v;
+		}
+		return new Dendrogram( T.ids, parent, cost, src, dst );
+	}
+
+	public int getVertexCount(){ return n; }
+	/**Number of merges : vertices less connected components*/
+	public int getMergeCount(){ return merges; }
+	/**Fewest clusters there can be : one per connected component*/
+	public int getMinClusters(){ return n - merges; }
+
+	/**Cost of the edge merge {@code i} took. Never less than the merge before.*/
+	public int getMergeCost(int i){
+		return mergeCost[i];
+	}
+
+	/**
+	 * The smallest distance between two vertices in different clusters, with {@code k}
+	 * clusters. This is the largest such distance any {@code k}-clustering can have.
+	 * @return {@code Long.MAX_VALUE} if no edge joins the clusters
+	 */
+	public long getMaxSpacing(int k){
+		check( k );
+		return ( n - k < merges ) ? mergeCost[ n - k ] : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Cluster of each vertex with {@code k} clusters, in {@code O(n)}.
+	 * @return Cluster numbers {@code 0..k-1}, by vertex in ascending ID order (see {@link #getIds()})
+	 */
+	public int[] getLabels(int k){
+		check( k );
+		int cut = n + ( n - k );  // merges at or past this node haven't happened yet
+		int[] label = new int[ n + merges ];
+		int next = 0;
+		for( int x = Math.min( cut, n + merges ) - 1; x >= 0; x-- ){
+			int p = parent[x];
+			label[x] = ( p == x || p >= cut ) ? next++ : label[p];
+		}
+		return Arrays.copyOf( label, n );
+	}
+
+	/**Vertex IDs of each of the {@code k} clusters*/
+	public int[][] getClusters(int k){
+		int[] label = getLabels( k );
+		int[] size = new int[ k ];
+		for( int v = 0; v < n; v++ ) size[ label[v] ]++;
+		int[][] clusters = new int[ k ][];
+		for( int c = 0; c < k; c++ ) clusters[c] = new int[ size[c] ];
+		Arrays.fill( size, 0 );
+		for( int v = 0; v < n; v++ )
+			clusters[ label[v] ][ size[ label[v] ]++ ] = ids[v];
+		return clusters;
+	}
+
+	/**IDs of the vertices, ascending. The order of {@link #getLabels(int)}.*/
+	public int[] getIds(){
+		return ids.clone();
+	}
+
+	/**
+	 * The edges of the first {@code n - k} merges, over {@code G}'s own vertices (so their
+	 * elements come along). Every vertex is in, clustered or not.
+	 * @param G The graph this was built from
+	 */
+	public <V> Graph<V> toGraph(Graph<V> G, int k){
+		check( k );
+		Graph<V> T = new AdjacencyListGraph<V>( n );
+		for( int v = 0; v < n; v++ )
+			T.addVertex( G.getVertex( ids[v] ) );
+		for( int ii = 0; ii < n - k; ii++ )
+			T.addEdge( G.getVertex( ids[ mergeSrc[ii] ] ), G.getVertex( ids[ mergeDst[ii] ] ), mergeCost[ii] );
+		return T;
+	}
+
+	private void check(int k){
+		if( k > n ) throw new RuntimeException("K greater than total vertices in a graph");
+		if( k < n - merges ) throw new RuntimeException("Can't make " + k + " clusters out of " + ( n - merges ) + " connected components");
+	}
+
+	@Override
+	public String toString(){
+		return "Dendrogram[" + n + " vertices, " + merges + " merges]";
+	}
+}
@@ -10,6 +10,10 @@ package com.mnasser.graph;
  * </p>
  * To make a bi-directional pair of vertices (from which you can traverse back
  * and forth between them) you will need 2 edges : one for each direction. 
+ * </p>
+ * Every vertex keeps its outbound and inbound edges in separate lists, so walking 
+ * one direction (ex: the reverse pass of {@code StronglyConnectedComponents}) costs 
+ * that direction's degree only.
  * 
  * @author Moe
  *
@@ -38,6 +42,29 @@ public class DirectedGraph<V> extends AdjacencyListGraph<V>{
 			super.addEdge(e);
 	}
 	
+	/**Returns true iff there's an edge going <strong>from</strong> {@code e.src} 
+	 * <strong>to</strong> {@code e.dst}. Only the outbound edges of the source are 
+	 * looked at, so this is {@code O(out-degree)} rather than {@code O(m)}.*/
+	@Override
+	public boolean hasEdge(Edge<V> e) {
+		return e != null && hasEdge( e.src, e.dst );
+	}
+	@Override
+	public boolean hasEdge(Vertex<V> a, Vertex<V> b) {
+		Vertex<V> va = getVertex(a);
+		return va != null && b != null && va.getOutEdge(b) != null;
+	}
+	@Override
+	public boolean hasEdge(int a, int b) {
+		Vertex<V> va = getVertex(a), vb = getVertex(b);
+		return va != null && vb != null && va.getOutEdge(vb) != null;
+	}
+	@Override
+	public boolean hasEdge(V a, V b) {
+		Vertex<V> va = getVertex(a), vb = getVertex(b);
+		return va != null && vb != null && va.getOutEdge(vb) != null;
+	}
+	
 	@Override
 	public Vertex<V> addVertex(Vertex<V> node) {
 		Vertex<V> v1 = super.addVertex(node);
@@ -49,18 +76,6 @@ public class DirectedGraph<V> extends AdjacencyListGraph<V>{
 	Vertex<V> getMax(){ return this.max; }
 	Vertex<V> getMin(){ return this.min; }
 	
-	public void clearVisited(){
-		for( Vertex<V> a : getVertices() ){
-			a.visited = false;
-		}
-	}
-	
-	public void clearOrdering(){
-		for( Vertex<V> a : getVertices() ){
-			a.order = -1;
-		}
-	}
-
 	/*
 	void reverse(){
 		this.reversed = true;
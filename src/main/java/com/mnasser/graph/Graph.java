@@ -4,8 +4,9 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * A generic representation of a graph.  It consists of edges E and vertices V.
@@ -92,6 +93,19 @@ public abstract class Graph<V> {
 		if ( currentID > _ids )
 			_ids = currentID;
 	}
+	/**Returns the largest vertex ID this graph has seen so far*/
+	int getMaxId(){
+		return _ids;
+	}
+	
+	/**One more than the largest slot handed to a vertex of this graph. 
+	 * See {@link TraversalContext}*/
+	int slotCount(){
+		int max = -1;
+		for( Vertex<V> v : getVertices() )
+			max = Math.max( max, v.slot );
+		return max + 1;
+	}
 	
 	/** Deep copy of {@code g}. Can be very Slow.*/
 	public static <X> Graph<X> copyOf(Graph<X> G){
@@ -131,31 +145,36 @@ public abstract class Graph<V> {
 		public final V element;
 		
 		protected List<Edge<V>> edges;
-		protected boolean visited = false;
-		protected int order = -1;
+		/**Directed graphs also split {@code edges} by direction so each direction 
+		 * can be walked in time proportional to its own degree. Null when undirected.*/
+		protected List<Edge<V>> outEdges = null;
+		protected List<Edge<V>> inEdges  = null;
+		/**Dense index given out by the graph owning this vertex. Used by {@link TraversalContext}
+		 * to keep per-traversal state out of the vertex. -1 if not owned by a graph.*/
+		protected int slot = -1;
 		protected boolean directed = false;
-		
-		/**The leader pointer is used for Union-Find algorithms
-		 * By default each vertex is in its own cluster and thus is its
-		 * own leader pointer*/
-		protected Vertex<V> leaderPointer = this;
-		/**How many other vertices point to this vertex.*/
-		protected List<Vertex<V>> followers = null;
-		/**For Lazy-Union find & Path compression when finding minimum spanning trees*/
-		protected int rank = 0;
+		/**Our edges by neighbor ID. Null until we're big enough to need one, see {@code index()}.
+		 * Volatile since read only look ups build it.*/
+		private volatile NeighborIndex<V> index = null;
 		
 
 		public Vertex(int id) {
 			this( id , null );
 		}
 		public Vertex(int id, V element) {
+			this( id, element, new ArrayList<Edge<V>>() );
+		}
+		/**For vertex implementations which keep their edges elsewhere (ex: {@code CsrGraph})*/
+		Vertex(int id, V element, List<Edge<V>> edges) {
 			this.id = id;
 			this.element = element;
-			this.edges = new ArrayList<Edge<V>>();
+			this.edges = edges;
 		}
 		/**Given another vertex <code>b</code> returns the edge
 		 * incident on both us and <code>b</code>.  Returns null otherwise.*/
 		public Edge<V> getEdge(Vertex<V> b){
+			NeighborIndex<V> ix = index();
+			if( ix != null ) return ix.find( b, false );
 			return edges.stream()
 				.filter( e -> e.otherSide(this).equals( b ) )
 				.findFirst()
@@ -190,9 +209,93 @@ public abstract class Graph<V> {
 		boolean hasEdge(Edge<V> e){
 			return edges.contains(e);
 		}
+		/**Adds {@code e} to our adjacency lists, noting where it went in {@code e}. Called once
+		 * per end of the edge (so twice for a self loop): the source end first.
+		 * Graphs go through here so positions & the index stay in step.*/
+		void addEdge(Edge<V> e){
+			if( e.src == this && e.srcPos < 0 ){
+				e.srcPos = edges.size();
+				edges.add( e );
+				if( outEdges != null ){ e.outPos = outEdges.size(); outEdges.add( e ); }
+			}else{
+				e.dstPos = edges.size();
+				edges.add( e );
+				if( inEdges != null ){ e.inPos = inEdges.size(); inEdges.add( e ); }
+			}
+			NeighborIndex<V> ix = index;
+			if( ix != null ) ix.add( e );
+		}
+		/**Removes this exact edge instance from our adjacency lists in {@code O(1)}. Like
+		 * {@code addEdge()}, each call takes one end of the edge.
+		 * </p>
+		 * The last edge of each list is moved into the hole, so removals shuffle the order
+		 * of the remaining edges.*/
 		void removeEdge(Edge<V> e){
-			if( edges.contains(e) ){
-				edges.remove(e);
+			if( e.src == this && e.srcPos >= 0 ){
+				e.srcPos = removeAt( edges, e, e.srcPos );
+				if( outEdges != null ) e.outPos = removeAt( outEdges, e, e.outPos );
+			}else if( e.dst == this && e.dstPos >= 0 ){
+				e.dstPos = removeAt( edges, e, e.dstPos );
+				if( inEdges  != null ) e.inPos  = removeAt( inEdges , e, e.inPos );
+			}else{
+				return;
+			}
+			NeighborIndex<V> ix = index;
+			if( ix != null ) ix.remove( e );
+		}
+		/**Takes {@code e} out of {@code list} (one of ours) where it sits at {@code pos} by 
+		 * moving the last entry into its place, and updates the moved edge's position.
+		 * @return -1, as the new position of {@code e}*/
+		private int removeAt(List<Edge<V>> list, Edge<V> e, int pos){
+			int last = list.size() - 1;
+			if( pos > last || list.get(pos) != e ){ // position out of step. Shouldn't happen
+				removeInstance( list, e );
+				return -1;
+			}
+			Edge<V> moved = list.remove( last );
+			if( pos == last ) return -1;
+			list.set( pos, moved );
+			if( list == outEdges )      moved.outPos = pos;
+			else if( list == inEdges )  moved.inPos  = pos;
+			else if( moved.src == this && moved.srcPos == last ) moved.srcPos = pos;
+			else                        moved.dstPos = pos; // (a self loop's other end can be moved too)
+			return -1;
+		}
+		/**Like {@code List.remove(Object)} but by reference rather than equals(), since
+		 * equal edges can be parallel edges or (in directed graphs) go the other way.*/
+		static <X> boolean removeInstance(List<X> list, X x){
+			for( int ii = 0, len = list.size(); ii < len; ii++ ){
+				if( list.get(ii) == x ){
+					list.remove(ii);
+					return true;
+				}
+			}
+			return false;
+		}
+		/**Returns an edge leaving this vertex and arriving at {@code b}. Null if there is none.*/
+		Edge<V> getOutEdge(Vertex<V> b){
+			NeighborIndex<V> ix = index();
+			if( ix != null ) return ix.find( b, true );
+			List<Edge<V>> es = (outEdges != null)? outEdges : edges;
+			for( int ii = 0, len = es.size(); ii < len; ii++ ){
+				Edge<V> e = es.get(ii);
+				if( e.src == this && e.dst.equals(b) )
+					return e;
+			}
+			return null;
+		}
+		/**Our {@link NeighborIndex}, built here on first use once we have enough edges for 
+		 * hashing to beat a scan. Null while we're small.
+		 * </p>
+		 * Look ups are read only, and several threads may be making them on the same graph, so
+		 * the first to get here builds it under our lock and publishes it whole.*/
+		NeighborIndex<V> index(){
+			NeighborIndex<V> ix = index;
+			if( ix != null || edges.size() < NeighborIndex.MIN_DEGREE ) return ix;
+			synchronized( this ){
+				if( index == null )
+					index = new NeighborIndex<V>( this, edges );
+				return index;
 			}
 		}
 		/**Returns true iff there is an edge incident on both this vertex 
@@ -208,6 +311,8 @@ public abstract class Graph<V> {
 			//	return edges
 			//			.stream()
 			//			.anyMatch( e -> b.equals(e.otherSide(this)) );
+			NeighborIndex<V> ix = index();
+			if( ix != null ) return ix.find( b, false ) != null;
 			for(Edge<V> e : edges){
 				if( b.equals( e.otherSide(this) ))
 					return true;
@@ -217,8 +322,10 @@ public abstract class Graph<V> {
 		/**Returns the number of edges incident on both this vertex and on
 		 * the given vertex <code>b</cdoe>*/
 		int numEdges(Vertex<V> b ){
-			return ( b == null ) ?	0 : 
-				edges.stream()
+			if( b == null ) return 0;
+			NeighborIndex<V> ix = index();
+			if( ix != null ) return ix.count( b );
+			return edges.stream()
 				.filter( e -> e.otherSide(b) == this )
 				.mapToInt(e->1)
 				.sum();
@@ -231,7 +338,7 @@ public abstract class Graph<V> {
 		}
 		/**Returns a list of all edges where this vertex is a source vertex. */
 		List<Edge<V>> getOutBound(){
-			return edges.stream()
+			return ((outEdges != null)? outEdges : edges).stream()
 					.filter( e -> e.src == this && e.dst != this )
 					.collect(Collectors.toList());
 			//	List<Edge> out = new ArrayList<Edge>();
@@ -244,7 +351,7 @@ public abstract class Graph<V> {
 		}
 		/**Returns a list of all edges where this vertex is a destination vertex.*/
 		List<Edge<V>> getInBound(){
-			return edges.stream()
+			return ((inEdges != null)? inEdges : edges).stream()
 					.filter( e -> (e.dst == this &&  e.src != this) )
 					.collect( Collectors.toList() );
 			//	List<Edge> in = new ArrayList<Edge>();
@@ -255,22 +362,58 @@ public abstract class Graph<V> {
 			//	}
 			//	return in;
 		}
-		/**Returns true if this vertex has been visited.*/
-		boolean isVisited(){ return this.visited; }
-		boolean isVisited(Edge<V> e, boolean reverse){
-			if( ! e.isIncidentOn(this) ){
-				throw new RuntimeException("I couldn't have traveresed an edge not incident on me!");
+		
+		/**Calls {@code action} with the vertex on the other side of every edge
+		 * incident on this vertex. Unlike {@code getEdges()} nothing is copied, 
+		 * so walking the neighbors this way doesn't allocate.*/
+		public void forEachNeighbor(Consumer<? super Vertex<V>> action){
+			for( int ii = 0, len = edges.size(); ii < len; ii++ ){
+				action.accept( edges.get(ii).otherSide(this) );
+			}
+		}
+		/**Calls {@code action} with the destination of every edge leaving this vertex.
+		 * Same edges as {@code getOutBound()} but without building a list.*/
+		public void forEachOutNeighbor(Consumer<? super Vertex<V>> action){
+			List<Edge<V>> es = (outEdges != null)? outEdges : edges;
+			for( int ii = 0, len = es.size(); ii < len; ii++ ){
+				Edge<V> e = es.get(ii);
+				if( e.src == this && e.dst != this )
+					action.accept( e.dst );
+			}
+		}
+		/**Calls {@code action} with the source of every edge coming into this vertex.
+		 * Same edges as {@code getInBound()} but without building a list.*/
+		public void forEachInNeighbor(Consumer<? super Vertex<V>> action){
+			List<Edge<V>> es = (inEdges != null)? inEdges : edges;
+			for( int ii = 0, len = es.size(); ii < len; ii++ ){
+				Edge<V> e = es.get(ii);
+				if( e.dst == this && e.src != this )
+					action.accept( e.src );
 			}
-			if( ( ! e.src.equals(this) && ! reverse) || ( reverse && ! e.dst.equals(this) ) ){
-				throw new RuntimeException("Can't check visited if I'm the "+((reverse)?"reverse":"")+" end of the edge");
+		}
+		/**Like {@code forEachOutNeighbor()} but only hands out the neighbors' IDs*/
+		public void forEachOutNeighborId(IntConsumer action){
+			List<Edge<V>> es = (outEdges != null)? outEdges : edges;
+			for( int ii = 0, len = es.size(); ii < len; ii++ ){
+				Edge<V> e = es.get(ii);
+				if( e.src == this && e.dst != this )
+					action.accept( e.dst.id );
+			}
+		}
+		/**Like {@code forEachInNeighbor()} but only hands out the neighbors' IDs*/
+		public void forEachInNeighborId(IntConsumer action){
+			List<Edge<V>> es = (inEdges != null)? inEdges : edges;
+			for( int ii = 0, len = es.size(); ii < len; ii++ ){
+				Edge<V> e = es.get(ii);
+				if( e.dst == this && e.src != this )
+					action.accept( e.src.id );
 			}
-			return (reverse)? e.src.isVisited() : e.dst.isVisited();
 		}
 		@Override
 		public String toString() {
 			StringBuilder sb = new StringBuilder();
-			sb.append(id).append(" "+((order==-1)?"":"(#"+order+")")+" -> [");
-			List<Edge<V>> es = (this.directed)? getOutBound() : edges;
+			sb.append(id).append(" -> [");
+			List<Edge<V>> es = (this.directed)? getOutBound() : getEdges();
 			for( Edge<V> e : es ){
 				Vertex<V> o = e.otherSide(this);
 				if( o == null ){
@@ -293,7 +436,7 @@ public abstract class Graph<V> {
 				return true;
 			if (obj == null)
 				return false;
-			if (getClass() != obj.getClass())
+			if ( ! (obj instanceof Vertex) ) // vertex handles of other graph types are still vertices
 				return false;
 			@SuppressWarnings("unchecked")
 			Vertex<V> other = (Vertex<V>) obj;
@@ -317,6 +460,10 @@ public abstract class Graph<V> {
 	public static class Edge<V>   {
 		final Vertex<V> src, dst;
 		private int cost;
+		/**Where the owning graph keeps this edge : its index in the graph's edge list, in 
+		 * {@code src.edges} & {@code dst.edges}, and in {@code src.outEdges} & {@code dst.inEdges}
+		 * for directed graphs. Lets the edge be removed without searching. -1 when not there.*/
+		int slot = -1, srcPos = -1, dstPos = -1, outPos = -1, inPos = -1;
 		public Edge(Vertex<V> a, Vertex<V> b) {
 			if( a == null || b == null )
 				throw new RuntimeException("Can't have null vertices in and edge : ("
@@ -430,8 +577,8 @@ public abstract class Graph<V> {
 	}
 	protected String toInfoLine(){
 		StringBuilder sb = new StringBuilder();
-		sb.append("Total Vertices = ").append(getVertices().size())
-		  .append(". Total Edges = ").append(getEdges().size()) ;
+		sb.append("Total Vertices = ").append(getVertexCount())
+		  .append(". Total Edges = ").append(getEdgeCount()) ;
 		  //.append(". Connected = " + hasDisjointNodes())
 		return sb.toString();
 	}
@@ -512,80 +659,52 @@ public abstract class Graph<V> {
 	 * </p>
 	 * The graph is guaranteed to have at least one edge for every vertex.
 	 * (But there is no guarantee the graph is wholly connected). 
+	 * </p>
+	 * Edges go through an {@link AdjacencyListGraph.Builder}: rather than checking 
+	 * {@code hasEdge()} before every edge, duplicates are swept out in bulk and replaced 
+	 * until there are {@code vertexSize * 3/2} distinct edges (or every possible one).
 	 * @param vertexSize
 	 * @return A graph of size {@code vertexSize} with a random number of edges.
 	 */
 	public static <X> Graph<X> makeRandomGraph(int vertexSize){
+		if( vertexSize < 2 ) throw new RuntimeException("Need at least 2 vertices to connect them all!");
 		long start = System.nanoTime();
-		AdjacencyListGraph<X> G = new AdjacencyListGraph<X>(vertexSize);
-		
-		Stream<Vertex<X>> vertGen = Stream.generate( () -> new Vertex<X>(G.makeAnId()) );
-		vertGen = vertGen
-			.limit(vertexSize);
-			//.parallel()         // parallel() slows it down since they are threads just hammering G all at once
-			//.skip( 10_000 )	// slows a bit down .. w/ parallel() slows down considerably
-			//.unordered()		// unnecessary and slows a bit down
-			//if( vertexSize > 10_000 ) 
-			//	vertGen = vertGen.parallel(); // parallel() also gives you =< than the limit() size. 
-		
-		vertGen
-			.forEach( v -> G.addVertex( v ) );
+		AdjacencyListGraph.Builder<X> B = new AdjacencyListGraph.Builder<X>();
+		for( int id = 1; id <= vertexSize; id++ )
+			B.addVertex( id );
 		
-		long nodes = System.nanoTime();
-		
-		// Make connections to every node
-		G.getVertices().stream()
-			.forEach( a -> {
-				Vertex<X> b;
-				do {
-					b = //G.getVertex( RAND.nextInt(vertexSize) + 1  );
-						Graph.getRandomVertexOther( G , a );
-				}while( G.hasEdge( a, b )  ); 
-			
-				G.addEdge(  a, b, Graph.getRandomCost()  );
-				
-			});
+		// Make connections to every node. Each one keeps its edge or the duplicate of it
+		for( int id = 1; id <= vertexSize; id++ )
+			B.addEdge( id, randomIdOther( vertexSize, id ), Graph.getRandomCost() );
 		long edges = System.nanoTime();
 		
-
-		// Make a bunch of random edges
-		int rand_edges = vertexSize / 2;
-		for( int ii = 0 ; ii < rand_edges ; ii++ ) {
-		//while( G.hasDisjointNodes() ) {
-			Vertex<X> a = //G.getVertex( RAND.nextInt(vertexSize) + 1 );
-					Graph.getRandomVertex( G );
-			Vertex<X> b;
-			do {
-				b = //G.getVertex( RAND.nextInt(vertexSize) + 1);
-					Graph.getRandomVertexOther( G , a );
-			}while( G.hasEdge( a, b )  ); 
-			
-			G.addEdge(  new Edge<X>( a, b, Graph.getRandomCost() )  );
+		// Make a bunch of random edges, topping up whatever duplicates took away
+		long possible = (long) vertexSize * (vertexSize - 1) / 2;
+		int wanted = (int) Math.min( possible, vertexSize + vertexSize / 2 );
+		for( int have = B.removeDuplicates(); have < wanted; have = B.removeDuplicates() ){
+			for( int ii = have; ii < wanted; ii++ ){
+				int a = RAND.nextInt( vertexSize ) + 1;
+				B.addEdge( a, randomIdOther( vertexSize, a ), Graph.getRandomCost() );
+			}
 		}
 		long more_rand_edges = System.nanoTime();
-
-		
-		// Find any lonely singleton nodes... 
-		List<Edge<X>> moreEdges = G.getVertices().stream()
-			.filter( a -> a.edges.isEmpty() )
-			.map( a -> new Edge<X>( a , Graph.getRandomVertexOther(G , a) , Graph.getRandomCost()) )
-			//.forEach(  e -> G.addEdge( e ) );   // ConcurrentModificationException
-			.collect( Collectors.toList());
 		
-		for( Edge<X> me : moreEdges )
-			G.addEdge( me );
-		
-		long singles = System.nanoTime();
+		AdjacencyListGraph<X> G = B.build();
+		long built = System.nanoTime();
 		
 		System.out.println();
-		System.out.printf("Time to fill nodes        : %sms%n", (nodes - start)/1_000_000.0);
-		System.out.printf("Time random edges         : %sms%n", (edges - nodes)/1_000_000.0);
+		System.out.printf("Time random edges         : %sms%n", (edges - start)/1_000_000.0);
 		System.out.printf("Time more random edges    : %sms%n", (more_rand_edges - edges)/1_000_000.0);
-		System.out.printf("Time connect single nodes : %sms%n", (singles - more_rand_edges)/1_000_000.0);
+		System.out.printf("Time to build graph       : %sms%n", (built - more_rand_edges)/1_000_000.0);
 		System.out.println( G.toInfoLine() );
 		
 		return G;
 	}
+	/**Random ID in {@code 1..n} other than {@code id}*/
+	private static int randomIdOther(int n, int id){
+		int b = RAND.nextInt( n - 1 ) + 1;
+		return (b >= id)? b + 1 : b;
+	}
 
 	
 }
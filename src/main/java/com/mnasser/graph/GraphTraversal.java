@@ -0,0 +1,280 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import com.mnasser.graph.DFS.BackTrackHook;
+import com.mnasser.graph.DFS.RunningTotal;
+import com.mnasser.graph.Graph.Vertex;
+
+/**
+ * Traversal engine for graphs too big for the recursive {@code DFS}.
+ * </p>
+ * <strong>Breadth first :</strong> {@code bfs()} is level synchronous. Each level's frontier
+ * is split across the threads of a {@link ForkJoinPool}; every task expands its share of
+ * the frontier into its own buffer and the buffers are joined into the next frontier.
+ * A vertex is claimed by whichever thread first flips its bit in a shared atomic bitmap,
+ * so each vertex is expanded exactly once.  Small frontiers are expanded on the calling thread.
+ * </p>
+ * <strong>Depth first :</strong> {@code dfs()} walks with an explicit stack, so long paths
+ * can't overflow the call stack.  It visits vertices in the same order as a recursive walk
+ * and calls {@link BackTrackHook}s ({@link DFS.FinishingOrder}) as each vertex finishes.
+ * </p>
+ * Directed graphs are walked along their edges (or against them if {@code reverse});
+ * undirected ones along every edge.  Neither walk writes to the graph, so the graph may
+ * be shared with other read only algorithms while it's being walked (but not modified).
+ *
+ * @author Moe
+ */
+public class GraphTraversal {
+
+	/**Frontiers smaller than this are expanded on the calling thread*/
+	static final int PARALLEL_THRESHOLD = 4096;
+	/**Vertices expanded by a single fork join task*/
+	static final int GRAIN = 1024;
+
+	/**Hop counts from a breadth first search, indexed by the vertices' slots.*/
+	public static final class BFSResult {
+		private final int[] hops;
+		private final int reached;
+		private final int levels;
+
+		BFSResult(int[] hops, int reached, int levels){
+			this.hops = hops;
+			this.reached = reached;
+			this.levels = levels;
+		}
+		/**Fewest edges from any source to {@code v}. 0 for sources, -1 if {@code v} wasn't reached.*/
+		public int getHops(Vertex<?> v){
+			return ( v.slot < 0 || v.slot >= hops.length ) ? -1 : hops[ v.slot ];
+		}
+		public boolean isReached(Vertex<?> v){
+			return getHops( v ) >= 0;
+		}
+		/**Number of vertices reached, sources included*/
+		public int getReachedCount(){
+			return reached;
+		}
+		/**Hops to the farthest reached vertex*/
+		public int getLevels(){
+			return levels;
+		}
+	}
+
+	/**Parallel breadth first search out of {@code s} on the common fork join pool*/
+	public static <X> BFSResult bfs(Graph<X> g, Vertex<X> s){
+		return bfs( g, Collections.<Vertex<?>>singleton( g.getVertex( s ) ), false, ForkJoinPool.commonPool() );
+	}
+	/**Parallel multi source breadth first search.
+	 * @param g The graph to walk. Must not be modified while we walk it.
+	 * @param sources Vertices of {@code g} to start from. All are at hop 0.
+	 * @param reverse Walk directed edges from destination to source
+	 * @param pool Where to expand large frontiers*/
+	public static BFSResult bfs(Graph<?> g, Collection<? extends Vertex<?>> sources, boolean reverse, ForkJoinPool pool){
+		int slots = g.slotCount();
+		int[] hops = new int[ slots ];
+		Arrays.fill( hops, -1 );
+		AtomicLongArray seen = new AtomicLongArray( (slots + 63) >>> 6 );
+
+		Vertex<?>[] frontier = new Vertex<?>[ Math.max( 1, sources.size() ) ];
+		int size = 0;
+		for( Vertex<?> s : sources ){
+			if( claim( seen, s.slot ) ){
+				hops[ s.slot ] = 0;
+				frontier[ size++ ] = s;
+			}
+		}
+		int reached = size, level = 0;
+		while( size > 0 ){
+			Frontier next;
+			if( size < PARALLEL_THRESHOLD )
+				next = expand( frontier, 0, size, level + 1, reverse, seen, hops );
+			else
+				next = pool.invoke( new Expand( frontier, 0, size, level + 1, reverse, seen, hops ) );
+			if( next.size == 0 ) break;
+			frontier = next.vs;
+			size = next.size;
+			reached += size;
+			level++;
+		}
+		return new BFSResult( hops, reached, level );
+	}
+
+	/**Fewest edges on a path from {@code a} to {@code b}. -1 if there is no such path.*/
+	public static <X> int hops(Graph<X> g, Vertex<X> a, Vertex<X> b){
+		return bfs( g, a ).getHops( g.getVertex( b ) );
+	}
+
+	/**Sets the bit for {@code slot}. True if we were the ones to set it.*/
+	static boolean claim(AtomicLongArray bits, int slot){
+		int w = slot >>> 6;
+		long bit = 1L << slot, old;
+		do{
+			old = bits.get( w );
+			if( (old & bit) != 0 ) return false;
+		}while( ! bits.compareAndSet( w, old, old | bit ) );
+		return true;
+	}
+
+	/**A growable run of vertices. One per task, so no locking.*/
+	static final class Frontier implements Consumer<Vertex<?>> {
+		Vertex<?>[] vs = new Vertex<?>[ 16 ];
+		int size = 0;
+
+		private final AtomicLongArray seen;
+		private final int[] hops;
+		private final int level;
+
+		Frontier(AtomicLongArray seen, int[] hops, int level){
+			this.seen = seen;
+			this.hops = hops;
+			this.level = level;
+		}
+		@Override
+		public void accept(Vertex<?> v){
+			if( claim( seen, v.slot ) ){
+				hops[ v.slot ] = level;
+				add( v );
+			}
+		}
+		void add(Vertex<?> v){
+			if( size == vs.length ) vs = Arrays.copyOf( vs, size * 2 );
+			vs[ size++ ] = v;
+		}
+		void addAll(Frontier f){
+			if( size + f.size > vs.length ) vs = Arrays.copyOf( vs, Math.max( size + f.size, vs.length * 2 ) );
+			System.arraycopy( f.vs, 0, vs, size, f.size );
+			size += f.size;
+		}
+	}
+
+	private static Frontier expand(Vertex<?>[] frontier, int lo, int hi, int level, boolean reverse,
+			AtomicLongArray seen, int[] hops){
+		Frontier next = new Frontier( seen, hops, level );
+		for( int ii = lo; ii < hi; ii++ )
+			neighbors( frontier[ii], reverse, next );
+		return next;
+	}
+
+	@SuppressWarnings("serial")
+	private static final class Expand extends RecursiveTask<Frontier> {
+		private final Vertex<?>[] frontier;
+		private final int lo, hi, level;
+		private final boolean reverse;
+		private final AtomicLongArray seen;
+		private final int[] hops;
+
+		Expand(Vertex<?>[] frontier, int lo, int hi, int level, boolean reverse, AtomicLongArray seen, int[] hops){
+			this.frontier = frontier;
+			this.lo = lo;
+			this.hi = hi;
+			this.level = level;
+			this.reverse = reverse;
+			this.seen = seen;
+			this.hops = hops;
+		}
+		@Override
+		protected Frontier compute(){
+			if( hi - lo <= GRAIN )
+				return expand( frontier, lo, hi, level, reverse, seen, hops );
+			int mid = (lo + hi) >>> 1;
+			Expand left = new Expand( frontier, lo, mid, level, reverse, seen, hops );
+			left.fork();
+			Frontier right = new Expand( frontier, mid, hi, level, reverse, seen, hops ).compute();
+			Frontier f = left.join();
+			f.addAll( right );
+			return f;
+		}
+	}
+
+	/**Hands {@code action} the vertices one step away from {@code v}*/
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static void neighbors(Vertex v, boolean reverse, Consumer action){
+		if( ! v.directed )
+			v.forEachNeighbor( action );
+		else if( reverse )
+			v.forEachInNeighbor( action );
+		else
+			v.forEachOutNeighbor( action );
+	}
+
+	/**
+	 * Iterative depth first walk from {@code s} over the vertices not yet visited in {@code ctx}.
+	 * </p>
+	 * Each vertex is entered once: {@code rt} is incremented and it is marked visited in {@code ctx}.
+	 * Once all of its descendants are done, {@code bth} (if given) is called on it, unless it
+	 * already has a finishing order in {@code ctx}.
+	 * </p>
+	 * The stack holds at most one entry per edge plus one per vertex.
+	 */
+	@SuppressWarnings({ "rawtypes" })
+	public static void dfs(Vertex s, BackTrackHook bth, boolean reverse, RunningTotal rt, TraversalContext ctx){
+		new DepthFirst( bth, reverse, rt, ctx ).walk( s );
+	}
+
+	/**Explicit stack of vertices, each flagged as either "enter" or "finish"*/
+	@SuppressWarnings("rawtypes")
+	private static final class DepthFirst implements Consumer<Vertex> {
+		private final BackTrackHook bth;
+		private final boolean reverse;
+		private final RunningTotal rt;
+		private final TraversalContext ctx;
+
+		private Vertex[]  stack  = new Vertex[ 64 ];
+		private boolean[] finish = new boolean[ 64 ];
+		private int top = 0;
+
+		DepthFirst(BackTrackHook bth, boolean reverse, RunningTotal rt, TraversalContext ctx){
+			this.bth = bth;
+			this.reverse = reverse;
+			this.rt = rt;
+			this.ctx = ctx;
+		}
+
+		void walk(Vertex s){
+			push( s, false );
+			while( top > 0 ){
+				Vertex v = stack[ --top ];
+				boolean done = finish[ top ];
+				stack[ top ] = null;
+				if( done ){
+					if( bth != null && ctx.getOrder( v ) == -1 )
+						bth.doBackTrack( v );
+				}else if( ctx.markVisited( v ) ){
+					if( rt != null ) rt.inc();
+					push( v, true );
+					int from = top;
+					neighbors( v, reverse, this );
+					reverse( from, top - 1 ); // so the first neighbor is walked first, like a recursive walk
+				}
+			}
+		}
+
+		@Override
+		public void accept(Vertex next){
+			if( ! ctx.isVisited( next ) )
+				push( next, false );
+		}
+
+		private void push(Vertex v, boolean f){
+			if( top == stack.length ){
+				stack  = Arrays.copyOf( stack, top * 2 );
+				finish = Arrays.copyOf( finish, top * 2 );
+			}
+			stack[ top ]  = v;
+			finish[ top ] = f;
+			top++;
+		}
+
+		private void reverse(int lo, int hi){
+			for( ; lo < hi; lo++, hi-- ){
+				Vertex t = stack[lo]; stack[lo] = stack[hi]; stack[hi] = t;
+			}
+		}
+	}
+}
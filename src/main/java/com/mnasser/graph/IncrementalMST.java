@@ -0,0 +1,413 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+
+import com.mnasser.util.IntMap;
+
+/**
+ * A minimum spanning forest kept up to date as weighted edges keep arriving, rather than
+ * rebuilt with {@code KruskalMST} or {@code PrimMST} after every batch.
+ * </p>
+ * A new edge between two trees just joins them. A new edge within a tree closes a cycle : the
+ * heaviest edge on the tree path between its end points gets swapped out for it, if it's
+ * heavier (the cycle property says that edge can't be in the MST any more). Otherwise the new
+ * edge is dropped.
+ * </p>
+ * The forest is a link-cut tree (Sleator & Tarjan) : each tree is split into paths kept in
+ * splay trees, so linking, cutting and "heaviest edge between a & b" are each amortized
+ * {@code O(log n)}. Every tree edge is a node of its own carrying its cost, with each splay
+ * subtree keeping its heaviest node, so path maximums need no extra bookkeeping on vertices.
+ * All nodes live in flat parallel arrays which grow as vertices are added.
+ * </p>
+ * Total cost, edge & tree counts are kept as it goes, and {@code hasEdge()} is a map lookup, so
+ * none of those cost anything to ask for. Edges can only be added. Directed edges are taken as
+ * undirected.
+ * </p>
+ * Not thread safe.
+ *
+ * @author Moe
+ */
+public class IncrementalMST {
+
+	private static final int NIL = -1;
+
+	// one node per vertex & one per tree edge
+	private int[] left, right, par;
+	private boolean[] rev;     // children still to be swapped (path reversed)
+	private int[] cost;        // edge cost. Integer.MIN_VALUE for vertices
+	private int[] max;         // node with the largest cost in this node's splay subtree
+	private int[] ends;        // edge node -> its two vertex nodes at [2x], [2x+1]. NIL for vertices
+	private int[] stack;
+	private int nodes = 0;
+	private int freeEdges = NIL;  // removed edge nodes, chained through par[]
+
+	private final IntMap<Integer> vertexOf;  // id -> node
+	private final PairTable edgeOf;          // id pair -> edge node
+	private int[] idOf;         // vertex node -> id
+
+	private int vertices = 0, edges = 0;
+	private long total = 0;
+
+	public IncrementalMST(){
+		this( 16 );
+	}
+	/**Room for about {@code expectedVertices} before anything has to grow*/
+	public IncrementalMST(int expectedVertices){
+		grow( Math.max( 4, 2 * expectedVertices ) );
+		vertexOf = new IntMap<Integer>( expectedVertices );
+		edgeOf   = new PairTable( expectedVertices );
+	}
+	/**Starts off with the minimum spanning forest of {@code G}*/
+	public IncrementalMST(Graph<?> G){
+		this( G.getVertexCount() );
+		SpanningTree t = KruskalMST.findMSTSorted( G );
+		for( int v = 0; v < t.ids.length; v++ )
+			addVertex( t.ids[v] );
+		for( int v = 0; v < t.ids.length; v++ )
+			if( t.parent[v] != v )
+				addEdge( t.ids[ t.parent[v] ], t.ids[v], t.cost[v] );
+	}
+
+	/**@return False if it was there already*/
+	public boolean addVertex(int id){
+		int before = vertices;
+		vertexNode( id );
+		return vertices != before;
+	}
+	/**Node of vertex {@code id}, adding it if it's new*/
+	private int vertexNode(int id){
+		Integer n = vertexOf.get( id );
+		if( n != null ) return n;
+		int x = newNode( Integer.MIN_VALUE );
+		idOf[x] = id;
+		vertexOf.put( id, Integer.valueOf( x ) );
+		vertices++;
+		return x;
+	}
+
+	/**
+	 * Offers the edge {@code a - b} to the forest, adding either vertex if it's new.
+	 * @return True if the edge is now in the forest : it joined two trees, or it replaced a
+	 * heavier edge on the cycle it closed. False if it was dropped (self loop, or nothing on
+	 * that cycle is heavier).
+	 */
+	public boolean addEdge(int a, int b, int cost){
+		if( a == b ){
+			vertexNode( a );
+			return false;
+		}
+		int x = vertexNode( a ), y = vertexNode( b );
+		if( findRoot( x ) == findRoot( y ) ){
+			int heaviest = pathMax( x, y );
+			if( this.cost[heaviest] <= cost ) return false;
+			removeEdge( heaviest );
+		}
+		int e = newNode( cost );
+		ends[2*e]   = x;
+		ends[2*e+1] = y;
+		link( x, e );
+		link( e, y );
+		edgeOf.put( pair( a, b ), e );
+		edges++;
+		total += cost;
+		return true;
+	}
+	public boolean addEdge(int a, int b){
+		return addEdge( a, b, 0 );
+	}
+	/**Offers every edge of {@code G}
+	 * @return How many of them made it into the forest*/
+	public int addEdges(Graph<?> G){
+		int taken = 0;
+		for( Graph.Vertex<?> v : G.getVertices() )
+			addVertex( v.id );
+		for( Graph.Edge<?> e : G.getEdges() )
+			if( addEdge( e.src.id, e.dst.id, e.cost() ) ) taken++;
+		return taken;
+	}
+
+	public int getVertexCount(){ return vertices; }
+	/**Number of forest edges*/
+	public int getEdgeCount(){ return edges; }
+	/**Number of trees. One per connected component of the edges seen so far.*/
+	public int getTreeCount(){ return vertices - edges; }
+	/**True if this is a single tree over all the vertices*/
+	public boolean isSpanning(){ return getTreeCount() <= 1; }
+	/**Sum of the costs of the forest edges*/
+	public long getTotalCost(){ return total; }
+
+	public boolean hasVertex(int id){
+		return vertexOf.containsKey( id );
+	}
+	/**True if the forest has an edge between {@code a} & {@code b}*/
+	public boolean hasEdge(int a, int b){
+		return edgeOf.get( pair( a, b ) ) != NIL;
+	}
+	/**Cost of the forest edge between {@code a} & {@code b}
+	 * @throws RuntimeException if there isn't one*/
+	public int getCost(int a, int b){
+		int e = edgeOf.get( pair( a, b ) );
+		if( e == NIL ) throw new RuntimeException("No forest edge between " + a + " and " + b);
+		return cost[e];
+	}
+	/**True if {@code a} & {@code b} are in the same tree*/
+	public boolean connected(int a, int b){
+		Integer x = vertexOf.get( a ), y = vertexOf.get( b );
+		if( x == null || y == null ) return false;
+		return x.equals( y ) || findRoot( x ) == findRoot( y );
+	}
+	/**Largest edge cost on the tree path from {@code a} to {@code b}. The cost a new edge
+	 * {@code a - b} has to beat to get in.
+	 * @throws RuntimeException if they aren't connected*/
+	public int getMaxCost(int a, int b){
+		if( a == b || ! connected( a, b ) )
+			throw new RuntimeException("No path between " + a + " and " + b);
+		return cost[ pathMax( vertexOf.get( a ), vertexOf.get( b ) ) ];
+	}
+
+	/**Copy of the forest as it stands*/
+	public SpanningTree toSpanningTree(){
+		int[] ids = vertexOf.keys();
+		Arrays.sort( ids );
+		int[] src = new int[ edges ], dst = new int[ edges ], c = new int[ edges ];
+		int t = 0;
+		for( int e = 0; e < nodes; e++ ){
+			if( ends[2*e] == NIL ) continue;  // a vertex, or a removed edge
+			src[t] = Arrays.binarySearch( ids, idOf[ ends[2*e] ] );
+			dst[t] = Arrays.binarySearch( ids, idOf[ ends[2*e+1] ] );
+			c[t]   = cost[e];
+			t++;
+		}
+		return SpanningTree.fromEdges( ids, src, dst, c, t );
+	}
+
+	@Override
+	public String toString(){
+		return "IncrementalMST[" + vertices + " vertices, " + edges + " edges, cost " + total + "]";
+	}
+
+	private static long pair(int a, int b){
+		return a < b ? (long) a << 32 | ( b & 0xFFFF_FFFFL ) : (long) b << 32 | ( a & 0xFFFF_FFFFL );
+	}
+
+	private void removeEdge(int e){
+		int x = ends[2*e], y = ends[2*e+1];
+		cut( x, e );
+		cut( e, y );
+		edgeOf.remove( pair( idOf[x], idOf[y] ) );
+		edges--;
+		total -= cost[e];
+		ends[2*e] = ends[2*e+1] = NIL;
+		par[e] = freeEdges;
+		freeEdges = e;
+	}
+
+	private int newNode(int c){
+		int x;
+		if( c != Integer.MIN_VALUE && freeEdges != NIL ){ // vertices never reuse: their ids stay put
+			x = freeEdges;
+			freeEdges = par[x];
+		}else{
+			if( nodes == par.length ) grow( 2 * par.length );
+			x = nodes++;
+		}
+		left[x] = right[x] = par[x] = NIL;
+		rev[x]  = false;
+		cost[x] = c;
+		max[x]  = x;
+		ends[2*x] = ends[2*x+1] = NIL;
+		return x;
+	}
+
+	private void grow(int size){
+		left  = grow( left, size );
+		right = grow( right, size );
+		par   = grow( par, size );
+		cost  = grow( cost, size );
+		max   = grow( max, size );
+		idOf  = grow( idOf, size );
+		stack = grow( stack, size );
+		ends  = grow( ends, 2 * size );
+		rev   = rev == null ? new boolean[ size ] : Arrays.copyOf( rev, size );
+	}
+	private static int[] grow(int[] a, int size){
+		return a == null ? new int[ size ] : Arrays.copyOf( a, size );
+	}
+
+	/**
+	 * Open addressing {@code long -> int} table from a forest edge's id pair to its node : linear
+	 * probing & backward shift removes, as in {@link IntMap}, but with primitive keys & values.
+	 * Values are never {@code NIL}, which marks an empty slot.
+	 */
+	private static final class PairTable {
+		private long[] keys;
+		private int[] vals;
+		private int mask, size = 0;
+		
+		PairTable(int expected){
+			alloc( Integer.highestOneBit( Math.max( 8, expected * 2 ) - 1 ) << 1 );
+		}
+		private void alloc(int slots){
+			keys = new long[ slots ];
+			vals = new int[ slots ];
+			Arrays.fill( vals, NIL );
+			mask = slots - 1;
+		}
+		private int slot(long k){
+			int h = (int) ( k ^ ( k >>> 32 ) ) * 0x9E3779B9;
+			return ( h ^ ( h >>> 16 ) ) & mask;
+		}
+		/**@return The node of edge {@code k}, or {@code NIL}*/
+		int get(long k){
+			for( int ii = slot( k ); vals[ii] != NIL; ii = ( ii + 1 ) & mask )
+				if( keys[ii] == k ) return vals[ii];
+			return NIL;
+		}
+		/**Adds {@code k}, which isn't in the table*/
+		void put(long k, int v){
+			if( 2 * ( size + 1 ) > keys.length ){ // keep it at most half full
+				long[] ok = keys;
+				int[] ov = vals;
+				alloc( 2 * keys.length );
+				for( int ii = 0; ii < ok.length; ii++ )
+					if( ov[ii] != NIL ) insert( ok[ii], ov[ii] );
+			}
+			insert( k, v );
+			size++;
+		}
+		private void insert(long k, int v){
+			int ii = slot( k );
+			while( vals[ii] != NIL ) ii = ( ii + 1 ) & mask;
+			keys[ii] = k;
+			vals[ii] = v;
+		}
+		void remove(long k){
+			int hole = slot( k );
+			while( vals[hole] != NIL && keys[hole] != k ) hole = ( hole + 1 ) & mask;
+			if( vals[hole] == NIL ) return;
+			// backward shift, as in IntMap.remove()
+			for( int jj = ( hole + 1 ) & mask; vals[jj] != NIL; jj = ( jj + 1 ) & mask ){
+				int home = slot( keys[jj] );
+				if( ( ( jj - home ) & mask ) >= ( ( jj - hole ) & mask ) ){
+					keys[hole] = keys[jj];
+					vals[hole] = vals[jj];
+					hole = jj;
+				}
+			}
+			vals[hole] = NIL;
+			size--;
+		}
+	}
+	
+	// ---- link-cut tree ----
+
+	/**Heaviest node on the path between vertex nodes {@code x} & {@code y}, which are connected*/
+	private int pathMax(int x, int y){
+		makeRoot( x );
+		access( y );
+		return max[y];
+	}
+
+	/**Joins the trees of {@code x} & {@code y} with an edge between them*/
+	private void link(int x, int y){
+		makeRoot( x );
+		par[x] = y;
+	}
+
+	/**Removes the tree edge between neighbours {@code x} & {@code y}*/
+	private void cut(int x, int y){
+		makeRoot( x );
+		access( y );
+		// x is now y's left child, alone
+		left[y] = NIL;
+		par[x]  = NIL;
+		update( y );
+	}
+
+	private int findRoot(int x){
+		access( x );
+		while( true ){
+			push( x );
+			if( left[x] == NIL ) break;
+			x = left[x];
+		}
+		splay( x );
+		return x;
+	}
+
+	private void makeRoot(int x){
+		access( x );
+		rev[x] ^= true;
+	}
+
+	/**Makes the path from the root to {@code x} preferred, with {@code x} at the top of its splay tree*/
+	private void access(int x){
+		int last = NIL;
+		for( int y = x; y != NIL; y = par[y] ){
+			splay( y );
+			right[y] = last;
+			update( y );
+			last = y;
+		}
+		splay( x );
+	}
+
+	private boolean isRoot(int x){
+		int p = par[x];
+		return p == NIL || ( left[p] != x && right[p] != x );
+	}
+
+	private void update(int x){
+		int m = x;
+		if( left[x]  != NIL && cost[ max[ left[x] ] ]  > cost[m] ) m = max[ left[x] ];
+		if( right[x] != NIL && cost[ max[ right[x] ] ] > cost[m] ) m = max[ right[x] ];
+		max[x] = m;
+	}
+
+	private void push(int x){
+		if( ! rev[x] ) return;
+		int l = left[x];
+		left[x]  = right[x];
+		right[x] = l;
+		if( left[x]  != NIL ) rev[ left[x] ]  ^= true;
+		if( right[x] != NIL ) rev[ right[x] ] ^= true;
+		rev[x] = false;
+	}
+
+	private void splay(int x){
+		int top = 0;
+		stack[top++] = x;
+		for( int y = x; ! isRoot( y ); y = par[y] )
+			stack[top++] = par[y];
+		while( top > 0 ) push( stack[--top] );
+
+		while( ! isRoot( x ) ){
+			int y = par[x];
+			if( ! isRoot( y ) ){
+				int z = par[y];
+				rotate( ( left[y] == x ) == ( left[z] == y ) ? y : x ); // zig-zig : y first
+			}
+			rotate( x );
+		}
+	}
+
+	private void rotate(int x){
+		int y = par[x], z = par[y];
+		if( ! isRoot( y ) ){
+			if( left[z] == y ) left[z] = x; else right[z] = x;
+		}
+		par[x] = z;
+		if( left[y] == x ){
+			left[y] = right[x];
+			if( right[x] != NIL ) par[ right[x] ] = y;
+			right[x] = y;
+		}else{
+			right[y] = left[x];
+			if( left[x] != NIL ) par[ left[x] ] = y;
+			left[x] = y;
+		}
+		par[y] = x;
+		update( y );
+		update( x );
+	}
+}
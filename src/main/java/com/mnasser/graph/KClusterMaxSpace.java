@@ -1,8 +1,8 @@
 package com.mnasser.graph;
 
 import com.mnasser.graph.Graph.Edge;
-import com.mnasser.graph.Graph.Vertex;
 import com.mnasser.graph.KruskalMST.UnionDecision;
+import com.mnasser.util.DisjointSet;
 import com.mnasser.util.LeftRight;
 
 
@@ -23,8 +23,8 @@ public class KClusterMaxSpace implements UnionDecision {
 	
 	private long maxSpacing = Long.MAX_VALUE; // sum of edges costs after we arrive at k-clusters 
 	
-	/**Private constructor*/
-	private KClusterMaxSpace(int k, int nodes){
+	/**For use with {@code KruskalMST.findMST()} directly. See {@link #KCluster(Graph, int)}.*/
+	KClusterMaxSpace(int k, int nodes){
 		if ( k > nodes ) throw new RuntimeException("K greater than total vertices in a graph");
 		this.k = k;
 		this.initialNodeCount = nodes;
@@ -40,37 +40,19 @@ public class KClusterMaxSpace implements UnionDecision {
 	}
 	
 	@Override
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings({ "rawtypes" })
 	/***
 	 * For K-Clustering we want to keep merging into ever larger connected component groups until 
 	 * we have exactly K groups. For that we simply do the same as in finding a minimum spanning tree 
 	 * but keep track of how many merges we have done (ie, how many clusters are left) and stop when we reach k.
 	 */
-	public UnionResult union(final Edge origEdge, Vertex cluster1, Vertex cluster2, boolean useUnionByRank, Graph g) {
+	public UnionResult union(final Edge origEdge, int cluster1, int cluster2, DisjointSet sets, Graph g) {
 		if( clusters > k ){
-			
-			//if( clusters < 10 ) { //> (g.getVertexCount()-10) ){
-			System.out.printf("Merging %s(%s members) + %s(%s members) ",
-					cluster1.id, KruskalMST.getFollowerSize(cluster1) + 1 , 
-					cluster2.id, KruskalMST.getFollowerSize(cluster2) + 1 );
-			
-			UnionDecision.DEFAULT_DECISION.union(origEdge, cluster1, cluster2, useUnionByRank, g); // merge 2 clusterss
+			UnionDecision.DEFAULT_DECISION.union(origEdge, cluster1, cluster2, sets, g); // merge 2 clusterss
 			clusters--;		// number of clusters goes down by 1 when union merges two clusters
-			
-				
-				System.out.printf("= %s (%s total members). (%s clusters total)\n",
-						cluster1.leaderPointer.id, KruskalMST.getFollowerSize(cluster1.leaderPointer) + 1 ,
-						clusters);
-			//}
 		}
 		else {
-			
 			maxSpacing = ( origEdge.cost() < maxSpacing ) ?   origEdge.cost() : maxSpacing; 
-			
-			System.out.printf("Will NOT merge %s(%s members) & %s(%s members)" , 
-					cluster1.id, KruskalMST.getFollowerSize(cluster1) + 1, 
-					cluster2.id, KruskalMST.getFollowerSize(cluster2) + 1);
-			System.out.println(" MAX Spacing so far : " + maxSpacing);
 		}
 		return ( clusters == k ) ?  UnionResult.STOP  : UnionResult.CONTINUE;   // have we reached our goal?
 	}
@@ -79,6 +61,9 @@ public class KClusterMaxSpace implements UnionDecision {
 	/**
 	 * Given a graph {@code G}, clusters closely related nodes into ever larger clusters, stopping when
 	 * there are only {@code k} clusters left.
+	 * </p>
+	 * This builds a whole {@link Dendrogram} for the one {@code k}. To look at several values of
+	 * {@code k}, build the {@code Dendrogram} once and ask it instead.
 	 * 
 	 * @param G Graph to cluster into k groups 
 	 * @param k number of groups to cluster nodes into 
@@ -87,13 +72,10 @@ public class KClusterMaxSpace implements UnionDecision {
 	 * smallest distance between any points crossing amongst these k clusters.  
 	 */
 	public static <V> LeftRight< Graph<V>, Long > KCluster(Graph<V> G, int k){
+		if ( k > G.getVertexCount() ) throw new RuntimeException("K greater than total vertices in a graph");
 		
-		KClusterMaxSpace kc = new KClusterMaxSpace(k, G.getVertexCount() );
-		
-		// should stop when G has k groups
-		return LeftRight.lr( 
-				KruskalMST.findMST(G, false, kc) , 
-				kc.getMaxSpacing() ); 
+		Dendrogram d = Dendrogram.of( G );
+		return LeftRight.lr( d.toGraph( G, k ), d.getMaxSpacing( k ) ); 
 	}
 	
 	
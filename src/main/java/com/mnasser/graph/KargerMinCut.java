@@ -0,0 +1,429 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.mnasser.util.DisjointSet;
+
+/**
+ * Karger's randomized minimum cut on flat arrays.
+ * </p>
+ * The graph's edges are copied once into two {@code int} arrays of vertex indices (self loops
+ * left out). A trial never touches the graph : contracting an edge is a {@link DisjointSet}
+ * union of its end points, and edges whose ends already share a super vertex are the self
+ * loops contraction would have thrown away. Picking a uniformly random remaining edge each
+ * step is the same as walking the edges in a random order and skipping those, so a trial
+ * shuffles the edges as it goes (Fisher-Yates, only as far as it gets) and stops at two super
+ * vertices. The cut is the number of edges whose ends ended up in different sets.
+ * </p>
+ * Each trial is {@code O(m alpha(n))} with no allocation and no copying. Like
+ * {@code MinimumCut.findPossibleMinimumCut()} a trial only finds the minimum cut with
+ * probability at least {@code 2/n^2}, so take the best of many.
+ * </p>
+ * Trials are independent, so {@code minCut(trials, budget, pool, seed)} spreads them over a
+ * fork join pool : one worker per thread, each with its own {@code Contraction} and its own
+ * {@code SplittableRandom} split off the seed, claiming trials in small batches and sharing
+ * the best cut seen through an atomic. It stops when the trials run out, the time budget does,
+ * or a cut of 0 turns up. {@link #trialsFor(int, double)} turns a wanted confidence into trials.
+ * </p>
+ * {@code recursiveMinCut()} is Karger-Stein : contract to {@code 1 + k/sqrt(2)} super vertices
+ * (the minimum cut survives that with probability at least 1/2), relabel what is left into a
+ * smaller edge array, and do that twice more from there, forking one of the two branches. Once
+ * down to {@link #EXACT} super vertices, a branch is cut exactly by Stoer-Wagner on their
+ * {@code k x k} weight matrix ({@code O(k^3)}, so a constant per leaf). Each run is
+ * {@code O(n^2 log n)} at worst but finds the minimum cut with probability around {@code 1/log n} rather than {@code 2/n^2},
+ * so {@link #recursiveRunsFor(int, double)} runs are enough where {@code trialsFor()} would
+ * ask for millions.
+ * </p>
+ * Directed graphs are cut as if their edges were undirected.
+ *
+ * @author Moe
+ */
+public class KargerMinCut {
+
+	private final int n;
+	private final int[] ids;       // vertex index -> id
+	private final int[] src, dst;  // edges, as vertex indices
+
+	public KargerMinCut(Graph<?> g){
+		CsrGraph<?> c = CsrGraph.freeze( g );
+		n   = c.getVertexCount();
+		ids = c.ids;
+		if( n < 2 ) throw new RuntimeException("Need at least 2 vertices to cut a graph, not " + n);
+		int m = 0;
+		for( int s = 0; s < n; s++ )
+			for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ )
+				if( keep( c, s, c.targets[k] ) ) m++;
+		src = new int[ m ];
+		dst = new int[ m ];
+		m = 0;
+		for( int s = 0; s < n; s++ )
+			for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ )
+				if( keep( c, s, c.targets[k] ) ){
+					src[m] = s;
+					dst[m++] = c.targets[k];
+				}
+	}
+	/**Undirected rows list every edge from both ends : keep one. No self loops.*/
+	private static boolean keep(CsrGraph<?> c, int s, int t){
+		return c.isDirected() ? s != t : s < t;
+	}
+
+	public int getVertexCount(){ return n; }
+	public int getEdgeCount()  { return src.length; }
+
+	/**Trials claimed by a worker at a time. Small enough to share the work & check the clock often.*/
+	static final int BATCH = 16;
+
+	/**
+	 * Number of trials for the best of them to be the minimum cut with probability at least
+	 * {@code confidence}. A trial succeeds with probability at least {@code 2/(n(n-1))},
+	 * so {@code T} trials all fail with probability at most {@code e^(-2T/(n(n-1)))}.
+	 * (A confidence of {@code 1 - 1/n} is the usual {@code n^2 ln n / 2} trials.)
+	 */
+	public static int trialsFor(int n, double confidence){
+		if( confidence <= 0 || confidence >= 1 )
+			throw new RuntimeException("Confidence must be in (0,1) : " + confidence);
+		double t = Math.ceil( (double) n * (n - 1) / 2 * Math.log( 1 / (1 - confidence) ) );
+		return (int) Math.min( Integer.MAX_VALUE, Math.max( 1, t ) );
+	}
+
+	/**Best cut with probability at least {@code confidence}, on the common pool*/
+	public int minCut(double confidence){
+		return minCut( trialsFor( n, confidence ), 0, ForkJoinPool.commonPool(), System.nanoTime() ).getCut();
+	}
+
+	/**
+	 * Runs up to {@code trials} trials in parallel on {@code pool}.
+	 * @param budgetMillis Stop claiming new trials after this long. 0 for no limit.
+	 * @param seed Seeds the workers' random streams
+	 */
+	public Result minCut(int trials, long budgetMillis, ForkJoinPool pool, long seed){
+		long start = System.nanoTime();
+		long deadline = (budgetMillis > 0)? start + budgetMillis * 1_000_000 : Long.MAX_VALUE;
+		Run run = new Run( trials, deadline );
+		SplittableRandom root = new SplittableRandom( seed );
+		Worker[] ws = new Worker[ Math.max( 1, Math.min( pool.getParallelism(), (trials + BATCH - 1) / BATCH ) ) ];
+		for( int ii = 0; ii < ws.length; ii++ )
+			ws[ii] = new Worker( run, root.split() ); // split() here, it isn't thread safe
+		for( Worker w : ws ) pool.execute( w );
+		for( Worker w : ws ) w.join();
+		return new Result( run.best.get(), run.done.get(), System.nanoTime() - start );
+	}
+
+	/**Best cut out of {@code trials} contractions, run one after another*/
+	public int minCut(int trials, long seed){
+		SplittableRandom rnd = new SplittableRandom( seed );
+		Contraction c = new Contraction();
+		int best = Integer.MAX_VALUE;
+		for( int ii = 0; ii < trials && best > 0; ii++ )
+			best = Math.min( best, c.run( rnd ) );
+		return best;
+	}
+
+	/**State shared by the workers of one parallel run*/
+	private static final class Run {
+		final int trials;
+		final long deadline;
+		final AtomicInteger next = new AtomicInteger( 0 );  // next unclaimed trial
+		final AtomicInteger done = new AtomicInteger( 0 );
+		final AtomicInteger best = new AtomicInteger( Integer.MAX_VALUE );
+		Run(int trials, long deadline){
+			this.trials = trials;
+			this.deadline = deadline;
+		}
+		boolean over(){
+			return best.get() == 0 || System.nanoTime() > deadline;
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private final class Worker extends RecursiveAction {
+		private final Run run;
+		private final SplittableRandom rnd;
+		Worker(Run run, SplittableRandom rnd){
+			this.run = run;
+			this.rnd = rnd;
+		}
+		@Override
+		protected void compute(){
+			Contraction c = new Contraction();
+			int from;
+			while( ! run.over() && (from = run.next.getAndAdd( BATCH )) < run.trials ){
+				int to = Math.min( run.trials, from + BATCH ), best = Integer.MAX_VALUE;
+				for( int ii = from; ii < to; ii++ )
+					best = Math.min( best, c.run( rnd ) );
+				run.done.addAndGet( to - from );
+				run.best.accumulateAndGet( best, Math::min );
+			}
+		}
+	}
+
+	/**Karger-Stein stops recursing & cuts exactly at this many super vertices*/
+	static final int EXACT = 32;
+	/**Branches with fewer edges than this are not worth forking*/
+	static final int FORK_EDGES = 1 << 10;
+
+	/**
+	 * Number of Karger-Stein runs for the best of them to be the minimum cut with probability
+	 * at least {@code confidence}. Halving the super vertices twice per level gives about
+	 * {@code 2 log2(n)} levels, and a run succeeds with probability at least
+	 * {@code 1/(log2(n) + 2)}.
+	 */
+	public static int recursiveRunsFor(int n, double confidence){
+		if( confidence <= 0 || confidence >= 1 )
+			throw new RuntimeException("Confidence must be in (0,1) : " + confidence);
+		double lg = Math.log( Math.max( 2, n ) ) / Math.log( 2 );
+		double t = Math.ceil( (lg + 2) * Math.log( 1 / (1 - confidence) ) );
+		return (int) Math.min( Integer.MAX_VALUE, Math.max( 1, t ) );
+	}
+
+	/**Karger-Stein cut, minimum with probability at least {@code confidence}, on the common pool*/
+	public int recursiveMinCut(double confidence){
+		return recursiveMinCut( recursiveRunsFor( n, confidence ), ForkJoinPool.commonPool(), System.nanoTime() );
+	}
+
+	/**Best cut out of {@code runs} Karger-Stein recursive contractions. Each run forks its
+	 * branches on {@code pool}; the runs themselves go one after another.*/
+	public int recursiveMinCut(int runs, ForkJoinPool pool, long seed){
+		SplittableRandom rnd = new SplittableRandom( seed );
+		int[] w = new int[ src.length ];
+		Arrays.fill( w, 1 );
+		int best = Integer.MAX_VALUE;
+		for( int ii = 0; ii < runs && best > 0; ii++ )
+			best = Math.min( best, pool.invoke( new Recurse( src, dst, w, src.length, n, rnd.split() ) ) );
+		return best;
+	}
+
+	/**
+	 * Cut of the multigraph on super vertices {@code 0..k-1} with edges {@code s[i]-d[i]} of
+	 * multiplicity {@code w[i]}, {@code i < m}. The arrays are only read, so both branches share them.
+	 * </p>
+	 * Parallel edges are merged into weights as they appear, so a branch on {@code k} super
+	 * vertices never has more than {@code k(k-1)/2} edges however many it stands for.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Recurse extends RecursiveTask<Integer> {
+		private final int[] s, d, w;
+		private final int m, k;
+		private final SplittableRandom rnd;
+		Recurse(int[] s, int[] d, int[] w, int m, int k, SplittableRandom rnd){
+			this.s = s; this.d = d; this.w = w;
+			this.m = m; this.k = k;
+			this.rnd = rnd;
+		}
+		@Override
+		protected Integer compute(){
+			if( k <= EXACT ) return exactCut( s, d, w, m, k );
+			int t = (int) Math.ceil( 1 + k / Math.sqrt( 2 ) );
+			Branch a = new Branch( this, t, rnd.split() ), b = new Branch( this, t, rnd );
+			if( m < FORK_EDGES )
+				return Math.min( a.compute(), b.compute() );
+			a.fork();
+			int cb = b.compute();
+			return Math.min( a.join(), cb );
+		}
+	}
+
+	/**
+	 * Contracts its parent's graph down to {@code t} super vertices, then recurses on that.
+	 * </p>
+	 * Contracting uniformly random copies of edges one by one is Kruskal over the copies in a
+	 * uniformly random order, and only the first copy of each edge in that order can join
+	 * anything. Giving every copy an exponential(1) arrival time, the first of {@code w} copies
+	 * arrives at an exponential({@code w}) time, so one draw per weighted edge & a sort orders
+	 * them exactly as shuffling all the copies would.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Branch extends RecursiveTask<Integer> {
+		private final Recurse from;
+		private final int t;
+		private final SplittableRandom rnd;
+		Branch(Recurse from, int t, SplittableRandom rnd){
+			this.from = from;
+			this.t = t;
+			this.rnd = rnd;
+		}
+		@Override
+		protected Integer compute(){
+			int[] s = from.s, d = from.d, w = from.w;
+			int m = from.m, k = from.k;
+			// arrival time in the high half (positive floats order like their bits), edge in the low
+			long[] order = new long[ m ];
+			for( int e = 0; e < m; e++ ){
+				float at = (float) ( -Math.log( 1 - rnd.nextDouble() ) / w[e] );
+				order[e] = (long) Float.floatToIntBits( at ) << 32 | e;
+			}
+			Arrays.sort( order );
+			DisjointSet sets = new DisjointSet( k );
+			for( int ii = 0; ii < m && sets.count() > t; ii++ ){
+				int e = (int) order[ii];
+				sets.union( s[e], d[e] );
+			}
+			if( sets.count() > t ) return 0; // ran out of edges : already in pieces
+
+			// relabel the super vertices 0..t-1
+			int[] label = new int[ k ];
+			Arrays.fill( label, -1 );
+			int next = 0;
+			for( int v = 0; v < k; v++ ){
+				int r = sets.find( v );
+				if( label[r] < 0 ) label[r] = next++;
+				label[v] = label[r];
+			}
+			// bucket the surviving edges by their lower end ...
+			int[] start = new int[ t + 1 ];
+			for( int e = 0; e < m; e++ ){
+				int a = label[ s[e] ], b = label[ d[e] ];
+				if( a != b ) start[ Math.min( a, b ) + 1 ]++;
+			}
+			for( int v = 0; v < t; v++ ) start[v+1] += start[v];
+			int[] hi = new int[ start[t] ], hw = new int[ start[t] ], fill = Arrays.copyOf( start, t );
+			for( int e = 0; e < m; e++ ){
+				int a = label[ s[e] ], b = label[ d[e] ];
+				if( a == b ) continue;
+				int at = fill[ Math.min( a, b ) ]++;
+				hi[at] = Math.max( a, b );
+				hw[at] = w[e];
+			}
+			// ... & merge the parallel ones within each bucket
+			int[] s2 = new int[ hi.length ], d2 = new int[ hi.length ], w2 = new int[ hi.length ];
+			int[] seenFrom = new int[ t ], seenAt = new int[ t ];
+			Arrays.fill( seenFrom, -1 );
+			int m2 = 0;
+			for( int a = 0; a < t; a++ )
+				for( int ii = start[a]; ii < start[a+1]; ii++ ){
+					int b = hi[ii];
+					if( seenFrom[b] == a ){
+						w2[ seenAt[b] ] += hw[ii];
+					}else{
+						seenFrom[b] = a;
+						seenAt[b] = m2;
+						s2[m2] = a;
+						d2[m2] = b;
+						w2[m2++] = hw[ii];
+					}
+				}
+			return new Recurse( s2, d2, w2, m2, t, rnd ).compute();
+		}
+	}
+
+	/**
+	 * Exact minimum cut of a small multigraph by Stoer-Wagner on a {@code k x k} weight matrix,
+	 * {@code O(k^3)}. Each phase grows a set from super vertex 0, always adding the one most
+	 * tightly connected to it; the last one added, cut off on its own, is a minimum cut between
+	 * it & the one before, which then get merged.
+	 */
+	static int exactCut(int[] s, int[] d, int[] w, int m, int k){
+		int[][] a = new int[ k ][ k ];
+		for( int e = 0; e < m; e++ ){
+			a[ s[e] ][ d[e] ] += w[e];
+			a[ d[e] ][ s[e] ] += w[e];
+		}
+		int[] alive = new int[ k ], tight = new int[ k ];
+		for( int v = 0; v < k; v++ ) alive[v] = v;
+		boolean[] added = new boolean[ k ];
+		int best = Integer.MAX_VALUE;
+		for( int left = k; left > 1; left-- ){
+			for( int ii = 0; ii < left; ii++ ){
+				tight[ alive[ii] ] = 0;
+				added[ alive[ii] ] = false;
+			}
+			int prev = -1, last = -1;
+			for( int step = 0; step < left; step++ ){
+				int next = -1;
+				for( int ii = 0; ii < left; ii++ ){
+					int v = alive[ii];
+					if( ! added[v] && ( next < 0 || tight[v] > tight[next] ) ) next = v;
+				}
+				added[next] = true;
+				prev = last;
+				last = next;
+				for( int ii = 0; ii < left; ii++ )
+					tight[ alive[ii] ] += a[next][ alive[ii] ];
+			}
+			best = Math.min( best, tight[last] );
+			// merge last into prev
+			for( int ii = 0; ii < left; ii++ ){
+				int v = alive[ii];
+				a[prev][v] += a[last][v];
+				a[v][prev] = a[prev][v];
+			}
+			a[prev][prev] = 0;
+			for( int ii = 0; ii < left; ii++ )
+				if( alive[ii] == last ){
+					alive[ii] = alive[left - 1];
+					break;
+				}
+		}
+		return best;
+	}
+
+	/**Outcome of a parallel run*/
+	public static final class Result {
+		private final int cut, trials;
+		private final long nanos;
+		Result(int cut, int trials, long nanos){
+			this.cut = cut;
+			this.trials = trials;
+			this.nanos = nanos;
+		}
+		/**Smallest cut found. {@code Integer.MAX_VALUE} if no trial ran.*/
+		public int getCut()      { return cut; }
+		/**Trials actually run*/
+		public int getTrials()   { return trials; }
+		public long getNanos()   { return nanos; }
+		@Override
+		public String toString(){
+			return "cut " + cut + " after " + trials + " trials in " + nanos / 1_000_000.0 + "ms";
+		}
+	}
+
+	/**
+	 * Scratch space for running trials : the edge order & the union find. Reused from one
+	 * trial to the next, so trials allocate nothing. One per thread.
+	 */
+	public final class Contraction {
+		private final int[] order = new int[ src.length ];
+		private final DisjointSet sets = new DisjointSet( n );
+
+		public Contraction(){
+			for( int ii = 0; ii < order.length; ii++ ) order[ii] = ii;
+		}
+
+		/**One random contraction down to two super vertices.
+		 * @return Number of edges crossing between them. 0 if the graph isn't connected.*/
+		public int run(SplittableRandom rnd){
+			sets.reset();
+			int m = order.length;
+			// whatever order the last trial left behind is as good a start as any
+			for( int ii = 0; ii < m && sets.count() > 2; ii++ ){
+				int jj = ii + rnd.nextInt( m - ii );
+				int e = order[jj];
+				order[jj] = order[ii];
+				order[ii] = e;
+				sets.union( src[e], dst[e] );
+			}
+			if( sets.count() > 2 ) return 0; // ran out of edges : already in pieces
+
+			int cut = 0;
+			for( int e = 0; e < m; e++ )
+				if( sets.find( src[e] ) != sets.find( dst[e] ) ) cut++;
+			return cut;
+		}
+
+		/**After {@code run()} : true if vertex {@code id} ended up on the same side as {@code other}*/
+		public boolean sameSide(int id, int other){
+			return sets.connected( index( id ), index( other ) );
+		}
+		private int index(int id){
+			int idx = Arrays.binarySearch( ids, id );
+			if( idx < 0 ) throw new RuntimeException("No vertex with id " + id);
+			return idx;
+		}
+	}
+}
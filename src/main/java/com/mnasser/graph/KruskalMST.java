@@ -1,18 +1,24 @@
 package com.mnasser.graph;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
+import com.mnasser.QuickSort;
 import com.mnasser.graph.Graph.Edge;
 import com.mnasser.graph.Graph.Vertex;
 import com.mnasser.graph.KruskalMST.UnionDecision.UnionResult;
+import com.mnasser.util.DisjointSet;
 
 /**
  * Kruskal's Minimum Spanning Tree algorithm.
  * 
  * Using the Union-Find technique we can quickly (in {@code O( m logn )} time)
  * procure a leader pointer 
+ * </p>
+ * The Union-Find state is a {@link DisjointSet} over the vertices' slots, two flat arrays
+ * with union by size & path halving, rather than fields on each vertex. 
  * 
  * @author Moe
  * @param <X>
@@ -74,22 +80,15 @@ public class KruskalMST<X> {
 	 * pointer</code> on each vertex is for. 
 	 * 
 	 * </p>
-	 * NOTE : this algorithm can be used in two ways. The first keeps track of connected
+	 * NOTE : this algorithm used to come in two flavors. The first kept track of connected
 	 * component group leaders and the children of those leaders (essentially a graph of 
-	 * depth 1).  See {@code findMSTNaive()} or this.  Set {@code useUnionByRank} to 
-	 * false.  
-	 * </p>
-	 * The second way this algo works is w UnionByRank & Path Compression.  
-	 * This can speed up the initial union-find technique by employing union-by-rank,  
-	 * which will keep a rank of each group leader but instead of forming a flat depth-of-1 
-	 * graph beneath each leader, we simply update each group leader's leader during the 
-	 * {@code union()} operations.  In this way, small bushy trees are formed beneath the
-	 * growing connected components.  Path compression is then used to speed up calls to 
-	 * the {@code find()} operations by immediately updating a child vertex's parent pointer 
-	 * if it is not already the leader of the entire group.    
+	 * depth 1), the second used union-by-rank & path compression on leader pointers kept on 
+	 * each vertex. Both now share one {@link DisjointSet} (union by size & path halving),
+	 * which is at least as quick as either and allocates nothing per vertex. 
+	 * {@code useUnionByRank} is kept so existing callers still compile.
 	 * 
 	 * @param G The graph whose minimum spanning tree is desired. 
-	 * @param useUnionByRank True to use unionByRank & pathCompression. False for not.
+	 * @param useUnionByRank Ignored. See above.
 	 * @param uo The implementation of the union operation. This was factored out to allow variations of the 
 	 * 
 	 * @return T A tree spanning all nodes in G using the set of edges 
@@ -109,103 +108,352 @@ public class KruskalMST<X> {
 		List<Edge<X>> sortedEdges = 
 				G.getEdges().stream().sorted( Graph.getEdgeComparator() ).collect( Collectors.toList() );
 		
-		long start = System.nanoTime();
-		
 		//Initialization ...
-		//Add edges to heap. (TODO : create "heapify" batch loading method)
-		//for( Edge<X> e : G.getEdges()){
-		//	edgeHeap.insert(e);
+		// each vertex is its own cluster of 1. Vertices are known by their slot in G
+		DisjointSet sets = new DisjointSet( G.slotCount() );
 		
-		for( Edge<X> e : sortedEdges ){ // 
-			e.src.visited = false;
-			e.dst.visited = false;
-			e.src.leaderPointer = e.src; // each has itself as leader pointer
-			e.dst.leaderPointer = e.dst; // ie, its own cluster of 1
-			e.src.followers = null;
-			e.dst.followers = null;
-			//if (e.src.followers==null) e.src.followers = new ArrayList<Vertex>();
-			//if (e.dst.followers==null) e.dst.followers = new ArrayList<Vertex>();
-			if( useUnionByRank ){
-				e.src.rank = 0 ;
-				e.dst.rank = 0;
-			}
+		//begin our loop by adding in edges and merging clusters
+		Step<X> step = new Step<X>( G, T, sets, uo );
+		for ( Edge<X> e : sortedEdges ) {      // this is O(n)
+			if( ! step.offer( e ) )
+				break; // All vertices have been added to the MST (or uo said stop). So stop early
 		}
 		
-		long lap = System.nanoTime();
-		String _time = String.format("Time to prep G   : " + (lap - start)/1_000_000.0  + "ms  " );
+		return T;
+	}
+	
+	/**Returns a minimum spanning tree of {@code G}. */
+	public static <X> Graph<X> findMST(Graph<X> G, boolean useUnionByRank){
+		return findMST( G, useUnionByRank, UnionDecision.DEFAULT_DECISION);
+	}
+	
+	/**
+	 * Filter-Kruskal : same tree as {@link #findMST(Graph, boolean, UnionDecision)}, without
+	 * sorting every edge up front.
+	 * </p>
+	 * Most edges of a large graph never make it into the tree. So rather than sort them all,
+	 * the edges are split around a pivot cost (as in {@link QuickSort}), the light side is
+	 * done first, and only then is the heavy side looked at : by now most of its edges join
+	 * vertices which are already connected, and those are dropped before going any further.
+	 * Ranges below {@link #SORT_BELOW} edges are sorted outright. Only the edges which survive
+	 * the filters ever get sorted.
+	 * </p>
+	 * Each edge which joins two clusters goes through {@code uo} exactly as in {@code findMST},
+	 * so a {@code STOP} ends it early the same way.
+	 * 
+	 * @param G The graph whose minimum spanning tree is desired.
+	 * @param uo The implementation of the union operation.
+	 * @return T A tree spanning all nodes in G using the set of edges
+	 */
+	public static <X> Graph<X> findMSTFiltered(Graph<X> G, UnionDecision uo){
+		Graph<X> T = new AdjacencyListGraph<X>( G.getVertexCount() );
+		DisjointSet sets = new DisjointSet( G.slotCount() );
+		Step<X> step = new Step<X>( G, T, sets, uo );
 		
-		start = System.nanoTime();
+		List<Edge<X>> edges = G.getEdges();
+		int m = edges.size();
+		int[] src = new int[ m ], dst = new int[ m ], cost = new int[ m ];
+		for( int e = 0; e < m; e++ ){
+			Edge<X> edge = edges.get( e );
+			src[e]  = slotOf( G, edge.src );
+			dst[e]  = slotOf( G, edge.dst );
+			cost[e] = edge.cost();
+		}
+		new Filter( src, dst, cost, sets, e -> step.offer( edges.get( e ) ) ).run();
+		return T;
+	}
+	/**Returns a minimum spanning tree of {@code G}, using Filter-Kruskal.
+	 * @see #findMSTFiltered(Graph, UnionDecision)*/
+	public static <X> Graph<X> findMSTFiltered(Graph<X> G){
+		return findMSTFiltered( G, UnionDecision.DEFAULT_DECISION );
+	}
+	
+	/**Ranges of at most this many edges are sorted rather than split*/
+	static final int SORT_BELOW = 1 << 10;
+	
+	/**
+	 * Filter-Kruskal's recursion over edge indices {@code 0..m-1}, with their end points as
+	 * slots in {@code sets}. Hands each edge still joining two clusters, in cost order, to
+	 * {@code take}, until that returns false.
+	 */
+	static final class Filter {
+		private final int[] src, dst;
+		private final int[] order;  // edge indices, split in place
+		private final int[] costs;  // costs[ii] == cost of order[ii]. Moved along with it
+		private final DisjointSet sets;
+		private final IntPredicate take;
+		private final int badSplits;
+		private long[] keys = new long[ 0 ];
+		private boolean stopped = false;
 		
-		//begin our loop by adding in edges and adjusting leader pointers
-		//while ( edgeHeap.size() > 0 ) {
-		//	Edge<X> e = edgeHeap.removeRoot(); // this is O(nlogn) 
-		for ( Edge<X> e : sortedEdges ) {      // this is O(n)
-			
+		Filter(int[] src, int[] dst, int[] cost, DisjointSet sets, IntPredicate take){
+			this.src = src;
+			this.dst = dst;
+			this.sets = sets;
+			this.take = take;
+			int m = cost.length;
+			order = new int[ m ];
+			for( int e = 0; e < m; e++ ) order[e] = e;
+			costs = Arrays.copyOf( cost, m );
+			// past this many lopsided splits, median of three is being fed a bad order. Go random.
+			badSplits = 2 * ( 32 - Integer.numberOfLeadingZeros( m ) );
+		}
+		
+		void run(){
+			split( 0, order.length, 0 );
+		}
+		
+		/**Kruskal over {@code [lo,hi)} of {@code order}*/
+		private void split(int lo, int hi, int bad){
+			while( ! stopped ){
+				if( hi - lo <= SORT_BELOW ){
+					sortAndTake( lo, hi );
+					return;
+				}
+				int p = bad < badSplits ? QuickSort.getMedianOfThreePivot( costs, lo, hi - 1 )
+										: QuickSort.getRandomPivot( lo, hi - 1 );
+				int pivot = costs[p];
+				
+				// three way : [lo,lt) lighter, [lt,gt) same cost, [gt,hi) heavier
+				int lt = lo, gt = hi, ii = lo;
+				while( ii < gt ){
+					if( costs[ii] < pivot )      swap( lt++, ii++ );
+					else if( costs[ii] > pivot ) swap( ii, --gt );
+					else                         ii++;
+				}
+				int len = hi - lo;
+				if( Math.max( lt - lo, hi - gt ) > len - ( len >>> 4 ) ) // pivot landed near an end
+					bad++;
+				
+				split( lo, lt, bad );     // light side first
+				sortAndTake( lt, gt );    // ties, in index order
+				
+				// heavy side : drop what's now inside a cluster, then carry on with the rest
+				int kept = gt;
+				for( int k = gt; k < hi && ! stopped; k++ ){
+					int e = order[k];
+					if( sets.find( src[e] ) != sets.find( dst[e] ) ){
+						order[kept] = e;
+						costs[kept] = costs[k];
+						kept++;
+					}
+				}
+				lo = gt;
+				hi = kept;
+			}
+		}
+		
+		private void sortAndTake(int lo, int hi){
+			if( stopped || lo >= hi ) return;
+			int len = hi - lo;
+			if( keys.length < len ) keys = new long[ len ];
+			for( int ii = 0; ii < len; ii++ )
+				keys[ii] = key( costs[lo + ii], order[lo + ii] );
+			Arrays.sort( keys, 0, len );
+			for( int ii = 0; ii < len; ii++ ){
+				int e = (int) keys[ii];
+				if( sets.find( src[e] ) == sets.find( dst[e] ) ) continue;
+				if( ! take.test( e ) ){
+					stopped = true;
+					return;
+				}
+			}
+		}
+		
+		private void swap(int a, int b){
+			QuickSort.swap( order, a, b );
+			QuickSort.swap( costs, a, b );
+		}
+	}
+	
+	/**One edge of Kruskal's loop : adds {@code e} to {@code T} if it joins two clusters of
+	 * {@code G}, and has {@code uo} decide on the union.*/
+	private static final class Step<X> {
+		private final Graph<X> G, T;
+		private final DisjointSet sets;
+		private final UnionDecision uo;
+		private final int spanned;  // sets left once every vertex is in one. Unused slots stay sets of their own
+		Step(Graph<X> G, Graph<X> T, DisjointSet sets, UnionDecision uo){
+			this.G = G; this.T = T;
+			this.sets = sets;
+			this.uo = uo;
+			this.spanned = 1 + sets.size() - G.getVertexCount();
+		}
+		/**@return False once there's no point going on*/
+		boolean offer(Edge<X> e){
 			// since both of these are in connected component groups,
 			// we need to find the leaders of each group.  If both Nodes are 
 			// already in the same group then adding 
 			// this edge will cause a CYCLE so we skill it.
-			Vertex<X> cluster1 = find( e.src );
-			Vertex<X> cluster2 = find( e.dst );
-			
-			if ( useUnionByRank ) {
-				// since the recursive calls above would normally take O(log n) time, 
-				// let's go ahead and save these values so we avoid the 
-				if ( e.src.leaderPointer != cluster1 ){
-					e.src.leaderPointer = cluster1; 
-				}
-				if( e.dst.leaderPointer != cluster2 ){
-					e.dst.leaderPointer = cluster2;
-				}
-			}
-
+			int cluster1 = sets.find( slotOf( G, e.src ) );
+			int cluster2 = sets.find( slotOf( G, e.dst ) );
 			
 			if(  cluster1  !=  cluster2  ) 
 			{
-				System.out.println("Consuming edge " + e);
 				// add the edge + vertices to T
 				T.addEdge( e );
 				
 				// make sure they are in the same group
-				UnionResult ur = uo.union(e , cluster1, cluster2, useUnionByRank, G);
+				UnionResult ur = uo.union(e , cluster1, cluster2, sets, G);
 				
 				if ( ur == UnionResult.STOP ){   // terminate early ?
 					if ( T.getVertexCount() == G.getVertexCount() ) // well make sure we have the rest
-						break;
+						return false;
 				}
 			}	
 			
-			if ( T.getVertexCount() == G.getVertexCount() ) // we're done. 
-				break; // All vertices have been added to the MST. So stop early
+			return sets.count() > spanned; // All vertices connected? Having them all in T isn't enough
 		}
-		
-		lap  = System.nanoTime();
-		System.out.println(_time + "Time to find MST : " + (lap - start)/1_000_000.0  + "ms");
-		
-		return T;
 	}
 	
-	/**Returns a minimum spanning tree of {@code G}. */
-	public static <X> Graph<X> findMST(Graph<X> G, boolean useUnionByRank){
-		return findMST( G, useUnionByRank, UnionDecision.DEFAULT_DECISION);
-	}
 	
 	
 	
 	
 	
+	/**
+	 * Kruskal's MST over primitive arrays, with no {@code Edge} objects & no comparator calls.
+	 * </p>
+	 * The edges are copied into {@code src}, {@code dst} & {@code cost} arrays, straight off
+	 * the vertices' slots (or out of the rows of a {@link CsrGraph}). Each edge's cost & index get packed into one {@code long} (cost in the high half,
+	 * so signed order is cost order), and those are ordered with {@code Arrays.parallelSort()}.
+	 * Then a {@link DisjointSet} over vertex indices takes the edges in order until the tree
+	 * is done.
+	 * </p>
+	 * Disconnected graphs get one tree per component, and directed edges are taken as undirected.
+	 * @return The tree as parent & cost arrays. See {@link SpanningTree#toGraph()}.
+	 */
+	public static SpanningTree findMSTSorted(Graph<?> G){
+		Edges es = Edges.of( G );
+		long[] keys = new long[ es.m ];
+		for( int e = 0; e < es.m; e++ )
+			keys[e] = key( es.cost[e], e );
+		Arrays.parallelSort( keys );
+		
+		Tree t = new Tree( es );
+		for( int ii = 0; ii < keys.length && ! t.isDone(); ii++ )
+			t.offer( (int) keys[ii] );
+		return t.toSpanningTree();
+	}
+	/**Cost in the high half, edge index (unsigned) in the low half*/
+	static long key(int cost, int e){
+		return (long) cost << 32 | ( e & 0xFFFF_FFFFL );
+	}
+	
+	/**Each undirected edge of a graph once, as vertex indices into {@code ids}. No self loops.*/
+	static final class Edges {
+		final int[] ids;
+		final int[] src, dst, cost;
+		final int n, m;
+		private Edges(int[] ids, int[] src, int[] dst, int[] cost, int m){
+			this.ids = ids;
+			this.n = ids.length;
+			this.src = src; this.dst = dst; this.cost = cost;
+			this.m = m;
+		}
+		static Edges of(Graph<?> G){
+			if( G instanceof CsrGraph ) return of( (CsrGraph<?>) G );
+			// straight off the vertices' slots : vertex index is the rank of its id
+			List<? extends Vertex<?>> vs = G.getVertices();
+			int n = vs.size();
+			long[] bySlot = new long[ n ];
+			for( int ii = 0; ii < n; ii++ )
+				bySlot[ii] = (long) vs.get(ii).id << 32 | vs.get(ii).slot;
+			Arrays.sort( bySlot );
+			int[] ids = new int[ n ], index = new int[ G.slotCount() ];
+			for( int ii = 0; ii < n; ii++ ){
+				ids[ii] = (int) ( bySlot[ii] >> 32 );
+				index[ (int) bySlot[ii] ] = ii;
+			}
+			List<? extends Edge<?>> list = G.getEdges();
+			int m = list.size();
+			int[] src = new int[ m ], dst = new int[ m ], cost = new int[ m ];
+			m = 0;
+			for( int ii = 0, len = list.size(); ii < len; ii++ ){
+				Edge<?> e = list.get(ii);
+				int a = index[ slotOf( G, e.src ) ], b = index[ slotOf( G, e.dst ) ];
+				if( a == b ) continue;
+				src[m]  = a;
+				dst[m]  = b;
+				cost[m] = e.cost();
+				m++;
+			}
+			return new Edges( ids, src, dst, cost, m );
+		}
+		static Edges of(CsrGraph<?> c){
+			c = c.asUndirected();
+			int n = c.getVertexCount(), m = 0;
+			for( int s = 0; s < n; s++ )
+				for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ )
+					if( s < c.targets[k] ) m++;
+			int[] src = new int[ m ], dst = new int[ m ], cost = new int[ m ];
+			m = 0;
+			for( int s = 0; s < n; s++ )
+				for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ )
+					if( s < c.targets[k] ){
+						src[m]  = s;
+						dst[m]  = c.targets[k];
+						cost[m] = c.costs[k];
+						m++;
+					}
+			return new Edges( c.ids, src, dst, cost, m );
+		}
+	}
+	
+	/**The growing forest : the clusters so far and the edges taken*/
+	static final class Tree {
+		final Edges es;
+		final DisjointSet sets;
+		private final int[] tsrc, tdst, tcost;
+		private int t = 0;
+		Tree(Edges es){
+			this.es = es;
+			this.sets = new DisjointSet( es.n );
+			int max = Math.max( 0, es.n - 1 );
+			tsrc = new int[ max ]; tdst = new int[ max ]; tcost = new int[ max ];
+		}
+		/**Takes edge {@code e} if it joins two clusters.
+		 * @return False if it would have made a cycle*/
+		boolean offer(int e){
+			if( ! sets.union( es.src[e], es.dst[e] ) ) return false;
+			tsrc[t]  = es.src[e];
+			tdst[t]  = es.dst[e];
+			tcost[t] = es.cost[e];
+			t++;
+			return true;
+		}
+		/**True once it's a single tree. Nothing more can be taken.*/
+		boolean isDone(){
+			return sets.count() <= 1;
+		}
+		SpanningTree toSpanningTree(){
+			return SpanningTree.fromEdges( es.ids, tsrc, tdst, tcost, t );
+		}
+	}
+	
+	/**Slot of {@code v} in {@code G}. Edges built by hand may hold vertices which aren't
+	 * {@code G}'s own, so look those up.*/
+	static int slotOf(Graph<?> G, Vertex<?> v){
+		if( v.slot >= 0 ) return v.slot;
+		Vertex<?> own = G.getVertex( v.id );
+		if( own == null || own.slot < 0 ) throw new RuntimeException("Vertex " + v.id + " is not in the graph");
+		return own.slot;
+	}
 	
-	/**The default */
-	//final static UnionDecision<> ALWAYS_CONTINUE = new DefaultUnionDecision<>(); 
-
 	/** 
 	 * Package private implementation of how and when Kruskal's algorithm should continue
 	 * during calls to {@code union}.
 	 */
-	@SuppressWarnings({"unchecked","rawtypes"})
+	@SuppressWarnings({"rawtypes"})
 	interface UnionDecision {
 		
-		public UnionResult union(Edge e, Vertex cluster1, Vertex cluster2, boolean useUnionByRank, Graph g);
+		/**
+		 * Called for each edge joining two different clusters.
+		 * @param cluster1 Leader of the cluster at {@code e}'s source, in {@code sets}
+		 * @param cluster2 Leader of the cluster at {@code e}'s destination
+		 * @param sets The clusters so far. Implementations merge the two through it (or not).
+		 */
+		public UnionResult union(Edge e, int cluster1, int cluster2, DisjointSet sets, Graph g);
 		
 		/**Defines a type of result each call to union is allowed to return. */
 		static enum UnionResult {
@@ -214,119 +462,10 @@ public class KruskalMST<X> {
 		}
 		
 		// Default implementation of our 1-method interface
-		/**The legacy implementation before factoring out this step of the algorithm.
-		 * This does the expected union or lazy union operation and returns an instruction
-		 * to continue. */
-		public static UnionDecision DEFAULT_DECISION = (e, c1 , c2, byRank, g) -> { // mmm ... lambdas
-			if( byRank )
-				KruskalMST._lazyUnionByRank( c1, c2 );
-			else
-				KruskalMST._union( c1 ,  c2 );
-			
+		/**Merges the two clusters and returns an instruction to continue. */
+		public static UnionDecision DEFAULT_DECISION = (e, c1 , c2, sets, g) -> { // mmm ... lambdas
+			sets.union( c1, c2 );
 			return UnionResult.CONTINUE;
 		}; 
 	}
-	
-	//	/**The legacy implementation before factoring out this step of the algorithm.
-	//	 * This does the expected union or lazy union operation and returns an instruction
-	//	 * to continue. */
-	//	protected static class DefaultUnionDecision<X> implements UnionDecision<X> {
-	//		@Override
-	//		public UnionResult union(Vertex<X> cluster1, Vertex<X> cluster2, boolean useUnionByRank) {
-	//			// make sure they are in the same group
-	//			if( useUnionByRank )
-	//				KruskalMST._lazyUnionByRank( cluster1, cluster2 );
-	//			else
-	//				KruskalMST._union( cluster1 ,  cluster2 );
-	//			
-	//			return UnionResult.CONTINUE;
-	//		}
-	//	}
-	
-	//	protected static <X> void union(Vertex<X> cluster1, Vertex<X> cluster2, boolean useUnionByRank){
-	//		// make sure they are in the same group
-	//		if( useUnionByRank )
-	//			_lazyUnionByRank( cluster1, cluster2 );
-	//		else
-	//			_union( cluster1 ,  cluster2 );
-	//	}
-	
-	/** Finds the cluster group (connected components group) that <code>v</code>
-	 * is a part of.*/
-	protected static <X> Vertex<X> find(Vertex<X> v){
-		Vertex<X> leader = v.leaderPointer;
-		// in Lazy-Union-Find we need multiple recursive calls to find()
-		return  ( leader.leaderPointer != leader )? find(leader) : leader ;
-	}
-	
-	
-	/** Given the leaders of 2 connected component groups, will merge them into 
-	 * 1 by updating all leader pointers of each group.*/
-	protected static <X> void _union(Vertex<X> v, Vertex<X> u){
-		Vertex<X> leader = null , follower = null;
-		if( getFollowerSize(v) >= getFollowerSize(u) ){
-			leader = v;  follower = u;
-		}else{
-			leader = u;  follower = v;
-		}
-		
-		if ( leader.followers == null )
-			leader.followers = new ArrayList<Vertex<X>>();
-		
-		//Vertex leader = (v.followers.size() >= u.followers.size())? v : u;
-		//Vertex follower = (u.followers.size() < v.followers.size() )? u : v;
-		
-		// NOTE: This will create a "flat" tree of followers 1-level below the leader
-		// For Lazy-Union-Find you would allow multiple levels.
-		if( follower.followers != null ){
-			
-			for( Vertex<X> f : follower.followers ){
-				f.leaderPointer = leader;
-				if( f.followers != null ) { 
-					f.followers.clear(); // for Lazy-Union-Find, allow follower to retain followers
-					f.followers = null; // clear memory
-				}
-			}
-			
-			leader.followers.addAll(follower.followers);
-			follower.followers.clear();
-			follower.followers = null;
-		}
-		
-		leader.followers.add( follower );
-		follower.leaderPointer = leader;
-		// TODO : how do we find all followers beneath a leader vertex?
-		// TODO : must add follower array to each vertex
-	}
-	
-	protected static <X> int getFollowerSize(Vertex<X> v){
-		return ( v.followers == null )? 0 : v.followers.size(); 
-	}
-	
-
-	
-	
-	/** Instead of keeping track of every single follower beneath a leader vertex, (and thus
-	 * creating very flat 1-level trees beneath leaders), we will simply update the pointer of
-	 * one leader to point to the next.  In this method, since these aren't leader pointer but just 
-	 * parent pointers really, we are making bushy trees. 
-	 * </p>
-	 * This will increase the time it takes to do a find() call from {@code O(1)} to {@code O(log n)}.  However
-	 * over a sequence of calls we will not need to be doing this that much and, very importantly,
-	 * we will introduce <strong>Path Compression</code> to help speed up our lazy union approach. 
-	 * </p>
-	 * */
-	protected static <X> void _lazyUnionByRank(Vertex<X> v, Vertex<X> u){
-		Vertex<X> parent = null, child = null; 
-		if ( v.rank  > u.rank ){
-			parent = v;  child = u;
-		}else{
-			parent = u;  child = v;
-		}
-		
-		child.leaderPointer = parent;
-		
-		if ( parent.rank == child.rank )  // if nodes were same rank, promote one
-			parent.rank ++ ;
-	}
 }
@@ -0,0 +1,177 @@
+package com.mnasser.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+
+/**
+ * A read only graph served straight out of a memory mapped binary file.
+ * </p>
+ * {@code write()} stores any {@code Graph} as its {@link CsrGraph} arrays. All ints are
+ * little endian :
+ * <pre>
+ * int  magic ('CSRG'), int version, int flags (1 = directed)
+ * int  n (vertices), int m (edges), int slots (length of targets & costs)
+ * int  ids[n]        vertex IDs, ascending
+ * int  offsets[n+1]  row starts. Row i is slots offsets[i] .. offsets[i+1]-1
+ * int  targets[slots]  index (not ID) of the vertex on the other end
+ * int  costs[slots]
+ * </pre>
+ * Undirected edges are written into the rows of both of their end points, like {@code CsrGraph}.
+ * Vertex elements are not stored, only IDs.
+ * </p>
+ * {@code open()} maps the file and reads nothing but the header, so opening is near instant
+ * no matter the size. The graph is then walked through vertex indices {@code 0..n-1}
+ * ({@code indexOf()} / {@code idAt()} convert to and from IDs) without ever creating
+ * {@code Vertex} or {@code Edge} objects.  Pages are loaded by the OS as they're touched.
+ * {@code toCsrGraph()} copies everything onto the heap when the full {@code Graph} API is needed.
+ *
+ * @author Moe
+ */
+public class MappedGraph {
+
+	static final int MAGIC   = 0x43535247; // "CSRG"
+	static final int VERSION = 1;
+	static final int HEADER_INTS = 6;
+
+	private final boolean directed;
+	private final int n, m, slots;
+	private final IntBuffer ids, offsets, targets, costs;
+	private final boolean denseIds;
+	private final int minId;
+
+	private MappedGraph(boolean directed, int n, int m, int slots,
+			IntBuffer ids, IntBuffer offsets, IntBuffer targets, IntBuffer costs){
+		this.directed = directed;
+		this.n = n;
+		this.m = m;
+		this.slots = slots;
+		this.ids = ids;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.costs = costs;
+		this.minId = (n == 0)? 0 : ids.get(0);
+		this.denseIds = (n == 0) || ( (long) ids.get(n-1) - minId + 1 == n );
+	}
+
+	/**Writes {@code g} to {@code f} in the binary format above, replacing whatever was there.*/
+	public static void write(Graph<?> g, File f) throws IOException {
+		CsrGraph<?> c = CsrGraph.freeze( g );
+		int n = c.getVertexCount(), slots = c.offsets[n];
+		try( FileChannel ch = FileChannel.open( f.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING ) ){
+			ByteBuffer buf = ByteBuffer.allocateDirect( 1 << 20 ).order( ByteOrder.LITTLE_ENDIAN );
+			buf.putInt( MAGIC ).putInt( VERSION ).putInt( c.isDirected() ? 1 : 0 )
+			   .putInt( n ).putInt( c.getEdgeCount() ).putInt( slots );
+			put( ch, buf, c.ids, n );
+			put( ch, buf, c.offsets, n + 1 );
+			put( ch, buf, c.targets, slots );
+			put( ch, buf, c.costs, slots );
+			buf.flip();
+			while( buf.hasRemaining() ) ch.write( buf );
+		}
+	}
+
+	/**Appends {@code a[0..len)} to {@code buf}, flushing it into {@code ch} as it fills*/
+	private static void put(FileChannel ch, ByteBuffer buf, int[] a, int len) throws IOException {
+		for( int ii = 0; ii < len; ){
+			if( buf.remaining() < 4 ){
+				buf.flip();
+				while( buf.hasRemaining() ) ch.write( buf );
+				buf.clear();
+			}
+			int chunk = Math.min( len - ii, buf.remaining() / 4 );
+			buf.asIntBuffer().put( a, ii, chunk );
+			buf.position( buf.position() + chunk * 4 );
+			ii += chunk;
+		}
+	}
+
+	/**Maps the graph stored in {@code f}. The file must not change while the graph is in use.
+	 * @throws IOException If {@code f} can't be read or isn't in our format*/
+	public static MappedGraph open(File f) throws IOException {
+		try( FileChannel ch = FileChannel.open( f.toPath(), StandardOpenOption.READ ) ){
+			long size = ch.size();
+			if( size < HEADER_INTS * 4 )
+				throw new IOException("Not a graph file (too short) : " + f);
+			ByteBuffer head = map( ch, 0, HEADER_INTS * 4 );
+			if( head.getInt() != MAGIC )   throw new IOException("Not a graph file : " + f);
+			int version = head.getInt();
+			if( version != VERSION )       throw new IOException("Unsupported graph file version " + version + " : " + f);
+			boolean directed = (head.getInt() & 1) != 0;
+			int n = head.getInt(), m = head.getInt(), slots = head.getInt();
+
+			long pos = HEADER_INTS * 4L;
+			long expected = pos + 4L * ( n + (n + 1) + 2L * slots );
+			if( size != expected )
+				throw new IOException("Graph file is " + size + " bytes, expected " + expected + " : " + f);
+
+			IntBuffer ids     = map( ch, pos, 4L * n ).asIntBuffer();            pos += 4L * n;
+			IntBuffer offsets = map( ch, pos, 4L * (n + 1) ).asIntBuffer();      pos += 4L * (n + 1);
+			IntBuffer targets = map( ch, pos, 4L * slots ).asIntBuffer();        pos += 4L * slots;
+			IntBuffer costs   = map( ch, pos, 4L * slots ).asIntBuffer();
+			return new MappedGraph( directed, n, m, slots, ids, offsets, targets, costs );
+		}
+	}
+
+	private static ByteBuffer map(FileChannel ch, long pos, long len) throws IOException {
+		if( len > Integer.MAX_VALUE )
+			throw new IOException("Section of " + len + " bytes is too large to map");
+		MappedByteBuffer b = ch.map( FileChannel.MapMode.READ_ONLY, pos, len );
+		return b.order( ByteOrder.LITTLE_ENDIAN );
+	}
+
+	public boolean isDirected(){ return directed; }
+	public int getVertexCount(){ return n; }
+	public int getEdgeCount()  { return m; }
+
+	/**ID of the vertex at index {@code i}*/
+	public int idAt(int i){
+		return ids.get( i );
+	}
+	/**Index of the vertex with this ID. -1 if there is none.*/
+	public int indexOf(int id){
+		if( denseIds ){
+			long idx = (long) id - minId;
+			return ( idx >= 0 && idx < n ) ? (int) idx : -1;
+		}
+		int lo = 0, hi = n - 1;
+		while( lo <= hi ){
+			int mid = (lo + hi) >>> 1, v = ids.get( mid );
+			if( v < id ) lo = mid + 1;
+			else if( v > id ) hi = mid - 1;
+			else return mid;
+		}
+		return -1;
+	}
+	/**Number of outbound (or, when undirected, incident) edges of vertex index {@code i}*/
+	public int degree(int i){
+		return offsets.get( i + 1 ) - offsets.get( i );
+	}
+	/**Hands {@code action} the index of the vertex at the other end of each of {@code i}'s
+	 * outbound (or, when undirected, incident) edges*/
+	public void forEachNeighbor(int i, IntConsumer action){
+		for( int k = offsets.get( i ), end = offsets.get( i + 1 ); k < end; k++ )
+			action.accept( targets.get( k ) );
+	}
+	/**Slot range of vertex index {@code i} is {@code [rowStart(i), rowStart(i+1))}*/
+	public int rowStart(int i){ return offsets.get( i ); }
+	public int target(int slot){ return targets.get( slot ); }
+	public int cost(int slot)  { return costs.get( slot ); }
+
+	/**Copies this graph onto the heap as a {@code CsrGraph}*/
+	public CsrGraph<Void> toCsrGraph(){
+		int[] is = new int[ n ], os = new int[ n + 1 ], ts = new int[ slots ], cs = new int[ slots ];
+		ids.duplicate().get( is );
+		offsets.duplicate().get( os );
+		targets.duplicate().get( ts );
+		costs.duplicate().get( cs );
+		return new CsrGraph<Void>( is, null, os, ts, cs, m, directed );
+	}
+}
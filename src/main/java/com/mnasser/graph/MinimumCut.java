@@ -7,6 +7,8 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import com.mnasser.DirUtils;
 import com.mnasser.graph.Graph.Edge;
@@ -83,7 +85,7 @@ public class MinimumCut {
 		System.out.println("2nd Graph size : " + K2.getVertices().size());
 		lowestMinSeen = Integer.MAX_VALUE;
 		for( int ii = 0; ii < 5; ii ++ ){
-			int min = repeatFindMinimumCut(K2, 100); // very slow. so do 100 at a time (~58sec on MacBook Pro 2009, dual-core 2.8 GHz)
+			int min = repeatFindMinimumCut(K2, 100); // used to be ~58sec per 100 on MacBook Pro 2009 when each rep copied & contracted the graph
 			if( min < lowestMinSeen )
 				lowestMinSeen = min;
 		}
@@ -94,19 +96,32 @@ public class MinimumCut {
 	static int repeatFindMinimumCut(Graph g, int reps){
 		long time = System.currentTimeMillis();
 		System.out.print("Attempting to find a possible minimum cut ("+reps+" repititions)... ");
-		int minCut = Integer.MAX_VALUE;
-		for( int ii = 0; ii < reps; ii++ ){
-			Graph h = Graph.copyOf(g);
-			int min = findPossibleMinimumCut(h);
-			if( min < minCut){
-				minCut = min;
-			}
-		}
+		int minCut = findMinimumCut(g, reps);
 		time = ( System.currentTimeMillis() - time );
 	    System.out.println("Lowest min seen so far " + minCut + ". ("+(((double)time/1000))+" sec)");
 		return minCut;
 	}
 	
+	/**Best of {@code reps} Karger contractions of {@code g}, run by {@link KargerMinCut} on 
+	 * flat arrays spread over all cores. {@code g} itself is left alone and never copied.*/
+	public static int findMinimumCut(Graph g, int reps){
+		return new KargerMinCut(g).minCut(reps, 0, ForkJoinPool.commonPool(), RAND.nextLong()).getCut();
+	}
+	/**Runs enough Karger contractions for the answer to be the minimum cut with probability
+	 * {@code confidence}, or as many as fit in {@code budgetMillis} (0 for no limit).
+	 * @see KargerMinCut#trialsFor(int, double)*/
+	public static int findMinimumCut(Graph g, double confidence, long budgetMillis){
+		KargerMinCut k = new KargerMinCut(g);
+		int trials = KargerMinCut.trialsFor(k.getVertexCount(), confidence);
+		return k.minCut(trials, budgetMillis, ForkJoinPool.commonPool(), RAND.nextLong()).getCut();
+	}
+	/**Exact minimum cut of {@code g}, every edge weighed by its cost. Deterministic.
+	 * @see StoerWagner*/
+	public static long findWeightedMinimumCut(Graph g){
+		return new StoerWagner(g).getCut();
+	}
+	private static final Random RAND = new Random();
+	
 	// Randomonly finds what could be the minimum cut
 	static int findPossibleMinimumCut(Graph g){
 		//System.out.println("========== Finding minimum cut ");
@@ -124,6 +139,18 @@ public class MinimumCut {
 	}
 	
 	
+	/**One Karger-Stein recursive contraction of {@code g} (left untouched). Finds the minimum
+	 * cut with probability about {@code 1/log n} instead of {@code findPossibleMinimumCut()}'s
+	 * {@code 2/n^2}.*/
+	static int findPossibleMinimumCutRecursive(Graph g){
+		return new KargerMinCut(g).recursiveMinCut(1, ForkJoinPool.commonPool(), RAND.nextLong());
+	}
+	/**Karger-Stein, repeated until the answer is the minimum cut with probability {@code confidence}.
+	 * @see KargerMinCut#recursiveRunsFor(int, double)*/
+	public static int findMinimumCutRecursive(Graph g, double confidence){
+		return new KargerMinCut(g).recursiveMinCut(confidence);
+	}
+	
 	static void contractEdge(Graph g, Edge e){
 		if( ! g.hasEdge(e) ) throw new RuntimeException("Graph does not have edge "+e);
 		// grab all other edges from vertex a and vertex b.
@@ -181,23 +208,21 @@ public class MinimumCut {
 		System.out.print("Loading file " + f.getName() + "...");
 		BufferedReader br = new BufferedReader(new FileReader(f));
 		String line = null;
-		Graph g = new AdjacencyListGraph();
+		// every edge is listed from both ends. The builder drops the repeats in one pass 
+		// at the end instead of a hasEdge() scan before every addEdge()
+		AdjacencyListGraph.Builder b = new AdjacencyListGraph.Builder();
 		int cnt = 0;
 		while( (line=br.readLine())!=null){
 			cnt++;
 			String[] verts = line.trim().split("\\s+");
-			Vertex a = new Vertex(Integer.parseInt(verts[0]));
-			g.addVertex(a);
-			for( int ii = 1; ii <verts.length; ii++){
-				Vertex b = new Vertex(Integer.parseInt(verts[ii]));
-				Edge e = new Edge( a, b );
-				if( ! g.hasEdge(e) )
-					g.addEdge( e );
-			}
+			int a = Integer.parseInt(verts[0]);
+			b.addVertex(a);
+			for( int ii = 1; ii <verts.length; ii++)
+				b.addEdge( a, Integer.parseInt(verts[ii]) );
 		}
 		System.out.println(cnt + " total lines.");
 		br.close();
-		return g;
+		return b.build();
 	}
 	
 }
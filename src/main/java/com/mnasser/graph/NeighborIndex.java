@@ -0,0 +1,106 @@
+package com.mnasser.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mnasser.graph.Graph.Edge;
+import com.mnasser.graph.Graph.Vertex;
+import com.mnasser.util.IntMap;
+
+/**
+ * A vertex's edges keyed on the ID of the vertex at their other end, so asking a hub vertex
+ * for its edge to {@code b} costs a hash look up instead of a scan over all its edges.
+ * </p>
+ * Each key maps to the one edge to that neighbor or, for parallel edges, a list of them.
+ * Self loops appear twice, like they do in {@code edges}.
+ * </p>
+ * Vertices only build one once they have {@link #MIN_DEGREE} edges and get asked a look up
+ * question (see {@code Vertex.index()}), and from then on the graph keeps it in step with
+ * every edge added or removed.
+ *
+ * @author Moe
+ */
+final class NeighborIndex<V> {
+
+	/**Below this many edges scanning the list is as quick as hashing*/
+	static final int MIN_DEGREE = 32;
+
+	private final Vertex<V> owner;
+	private final IntMap<Object> byId; // neighbor id -> Edge, or List<Edge> when parallel
+
+	NeighborIndex(Vertex<V> owner, List<Edge<V>> edges){
+		this.owner = owner;
+		this.byId  = new IntMap<Object>( edges.size() );
+		for( int ii = 0, len = edges.size(); ii < len; ii++ )
+			add( edges.get(ii) );
+	}
+
+	private int key(Edge<V> e){
+		return ( e.src.id == owner.id )? e.dst.id : e.src.id;
+	}
+
+	@SuppressWarnings("unchecked")
+	void add(Edge<V> e){
+		int k = key( e );
+		Object o = byId.get( k );
+		if( o == null ){
+			byId.put( k, e );
+		}else if( o instanceof Edge ){
+			List<Edge<V>> l = new ArrayList<Edge<V>>( 2 );
+			l.add( (Edge<V>) o );
+			l.add( e );
+			byId.put( k, l );
+		}else{
+			((List<Edge<V>>) o).add( e );
+		}
+	}
+
+	/**Removes this exact edge instance (once)*/
+	@SuppressWarnings("unchecked")
+	void remove(Edge<V> e){
+		int k = key( e );
+		Object o = byId.get( k );
+		if( o == e ){
+			byId.remove( k );
+		}else if( o instanceof List ){
+			List<Edge<V>> l = (List<Edge<V>>) o;
+			Vertex.removeInstance( l, e );
+			if( l.size() == 1 ) byId.put( k, l.get(0) );
+		}
+	}
+
+	/**First edge between the owner and {@code b}. If {@code outOnly}, only edges
+	 * going from the owner to {@code b}. Null if there is none.*/
+	@SuppressWarnings("unchecked")
+	Edge<V> find(Vertex<V> b, boolean outOnly){
+		Object o = byId.get( b.id );
+		if( o == null ) return null;
+		if( o instanceof Edge ){
+			Edge<V> e = (Edge<V>) o;
+			return matches( e, b, outOnly ) ? e : null;
+		}
+		List<Edge<V>> l = (List<Edge<V>>) o;
+		for( int ii = 0, len = l.size(); ii < len; ii++ )
+			if( matches( l.get(ii), b, outOnly ) ) return l.get(ii);
+		return null;
+	}
+
+	/**Number of edges between the owner and {@code b}*/
+	@SuppressWarnings("unchecked")
+	int count(Vertex<V> b){
+		Object o = byId.get( b.id );
+		if( o == null ) return 0;
+		if( o instanceof Edge ) return matches( (Edge<V>) o, b, false ) ? 1 : 0;
+		int n = 0;
+		for( Edge<V> e : (List<Edge<V>>) o )
+			if( matches( e, b, false ) ) n++;
+		return n;
+	}
+
+	/**Same tests the scanning versions in {@code Vertex} make, so an ID shared by a
+	 * vertex with a different element still doesn't count as a neighbor*/
+	private boolean matches(Edge<V> e, Vertex<V> b, boolean outOnly){
+		if( outOnly ) return e.src == owner && e.dst.equals( b );
+		return b.equals( e.otherSide( owner ) );
+	}
+}
@@ -0,0 +1,373 @@
+package com.mnasser.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.mnasser.graph.StronglyConnectedComponents.Components;
+
+/**
+ * Parallel strongly connected components by forward-backward (FW-BW) coloring with trimming.
+ * </p>
+ * Works straight off the arrays of a {@link CsrGraph} (other graphs are frozen first).
+ * Every vertex carries a color naming the sub problem it belongs to, all starting in one.
+ * A sub problem is solved by :
+ * <ol>
+ * <li><strong>Trim :</strong> vertices with no in or no out edges left inside the sub problem
+ * are components of their own. Repeated in parallel rounds while it still removes a lot, then
+ * the same for pairs of vertices which are each other's only way in or out (2-cycles).</li>
+ * <li><strong>FW-BW :</strong> pick a pivot and find everything it reaches (forward) and everything
+ * reaching it (backward). Their intersection is the pivot's component.</li>
+ * <li>The rest splits into forward only, backward only and untouched vertices. No component can
+ * straddle two of these, so each is recolored and solved on its own : big forward & backward
+ * parts as forked tasks, everything else from a local stack in the same task.</li>
+ * </ol>
+ * Sub problems smaller than {@link #PARALLEL_THRESHOLD} go to Pearce's sequential algorithm
+ * instead, so graphs of many small components don't take one FW-BW step per component.
+ * The forward & backward searches are level synchronous and also spread large frontiers over the
+ * pool.  Vertices are moved between colors with compare-and-set so every vertex is claimed once.
+ * </p>
+ * Component numbers are {@code 0..count-1} but in no particular order.
+ *
+ * @author Moe
+ */
+public class ParallelSCC {
+
+	/**Sub problems (and frontiers) at least this big are worked on in parallel*/
+	static final int PARALLEL_THRESHOLD = 8192;
+	static final int GRAIN = 2048;
+
+	private static final int DONE = -1; // color of vertices already in a component
+
+	/**Finds the strongly connected components of {@code g} on the common fork join pool*/
+	public static Components find(Graph<?> g){
+		return find( CsrGraph.freeze( g ), ForkJoinPool.commonPool() );
+	}
+	public static Components find(CsrGraph<?> g, ForkJoinPool pool){
+		int n = g.getVertexCount();
+		Solver s = new Solver( g );
+		int[] all = new int[ n ];
+		for( int ii = 0; ii < n; ii++ ) all[ii] = ii;
+		if( n > 0 )
+			pool.invoke( s.new Solve( all, s.colors.getAndIncrement() ) );
+		return new Components( g, s.comp, s.components.get() );
+	}
+
+	/**State shared by all the tasks of one run*/
+	private static final class Solver {
+		final int[] outOff, outTo, inOff, inFrom;
+		final AtomicIntegerArray color;
+		final int[] comp;
+		final int[] local;  // vertex -> index within its sub problem. See sequential()
+		final AtomicInteger colors     = new AtomicInteger( 0 );
+		final AtomicInteger components = new AtomicInteger( 0 );
+
+		Solver(CsrGraph<?> g){
+			outOff = g.offsets;
+			outTo  = g.targets;
+			CsrGraph.Rows in = g.in();
+			inOff  = in.offsets;
+			inFrom = in.others;
+			int n = g.getVertexCount();
+			color = new AtomicIntegerArray( n ); // everything starts in color 0
+			comp  = new int[ n ];
+			local = new int[ n ];
+		}
+
+		/**True if {@code v} has a neighbor (other than itself) still in color {@code c}*/
+		private boolean hasLive(int v, int c, int[] off, int[] to){
+			for( int k = off[v], end = off[v+1]; k < end; k++ ){
+				int w = to[k];
+				if( w != v && color.get( w ) == c ) return true;
+			}
+			return false;
+		}
+
+		/**Solves the sub problem of the vertices in {@code members} having color {@code c}*/
+		@SuppressWarnings("serial")
+		final class Solve extends RecursiveAction {
+			private int[] members;
+			private final int c;
+
+			Solve(int[] members, int c){
+				this.members = members;
+				this.c = c;
+			}
+
+			/**
+			 * Works through this sub problem & the ones split off it from a local stack, rather
+			 * than one task (and one stack frame) per split. Only big forward & backward
+			 * halves are forked off for other threads.
+			 */
+			@Override
+			protected void compute(){
+				ArrayDeque<Solve> todo = new ArrayDeque<Solve>();
+				ArrayDeque<Solve> forked = new ArrayDeque<Solve>();
+				todo.push( this );
+				while( ! todo.isEmpty() )
+					todo.pop().solve( todo, forked );
+				while( ! forked.isEmpty() )
+					forked.pop().join();
+			}
+
+			/**One FW-BW step. Pushes what's left to do onto {@code todo}, or forks it.*/
+			private void solve(ArrayDeque<Solve> todo, ArrayDeque<Solve> forked){
+				trim();
+				if( members.length == 0 ) return;
+				if( members.length < PARALLEL_THRESHOLD ){
+					sequential( members, c );
+					members = null;
+					return;
+				}
+
+				int pivot = pivot();
+				int fwColor = colors.getAndIncrement(), bwColor = colors.getAndIncrement();
+				int scc = components.getAndIncrement();
+
+				// forward : c -> fwColor
+				color.set( pivot, fwColor );
+				search( new int[]{ pivot }, outOff, outTo, c, fwColor, -1, -1, scc );
+				// backward : fwColor -> DONE (in both, so the pivot's component), c -> bwColor
+				color.set( pivot, DONE );
+				comp[pivot] = scc;
+				search( new int[]{ pivot }, inOff, inFrom, fwColor, DONE, c, bwColor, scc );
+
+				// split what's left by color
+				int nf = 0, nb = 0, nr = 0;
+				for( int v : members ){
+					int cv = color.get( v );
+					if( cv == fwColor ) nf++;
+					else if( cv == bwColor ) nb++;
+					else if( cv == c ) nr++;
+				}
+				int[] fw = new int[nf], bw = new int[nb], rest = new int[nr];
+				nf = nb = nr = 0;
+				for( int v : members ){
+					int cv = color.get( v );
+					if( cv == fwColor ) fw[nf++] = v;
+					else if( cv == bwColor ) bw[nb++] = v;
+					else if( cv == c ) rest[nr++] = v;
+				}
+				members = null; // let it go
+				split( new Solve( fw, fwColor ), todo, forked );
+				split( new Solve( bw, bwColor ), todo, forked );
+				if( rest.length > 0 ) todo.push( new Solve( rest, c ) );
+			}
+
+			private void split(Solve s, ArrayDeque<Solve> todo, ArrayDeque<Solve> forked){
+				if( s.members.length == 0 ) return;
+				if( s.members.length >= PARALLEL_THRESHOLD ){
+					s.fork();
+					forked.push( s );
+				}else{
+					todo.push( s );
+				}
+			}
+
+			/**Peels off vertices with no in or no out edges inside this sub problem (each its own
+			 * component), then pairs which only have each other (2-cycles). Leaves
+			 * {@code members} holding the survivors.*/
+			private void trim(){
+				boolean pairs = false;
+				while( members.length > 0 ){
+					int before = members.length;
+					if( before >= PARALLEL_THRESHOLD )
+						invokeAll( new Trim( members, 0, before, pairs ) );
+					else
+						trimRange( members, 0, before, pairs );
+					members = survivors( members, c );
+					// once a round isn't paying for itself, try pairs. Stop when those don't either
+					if( before - members.length > before / 64 ) pairs = false;
+					else if( pairs ) break;
+					else pairs = true;
+				}
+			}
+
+			/**Highest (in degree * out degree) member. Likely in a large component.*/
+			private int pivot(){
+				int best = members[0];
+				long bestScore = -1;
+				for( int v : members ){
+					long score = (long)( outOff[v+1] - outOff[v] + 1 ) * ( inOff[v+1] - inOff[v] + 1 );
+					if( score > bestScore ){ bestScore = score; best = v; }
+				}
+				return best;
+			}
+
+			/**One trim round over members[lo, hi) : trim-1, or trim-2 if {@code pairs}*/
+			private void trimRange(int[] ms, int lo, int hi, boolean pairs){
+				for( int ii = lo; ii < hi; ii++ ){
+					int v = ms[ii];
+					if( color.get( v ) != c ) continue;
+					if( pairs ){
+						// v & w are a component if each is the other's only way in (or only way out)
+						int w = onlyLive( v, c, inOff, inFrom );
+						if( w < v || onlyLive( w, c, inOff, inFrom ) != v ){
+							w = onlyLive( v, c, outOff, outTo );
+							if( w < v || onlyLive( w, c, outOff, outTo ) != v ) continue;
+						}
+						// the pair is only ever looked at from its lower end, by one task
+						if( color.compareAndSet( v, c, DONE ) ){
+							int scc = components.getAndIncrement();
+							comp[v] = comp[w] = scc;
+							color.set( w, DONE );
+						}
+					}else if( ! hasLive( v, c, outOff, outTo ) || ! hasLive( v, c, inOff, inFrom ) ){
+						if( color.compareAndSet( v, c, DONE ) )
+							comp[v] = components.getAndIncrement();
+					}
+				}
+			}
+
+			final class Trim extends RecursiveAction {
+				private final int[] ms;
+				private final int lo, hi;
+				private final boolean pairs;
+				Trim(int[] ms, int lo, int hi, boolean pairs){ this.ms = ms; this.lo = lo; this.hi = hi; this.pairs = pairs; }
+				@Override
+				protected void compute(){
+					if( hi - lo <= GRAIN ){
+						trimRange( ms, lo, hi, pairs );
+						return;
+					}
+					int mid = (lo + hi) >>> 1;
+					invokeAll( new Trim( ms, lo, mid, pairs ), new Trim( ms, mid, hi, pairs ) );
+				}
+			}
+		}
+
+		/**The one neighbor (other than itself) {@code v} has still in color {@code c}.
+		 * -1 if it has none or more than one.*/
+		private int onlyLive(int v, int c, int[] off, int[] to){
+			int only = -1;
+			for( int k = off[v], end = off[v+1]; k < end; k++ ){
+				int w = to[k];
+				if( w == v || w == only || color.get( w ) != c ) continue;
+				if( only >= 0 ) return -1;
+				only = w;
+			}
+			return only;
+		}
+
+		/**
+		 * Small sub problems : Pearce's sequential algorithm
+		 * ({@link StronglyConnectedComponents#findComponents(CsrGraph)}) over just the edges
+		 * inside color {@code c}, renumbered {@code 0..members.length-1}.
+		 */
+		void sequential(int[] members, int c){
+			int k = members.length;
+			for( int ii = 0; ii < k; ii++ ) local[ members[ii] ] = ii; // sub problems don't share vertices
+			int[] off = new int[ k + 1 ];
+			for( int ii = 0; ii < k; ii++ ){
+				int v = members[ii], d = 0;
+				for( int e = outOff[v], end = outOff[v+1]; e < end; e++ )
+					if( color.get( outTo[e] ) == c ) d++;
+				off[ii+1] = off[ii] + d;
+			}
+			int[] to = new int[ off[k] ];
+			for( int ii = 0, t = 0; ii < k; ii++ ){
+				int v = members[ii];
+				for( int e = outOff[v], end = outOff[v+1]; e < end; e++ )
+					if( color.get( outTo[e] ) == c ) to[t++] = local[ outTo[e] ];
+			}
+			int[] sub = new int[ k ];
+			int count = StronglyConnectedComponents.findComponents( k, off, to, sub );
+			int base = components.getAndAdd( count );
+			for( int ii = 0; ii < k; ii++ ){
+				comp[ members[ii] ] = base + sub[ii];
+				color.set( members[ii], DONE );
+			}
+		}
+
+		/**Members still having color {@code c}*/
+		int[] survivors(int[] members, int c){
+			int k = 0;
+			int[] out = new int[ members.length ];
+			for( int v : members )
+				if( color.get( v ) == c ) out[k++] = v;
+			return Arrays.copyOf( out, k );
+		}
+
+		/**
+		 * Level synchronous search from {@code frontier} along {@code (off,to)}. Neighbors
+		 * colored {@code from1} are moved to {@code to1} (and put in component {@code scc}
+		 * if {@code to1 == DONE}), otherwise neighbors colored {@code from2} are moved to {@code to2}.
+		 * Both kinds are searched on from.
+		 */
+		void search(int[] frontier, int[] off, int[] to, int from1, int to1, int from2, int to2, int scc){
+			int size = frontier.length;
+			while( size > 0 ){
+				Expansion next;
+				if( size < PARALLEL_THRESHOLD )
+					next = expand( frontier, 0, size, off, to, from1, to1, from2, to2, scc );
+				else
+					next = new Expand( frontier, 0, size, off, to, from1, to1, from2, to2, scc ).invoke();
+				frontier = next.vs;
+				size = next.size;
+			}
+		}
+
+		Expansion expand(int[] frontier, int lo, int hi, int[] off, int[] to,
+				int from1, int to1, int from2, int to2, int scc){
+			Expansion next = new Expansion();
+			for( int ii = lo; ii < hi; ii++ ){
+				int v = frontier[ii];
+				for( int k = off[v], end = off[v+1]; k < end; k++ ){
+					int w = to[k];
+					if( color.compareAndSet( w, from1, to1 ) ){
+						if( to1 == DONE ) comp[w] = scc;
+						next.add( w );
+					}else if( from2 >= 0 && color.compareAndSet( w, from2, to2 ) ){
+						next.add( w );
+					}
+				}
+			}
+			return next;
+		}
+
+		@SuppressWarnings("serial")
+		final class Expand extends RecursiveTask<Expansion> {
+			private final int[] frontier, off, to;
+			private final int lo, hi, from1, to1, from2, to2, scc;
+
+			Expand(int[] frontier, int lo, int hi, int[] off, int[] to, int from1, int to1, int from2, int to2, int scc){
+				this.frontier = frontier; this.lo = lo; this.hi = hi;
+				this.off = off; this.to = to;
+				this.from1 = from1; this.to1 = to1; this.from2 = from2; this.to2 = to2;
+				this.scc = scc;
+			}
+			@Override
+			protected Expansion compute(){
+				if( hi - lo <= GRAIN )
+					return expand( frontier, lo, hi, off, to, from1, to1, from2, to2, scc );
+				int mid = (lo + hi) >>> 1;
+				Expand left = new Expand( frontier, lo, mid, off, to, from1, to1, from2, to2, scc );
+				left.fork();
+				Expansion right = new Expand( frontier, mid, hi, off, to, from1, to1, from2, to2, scc ).compute();
+				Expansion e = left.join();
+				e.addAll( right );
+				return e;
+			}
+		}
+	}
+
+	/**Growable int buffer for the next frontier. One per task.*/
+	static final class Expansion {
+		int[] vs = new int[ 16 ];
+		int size = 0;
+
+		void add(int v){
+			if( size == vs.length ) vs = Arrays.copyOf( vs, size * 2 );
+			vs[ size++ ] = v;
+		}
+		void addAll(Expansion e){
+			if( size + e.size > vs.length ) vs = Arrays.copyOf( vs, Math.max( size + e.size, vs.length * 2 ) );
+			System.arraycopy( e.vs, 0, vs, size, e.size );
+			size += e.size;
+		}
+	}
+}
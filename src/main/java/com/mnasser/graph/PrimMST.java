@@ -4,12 +4,17 @@ import com.mnasser.graph.Graph.Edge;
 import com.mnasser.graph.Graph.Vertex;
 import com.mnasser.util.Heap;
 import com.mnasser.util.Heap.HEAP;
+import com.mnasser.util.IndexedHeap;
 
 /**
  * Implementation of Prim's Minimum Spanning Tree algorithm.
  * </p>
  * Uses a heap to keep track of next cheapest edge which will introduce 
  * a new vertex into our growing spanning tree.  
+ * </p>
+ * {@code findMST()} is the eager version : an {@link IndexedHeap} keeps one key per vertex
+ * (the cheapest edge seen into it so far) and lowers it in place, so the heap never holds
+ * more than {@code n} entries and nothing stale ever comes out of it.
  *
  * @author Moe
  */
@@ -29,6 +34,12 @@ public class PrimMST {
 	 * @return A Minimum Spanning Tree of G
 	 */
 	public static <X> Graph<X> findMSTNaive(Graph<X> G){
+		return findMSTNaive( G, new TraversalContext( G ) );
+	}
+	/**Same as {@code findMSTNaive(G)} but marks the vertices taken into the tree in 
+	 * {@code ctx} instead of on {@code G}'s vertices.*/
+	public static <X> Graph<X> findMSTNaive(Graph<X> G, TraversalContext ctx){
+		ctx.reset();
 		
 		// The group of all edges seen by all vertices currently being added
 		// to our MST graph T.  
@@ -37,12 +48,8 @@ public class PrimMST {
 		// our MST. Will fill slowly with vertices
 		Graph<X> T = Graph.getInstance();
 		
-		// TODO : this should be in an initialization step of the graph itself
-		for( Vertex<X> v : G.getVertices() )
-			v.visited = false;
-		
 		Vertex<X> current = Graph.getRandomVertex( G );
-		current.visited = true; // mark
+		ctx.markVisited( current ); // mark
 		T.addVertex(current);   // add to temp graph
 		
 		do {
@@ -60,13 +67,13 @@ public class PrimMST {
 				bestEdge = frontier.removeRoot(); // get next cheapest edge
 				
 				// has to introduce at least 1 new vertex, else skip this edge
-			}while( bestEdge.dst.isVisited() && bestEdge.src.isVisited() );
+			}while( ctx.isVisited( bestEdge.dst ) && ctx.isVisited( bestEdge.src ) );
 			
 			// if this edge was a good edge, add it to T and set current to new vertex
-			current = getUnvisited( bestEdge );
+			current = getUnvisited( bestEdge, ctx );
 			T.addVertex( current );
 			T.addEdge( bestEdge );
-			current.visited = true;
+			ctx.markVisited( current );
 			
 		}while( T.getVertexCount() != G.getVertexCount() );
 		
@@ -74,7 +81,41 @@ public class PrimMST {
 		return T;
 	}
 	
-	private static <X> Vertex<X> getUnvisited(Edge<X> e){
-		return e.dst.isVisited() ? e.src : e.dst;
+	/**
+	 * Eager Prim's MST over flat arrays, {@code O(m log n)}.
+	 * </p>
+	 * Each vertex not yet in the tree sits in the heap keyed by the cheapest edge found so far
+	 * from the tree into it, and remembers that edge's tree end as its parent. Taking a vertex
+	 * into the tree relaxes its edges. Disconnected graphs get one tree per component, and
+	 * directed edges are taken as undirected.
+	 * @return The tree as parent & cost arrays. See {@link SpanningTree#toGraph()}.
+	 */
+	public static SpanningTree findMST(Graph<?> G){
+		CsrGraph<?> c = CsrGraph.freeze( G ).asUndirected();
+		int n = c.getVertexCount();
+		int[] parent = new int[ n ], cost = new int[ n ];
+		boolean[] done = new boolean[ n ];
+		IndexedHeap heap = new IndexedHeap( n );
+		for( int root = 0; root < n; root++ ){
+			if( done[root] ) continue;
+			parent[root] = root;
+			heap.insert( root, 0 );
+			while( ! heap.isEmpty() ){
+				int v = heap.removeRoot();
+				done[v] = true;
+				for( int k = c.offsets[v], end = c.offsets[v+1]; k < end; k++ ){
+					int t = c.targets[k];
+					if( ! done[t] && heap.offer( t, c.costs[k] ) ){
+						parent[t] = v;
+						cost[t]   = c.costs[k];
+					}
+				}
+			}
+		}
+		return new SpanningTree( c.ids, parent, cost );
+	}
+	
+	private static <X> Vertex<X> getUnvisited(Edge<X> e, TraversalContext ctx){
+		return ctx.isVisited( e.dst ) ? e.src : e.dst;
 	}
 }
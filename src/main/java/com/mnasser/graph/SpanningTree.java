@@ -0,0 +1,133 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+
+/**
+ * A spanning tree (or forest, one tree per connected component) kept as three primitive arrays
+ * over the vertex indices of a {@link CsrGraph} : the vertex IDs, each vertex's parent, and the
+ * cost of the edge up to that parent.
+ * </p>
+ * This is what the MST algorithms which work on flat arrays hand back instead of building up a
+ * whole {@code Graph} for {@code T}. Total cost, edge count & tree membership questions are
+ * answered straight off the arrays; {@link #toGraph()} builds the {@code Graph} when one is
+ * really needed.
+ * </p>
+ * Like a {@code DisjointSet} leader, a root is its own parent.
+ *
+ * @author Moe
+ */
+public class SpanningTree {
+
+	final int[] ids;      // vertex index -> id, ascending
+	final int[] parent;   // vertex index -> parent's index. Itself for a root
+	final int[] cost;     // vertex index -> cost of the edge to its parent. 0 for a root
+	private final int roots;
+	private final long total;
+
+	/**Package private. Takes ownership of the given arrays.*/
+	SpanningTree(int[] ids, int[] parent, int[] cost){
+		this.ids    = ids;
+		this.parent = parent;
+		this.cost   = cost;
+		int r = 0;
+		long t = 0;
+		for( int v = 0; v < parent.length; v++ ){
+			if( parent[v] == v ) r++;
+			else t += cost[v];
+		}
+		this.roots = r;
+		this.total = t;
+	}
+
+	/**
+	 * Orients a forest given as an edge list (vertex indices into {@code ids}) by walking each
+	 * tree from its lowest index vertex.
+	 * @throws RuntimeException if the edges have a cycle
+	 */
+	static SpanningTree fromEdges(int[] ids, int[] src, int[] dst, int[] cost, int m){
+		int n = ids.length;
+		// undirected adjacency of the forest
+		int[] off = new int[ n + 1 ];
+		for( int e = 0; e < m; e++ ){
+			off[ src[e] + 1 ]++;
+			off[ dst[e] + 1 ]++;
+		}
+		for( int v = 0; v < n; v++ ) off[v+1] += off[v];
+		int[] adj = new int[ 2 * m ], next = Arrays.copyOf( off, n );
+		for( int e = 0; e < m; e++ ){
+			adj[ next[ src[e] ]++ ] = e;
+			adj[ next[ dst[e] ]++ ] = e;
+		}
+		int[] parent = new int[ n ], up = new int[ n ], via = new int[ n ], queue = new int[ n ];
+		Arrays.fill( parent, -1 );
+		for( int root = 0; root < n; root++ ){
+			if( parent[root] >= 0 ) continue;
+			parent[root] = root;
+			via[root] = -1;
+			int head = 0, tail = 0;
+			queue[tail++] = root;
+			while( head < tail ){
+				int v = queue[head++];
+				for( int k = off[v]; k < off[v+1]; k++ ){
+					int e = adj[k], w = ( src[e] == v )? dst[e] : src[e];
+					if( e == via[v] ) continue; // the edge we came in on
+					if( parent[w] >= 0 )
+						throw new RuntimeException("Edges have a cycle through vertex " + ids[w]);
+					parent[w] = v;
+					up[w]  = cost[e];
+					via[w] = e;
+					queue[tail++] = w;
+				}
+			}
+		}
+		return new SpanningTree( ids, parent, up );
+	}
+
+	public int getVertexCount(){ return ids.length; }
+	/**Number of tree edges : vertices less trees*/
+	public int getEdgeCount(){ return ids.length - roots; }
+	/**Number of trees in the forest. One per connected component of the graph.*/
+	public int getTreeCount(){ return roots; }
+	/**True if this is a single tree over all the vertices*/
+	public boolean isSpanning(){ return roots <= 1; }
+	/**Sum of the costs of the tree edges*/
+	public long getTotalCost(){ return total; }
+
+	public boolean hasVertex(int id){
+		return Arrays.binarySearch( ids, id ) >= 0;
+	}
+	/**ID of the parent of vertex {@code id}. {@code id} itself for a root.*/
+	public int getParent(int id){
+		return ids[ parent[ index( id ) ] ];
+	}
+	/**Cost of the edge from vertex {@code id} up to its parent. 0 for a root.*/
+	public int getCost(int id){
+		return cost[ index( id ) ];
+	}
+	/**True if the tree has an edge between {@code a} & {@code b}*/
+	public boolean hasEdge(int a, int b){
+		int ia = Arrays.binarySearch( ids, a ), ib = Arrays.binarySearch( ids, b );
+		if( ia < 0 || ib < 0 || ia == ib ) return false;
+		return parent[ia] == ib || parent[ib] == ia;
+	}
+	private int index(int id){
+		int idx = Arrays.binarySearch( ids, id );
+		if( idx < 0 ) throw new RuntimeException("No vertex with id " + id);
+		return idx;
+	}
+
+	/**Builds the tree as a regular (undirected) {@code Graph}, lone vertices included*/
+	public Graph<Void> toGraph(){
+		AdjacencyListGraph.Builder<Void> b = new AdjacencyListGraph.Builder<Void>();
+		for( int v = 0; v < ids.length; v++ ){
+			b.addVertex( ids[v] );
+			if( parent[v] != v ) b.addEdge( ids[ parent[v] ], ids[v], cost[v] );
+		}
+		return b.build();
+	}
+
+	@Override
+	public String toString(){
+		return "SpanningTree[" + ids.length + " vertices, " + getEdgeCount() + " edges, cost " + total + "]";
+	}
+}
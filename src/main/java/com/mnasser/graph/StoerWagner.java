@@ -0,0 +1,171 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+
+import com.mnasser.util.DisjointSet;
+import com.mnasser.util.Heap.HEAP;
+import com.mnasser.util.IndexedHeap;
+
+/**
+ * Stoer-Wagner exact global minimum cut, weighted by {@code Edge.cost()}.
+ * </p>
+ * Each phase orders the remaining super vertices by maximum adjacency : start anywhere, then
+ * keep adding the vertex with the largest total weight into what has been added so far. The
+ * last vertex {@code t} on its own is a minimum cut between {@code t} and the one before it,
+ * {@code s}, so it's a candidate for the global minimum. Then {@code s} & {@code t} get merged
+ * and the next phase starts. After {@code n-1} phases the smallest candidate is the minimum cut.
+ * </p>
+ * The ordering uses an {@link IndexedHeap} of primitive keys, so a phase costs
+ * {@code O(m log n)} and the whole cut {@code O(nm log n)}, with no randomness : the same
+ * graph always takes the same time and gets the same answer.
+ * </p>
+ * Super vertices are {@link DisjointSet} sets. Each keeps a list of (original neighbor, weight)
+ * entries, and merging appends the shorter list to the longer one. Entries are never
+ * rewritten, since {@code find()} tells which super vertex a neighbor now belongs to.
+ * </p>
+ * Directed graphs are cut as if their edges were undirected. Costs must not be negative.
+ *
+ * @author Moe
+ */
+public class StoerWagner {
+
+	private final int n;
+	private final int[] ids;   // vertex index -> id
+	private long cut;
+	private int[] side;        // ids on the t side of the best phase, ascending
+
+	/**Minimum cut of {@code g}, weighing each edge by its {@code cost()}*/
+	public StoerWagner(Graph<?> g){
+		this( g, true );
+	}
+	/**@param useCosts False to count every edge as 1, as {@link MinimumCut} does*/
+	public StoerWagner(Graph<?> g, boolean useCosts){
+		CsrGraph<?> c = CsrGraph.freeze( g );
+		n   = c.getVertexCount();
+		ids = c.ids;
+		if( n < 2 ) throw new RuntimeException("Need at least 2 vertices to cut a graph, not " + n);
+
+		// every edge once, written into both ends' lists
+		int[] len = new int[ n ];
+		for( int s = 0; s < n; s++ )
+			for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ )
+				if( keep( c, s, c.targets[k] ) ){
+					len[s]++;
+					len[ c.targets[k] ]++;
+				}
+		int[][]  nbr = new int[ n ][];
+		long[][] wgt = new long[ n ][];
+		for( int v = 0; v < n; v++ ){
+			nbr[v] = new int[ len[v] ];
+			wgt[v] = new long[ len[v] ];
+			len[v] = 0;
+		}
+		for( int s = 0; s < n; s++ )
+			for( int k = c.offsets[s]; k < c.offsets[s+1]; k++ ){
+				int t = c.targets[k];
+				if( ! keep( c, s, t ) ) continue;
+				int w = useCosts ? c.costs[k] : 1;
+				if( w < 0 ) throw new RuntimeException("Negative cost " + w + " on edge (" + ids[s] + "," + ids[t] + ")");
+				nbr[s][ len[s] ] = t;   wgt[s][ len[s]++ ] = w;
+				nbr[t][ len[t] ] = s;   wgt[t][ len[t]++ ] = w;
+			}
+		run( nbr, wgt, len );
+	}
+	/**Undirected rows list every edge from both ends : keep one. No self loops.*/
+	private static boolean keep(CsrGraph<?> c, int s, int t){
+		return c.isDirected() ? s != t : s < t;
+	}
+
+	private void run(int[][] nbr, long[][] wgt, int[] len){
+		DisjointSet sets = new DisjointSet( n );
+		// members of each super vertex, as a linked list through next[]
+		int[] head = new int[ n ], tail = new int[ n ], next = new int[ n ];
+		int[] alive = new int[ n ];
+		for( int v = 0; v < n; v++ ){
+			head[v] = tail[v] = alive[v] = v;
+			next[v] = -1;
+		}
+		IndexedHeap heap = new IndexedHeap( n, HEAP.MAX_HEAP );
+		long best = Long.MAX_VALUE;
+		int[] bestSide = null;
+
+		for( int left = n; left > 1; left-- ){
+			heap.clear();
+			for( int ii = 0; ii < left; ii++ ) heap.insert( alive[ii], 0 );
+			int s = -1, t = -1;
+			long phase = 0;
+			while( ! heap.isEmpty() ){
+				phase = heap.peekKey();
+				s = t;
+				t = heap.removeRoot();
+				int[] nb = nbr[t];
+				long[] wt = wgt[t];
+				for( int ii = 0, l = len[t]; ii < l; ii++ ){
+					int x = sets.find( nb[ii] );
+					if( heap.contains( x ) ) heap.increaseKey( x, heap.keyOf( x ) + wt[ii] );
+				}
+			}
+			if( phase < best ){
+				best = phase;
+				bestSide = members( head[t], next );
+			}
+			// merge t into s
+			sets.union( s, t );
+			int r = sets.find( s ), gone = ( r == s )? t : s;
+			int big = ( len[s] >= len[t] )? s : t, small = ( big == s )? t : s;
+			int need = len[big] + len[small];
+			if( need > nbr[big].length ){
+				nbr[big] = Arrays.copyOf( nbr[big], Math.max( need, nbr[big].length * 2 ) );
+				wgt[big] = Arrays.copyOf( wgt[big], nbr[big].length );
+			}
+			System.arraycopy( nbr[small], 0, nbr[big], len[big], len[small] );
+			System.arraycopy( wgt[small], 0, wgt[big], len[big], len[small] );
+			len[big] = need;
+			if( big != r ){ // the lists follow the set's representative
+				nbr[r] = nbr[big];  wgt[r] = wgt[big];  len[r] = len[big];
+			}
+			nbr[gone] = null;  wgt[gone] = null;  len[gone] = 0;
+			next[ tail[r] ] = head[gone];
+			tail[r] = tail[gone];
+			for( int ii = 0; ii < left; ii++ )
+				if( alive[ii] == gone ){
+					alive[ii] = alive[left - 1];
+					break;
+				}
+			if( best == 0 ) break; // can't do better
+		}
+		this.cut  = best;
+		this.side = bestSide;
+	}
+
+	private int[] members(int from, int[] next){
+		int cnt = 0;
+		for( int v = from; v >= 0; v = next[v] ) cnt++;
+		int[] out = new int[ cnt ];
+		cnt = 0;
+		for( int v = from; v >= 0; v = next[v] ) out[cnt++] = ids[v];
+		Arrays.sort( out );
+		return out;
+	}
+
+	/**Total weight of the edges crossing the minimum cut*/
+	public long getCut(){
+		return cut;
+	}
+	/**IDs of the vertices on one side of the minimum cut, ascending*/
+	public int[] getSide(){
+		return side.clone();
+	}
+	/**IDs of the vertices on the other side, ascending*/
+	public int[] getOtherSide(){
+		int[] out = new int[ n - side.length ];
+		int k = 0;
+		for( int id : ids )
+			if( Arrays.binarySearch( side, id ) < 0 ) out[k++] = id;
+		return out;
+	}
+	/**True if vertex {@code id} is on the {@link #getSide()} side*/
+	public boolean isOnSide(int id){
+		return Arrays.binarySearch( side, id ) >= 0;
+	}
+}
@@ -2,14 +2,13 @@ package com.mnasser.graph;
 
 
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Stack;
 import java.util.TreeMap;
 
 import com.mnasser.graph.DFS.FinishingOrder;
 import com.mnasser.graph.DFS.RunningTotal;
-import com.mnasser.graph.Graph.Edge;
 import com.mnasser.graph.Graph.Vertex;
 
 
@@ -38,51 +37,42 @@ public class StronglyConnectedComponents {
 		System.out.println(cm);
 	}
 	
-	public static CountingMap doSCC(DirectedGraph g){
+	public static CountingMap doSCC(Graph g){
+		return doSCC( g, new TraversalContext( g ) );
+	}
+	/**Kosaraju's two pass SCC, keeping all visited & ordering state in {@code ctx}.
+	 * Nothing is written to {@code g}, so several of these may run on the same graph at once.*/
+	public static CountingMap doSCC(Graph g, TraversalContext ctx){
 		// first pass
-		FinishingOrder fo = firstPass( g );
-		
-		g.clearVisited();
+		FinishingOrder fo = firstPass( g, ctx );
 		
 		// Second Pass
-		return secondPass(g, fo);
+		return secondPass(g, fo, ctx);
 	}
 	
-	public static FinishingOrder firstPass( DirectedGraph g){
-		g.clearVisited();
-		Vertex max = g.getVertex(g.getMax().id);
-		FinishingOrder fo = new FinishingOrder();
+	public static FinishingOrder firstPass( Graph g){
+		return firstPass( g, new TraversalContext( g ) );
+	}
+	public static FinishingOrder firstPass( Graph g, TraversalContext ctx ){
+		ctx.reset();
+		FinishingOrder fo = new FinishingOrder( ctx );
 		
 		
-		Stack<Vertex> stack = new Stack<Vertex>();
-		for( int ii = max.id; ii >=0; ii-- ){
-			if( ! g.hasVertex(ii) ||  g.getVertex(ii).isVisited() )
+		for( int ii = g.getMaxId(); ii >=0; ii-- ){
+			if( ! g.hasVertex(ii) ||  ctx.isVisited( g.getVertex(ii) ) )
 				continue;
 			
-			stack.push(g.getVertex(ii));
-			while( ! stack.isEmpty() ){
-				Vertex s = stack.peek();
-				if ( ! s.visited ){
-					s.visited = true;
-					
-					for( Edge e : (List<Edge>) s.getInBound() ){
-						if( ! e.src.isVisited() ) 
-							stack.push( e.src );
-					}
-				}else{
-					s = stack.pop();
-					if( fo != null && s.order == -1 )  {
-						fo.doBackTrack(s);
-					}
-				}
-			}
+			GraphTraversal.dfs( g.getVertex(ii), fo, true, null, ctx );
 		}
 		//System.out.println(g);
 		return fo;
 	}
 	
-	public static CountingMap secondPass( DirectedGraph g, FinishingOrder fo ){
-		g.clearVisited();
+	public static CountingMap secondPass( Graph g, FinishingOrder fo ){
+		return secondPass( g, fo, new TraversalContext( g ) );
+	}
+	public static CountingMap secondPass( Graph g, FinishingOrder fo, TraversalContext ctx ){
+		ctx.reset();
 		List<Integer> ordering = fo.getOrdering();
 		
 		Collections.reverse(ordering); // reverse in place 
@@ -92,7 +82,7 @@ public class StronglyConnectedComponents {
 		/*
 		for( Integer ii : ordering ){
 			Vertex leader = g.getVertex( ii );
-			if( leader.isVisited() )
+			if( ctx.isVisited( leader ) )
 				continue;
 			
 			RunningTotal rt = new RunningTotal();
@@ -101,34 +91,141 @@ public class StronglyConnectedComponents {
 		}
 		*/
 		
-		Stack<Vertex> stack = new Stack<Vertex>();
-		for( Integer ii : ordering ){
-			if( ! g.hasVertex(ii) ||  g.getVertex(ii).isVisited() )
+		for( int ii : ordering ){ // unbox, or hasVertex(Object element) gets picked
+			if( ! g.hasVertex(ii) ||  ctx.isVisited( g.getVertex(ii) ) )
 				continue;
 			
 			RunningTotal rt = new RunningTotal();
-			stack.push(g.getVertex(ii));
-			while( ! stack.isEmpty() ){
-				Vertex s = stack.peek();
-				if ( ! s.visited ){
-					s.visited = true;
-					rt.inc();
-					
-					for( Edge e : (List<Edge>) s.getOutBound() ){
-						if( ! e.dst.isVisited() ) {
-							stack.push( e.dst );
-						}
+			GraphTraversal.dfs( g.getVertex(ii), null, false, rt, ctx );
+			countingMap.inc(rt.getSize());
+		}
+		
+		return countingMap;
+	}
+	
+	/**
+	 * Single pass SCC : Pearce's space efficient take on Tarjan's algorithm, run iteratively
+	 * over the outbound arrays of {@code g} only. Each edge is looked at once and no reverse 
+	 * graph or finishing order is needed, unlike the two passes of {@code doSCC()}.
+	 * </p>
+	 * Apart from the call stack, the only per vertex state is one {@code int} : {@code rindex[v]}
+	 * starts as {@code v}'s visit number and is lowered to the smallest visit number reachable
+	 * from it (Tarjan's low link).  Finished vertices get a component number counted down 
+	 * from {@code n-1}, always above the visit numbers still in use, so edges into finished
+	 * components never lower anything.
+	 * 
+	 * @see "D. J. Pearce, A space-efficient algorithm for finding strongly connected components, 2016"
+	 */
+	public static Components findComponents(CsrGraph<?> g){
+		int n = g.getVertexCount();
+		int[] comp = new int[ n ];
+		int count = findComponents( n, g.offsets, g.targets, comp );
+		return new Components( g, comp, count );
+	}
+	/**
+	 * {@link #findComponents(CsrGraph)} over bare arrays : vertices {@code 0..n-1}, with the
+	 * targets of {@code v}'s out edges in {@code to[ off[v] .. off[v+1]-1 ]}.
+	 * @param comp Gets each vertex's component number, {@code 0..count-1}
+	 * @return The number of components
+	 */
+	static int findComponents(int n, int[] off, int[] to, int[] comp){
+		int[] rindex = comp;             // 0 = not yet visited
+		Arrays.fill( rindex, 0, n, 0 );
+		boolean[] root = new boolean[ n ];
+		int[] call = new int[ n ], edge = new int[ n ]; // call stack : vertex & next slot to look at
+		int[] stack = new int[ n ];      // visited vertices waiting on their component
+		int top = 0, sp = 0;
+		int index = 1, c = n - 1;
+
+		for( int s = 0; s < n; s++ ){
+			if( rindex[s] != 0 ) continue;
+			rindex[s] = index++;  root[s] = true;
+			call[top] = s;  edge[top] = off[s];  top++;
+
+			while( top > 0 ){
+				int v = call[top-1];
+				int k = edge[top-1];
+				if( k < off[v+1] ){
+					edge[top-1]++;
+					int w = to[k];
+					if( rindex[w] == 0 ){ // tree edge. Descend
+						rindex[w] = index++;  root[w] = true;
+						call[top] = w;  edge[top] = off[w];  top++;
+					}else if( rindex[w] < rindex[v] ){
+						rindex[v] = rindex[w];
+						root[v] = false;
 					}
+					continue;
+				}
+				// done with v
+				top--;
+				if( root[v] ){
+					index--;
+					while( sp > 0 && rindex[v] <= rindex[ stack[sp-1] ] ){
+						rindex[ stack[--sp] ] = c;
+						index--;
+					}
+					rindex[v] = c--;
 				}else{
-					s = stack.pop();
+					stack[sp++] = v;
+				}
+				if( top > 0 ){ // back in the parent
+					int u = call[top-1];
+					if( rindex[v] < rindex[u] ){
+						rindex[u] = rindex[v];
+						root[u] = false;
+					}
 				}
 			}
-			countingMap.inc(rt.getSize());
 		}
-		
-		return countingMap;
+		// components were numbered n-1 downwards
+		for( int v = 0; v < n; v++ )
+			rindex[v] = n - 1 - rindex[v];
+		return n - 1 - c;
+	}
+	/**Size histogram of {@code g}'s components, found in a single pass. 
+	 * @see #findComponents(CsrGraph)*/
+	public static CountingMap doSCCSinglePass(Graph g){
+		return findComponents( CsrGraph.freeze( g ) ).getSizeCounts();
 	}
 	
+	/**Component numbers of the vertices of a {@code CsrGraph}*/
+	public static final class Components {
+		private final CsrGraph<?> g;
+		private final int[] comp;
+		private final int count;
+
+		Components(CsrGraph<?> g, int[] comp, int count){
+			this.g = g;
+			this.comp = comp;
+			this.count = count;
+		}
+		/**Component number of the vertex with this id. -1 if there is no such vertex.*/
+		public int getComponent(int id){
+			int idx = g.indexOf( id );
+			return ( idx < 0 ) ? -1 : comp[idx];
+		}
+		public int getComponent(Vertex<?> v){
+			return getComponent( v.id );
+		}
+		public int getComponentCount(){
+			return count;
+		}
+		/**Number of vertices in each component, by component number*/
+		public int[] getComponentSizes(){
+			int[] sizes = new int[ count ];
+			for( int c : comp ) sizes[c]++;
+			return sizes;
+		}
+		/**Histogram of component sizes. Same as {@code doSCC()} returns.*/
+		public CountingMap getSizeCounts(){
+			CountingMap cm = new CountingMap();
+			for( int s : getComponentSizes() ) cm.inc( s );
+			return cm;
+		}
+	}
+
+
 	@SuppressWarnings("serial")
 	public static class CountingMap extends TreeMap<Integer,Integer>{
 		public void inc(int size){
@@ -0,0 +1,369 @@
+package com.mnasser.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel loader for text adjacency lists like {@code kargerMinCut.txt} :
+ * <pre>
+ * vertex  neighbor neighbor ...
+ * </pre>
+ * one line per vertex, numbers separated by spaces or tabs. Plain edge lists ({@code "tail head"}
+ * per line, like {@code SCC.txt}) are the special case of one neighbor per line.
+ * </p>
+ * The file is cut into byte ranges ending on line breaks. Each range is mapped and parsed on
+ * the fork join pool straight from bytes into a {@link Chunk} of {@code int} edge buffers :
+ * no {@code String}s, no regex, no {@code Vertex} or {@code Edge} objects. The chunks are then
+ * merged into a {@link CsrGraph}.
+ * </p>
+ * Peak memory stays around two copies of the edges as ints, whatever the file size : a range
+ * is only mapped while being parsed (and mapped pages are not heap), and chunks are released
+ * one by one as they are copied into the final edge arrays.
+ * </p>
+ * Undirected graphs list every edge from both ends, so like {@code MinimumCut.loadGraph()}
+ * an undirected edge is kept once however many times it appears. Directed graphs keep
+ * every edge exactly as listed.
+ *
+ * @author Moe
+ */
+public class TextGraphLoader {
+
+	/**Default size of the byte ranges parsed as one task*/
+	static final long CHUNK_BYTES = 32L << 20;
+	private static final int WINDOW = 1 << 16;
+
+	public static CsrGraph<Void> load(File f, boolean directed) throws IOException {
+		return load( f, directed, ForkJoinPool.commonPool(), CHUNK_BYTES );
+	}
+	public static CsrGraph<Void> load(File f, boolean directed, ForkJoinPool pool) throws IOException {
+		return load( f, directed, pool, CHUNK_BYTES );
+	}
+
+	static CsrGraph<Void> load(File f, boolean directed, ForkJoinPool pool, long chunkBytes) throws IOException {
+		try( FileChannel ch = FileChannel.open( f.toPath(), StandardOpenOption.READ ) ){
+			long[] bounds = split( ch, chunkBytes );
+			Chunk[] chunks = new Chunk[ bounds.length - 1 ];
+			try {
+				pool.invoke( new Parse( ch, bounds, chunks, 0, chunks.length ) );
+			}catch( UncheckedIOException e ){
+				throw new IOException( f + " : " + e.getCause().getMessage(), e.getCause() );
+			}
+			return merge( chunks, directed, pool );
+		}
+	}
+
+	/**Range boundaries : {@code [b[i], b[i+1])} is range {@code i}. Every range but the last
+	 * ends just after a line break.*/
+	static long[] split(FileChannel ch, long chunkBytes) throws IOException {
+		long size = ch.size();
+		long[] b = new long[ (int) Math.min( Integer.MAX_VALUE - 8, size / chunkBytes + 2 ) ];
+		int k = 1;
+		ByteBuffer buf = ByteBuffer.allocate( 4096 );
+		for( long pos = chunkBytes; pos < size; pos = b[k-1] + chunkBytes ){
+			long end = nextLine( ch, buf, pos, size );
+			if( end >= size ) break;
+			b[k++] = end;
+		}
+		b[k++] = size;
+		return Arrays.copyOf( b, k );
+	}
+
+	/**Position just after the first line break at or after {@code pos}, or {@code size} if none*/
+	private static long nextLine(FileChannel ch, ByteBuffer buf, long pos, long size) throws IOException {
+		while( pos < size ){
+			buf.clear();
+			int read = ch.read( buf, pos );
+			if( read <= 0 ) break;
+			for( int ii = 0; ii < read; ii++ )
+				if( buf.get(ii) == '\n' ) return pos + ii + 1;
+			pos += read;
+		}
+		return size;
+	}
+
+	/**Edges (as raw IDs, then as vertex indices once merged) & vertices without any, of one range*/
+	static final class Chunk {
+		int[] src = new int[ 1024 ], dst = new int[ 1024 ];
+		int m = 0;
+		int[] lone = new int[ 16 ]; // vertices listed with no neighbors
+		int loneCount = 0;
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+
+		void edge(int s, int d){
+			if( m == src.length ){
+				src = Arrays.copyOf( src, m * 2 );
+				dst = Arrays.copyOf( dst, m * 2 );
+			}
+			src[m] = s;
+			dst[m++] = d;
+			seen( s ); seen( d );
+		}
+		void vertex(int v){
+			if( loneCount == lone.length ) lone = Arrays.copyOf( lone, loneCount * 2 );
+			lone[ loneCount++ ] = v;
+			seen( v );
+		}
+		private void seen(int v){
+			if( v < min ) min = v;
+			if( v > max ) max = v;
+		}
+	}
+
+	/**Parses ranges {@code [lo, hi)} into {@code chunks}*/
+	@SuppressWarnings("serial")
+	static final class Parse extends RecursiveAction {
+		private final FileChannel ch;
+		private final long[] bounds;
+		private final Chunk[] chunks;
+		private final int lo, hi;
+
+		Parse(FileChannel ch, long[] bounds, Chunk[] chunks, int lo, int hi){
+			this.ch = ch; this.bounds = bounds; this.chunks = chunks; this.lo = lo; this.hi = hi;
+		}
+		@Override
+		protected void compute(){
+			if( hi - lo > 1 ){
+				int mid = (lo + hi) >>> 1;
+				invokeAll( new Parse( ch, bounds, chunks, lo, mid ), new Parse( ch, bounds, chunks, mid, hi ) );
+				return;
+			}
+			try {
+				for( int ii = lo; ii < hi; ii++ )
+					chunks[ii] = parse( ch, bounds[ii], bounds[ii+1] );
+			}catch( IOException e ){
+				throw new UncheckedIOException( e );
+			}
+		}
+	}
+
+	/**Parses the lines in bytes {@code [start, end)} of {@code ch}*/
+	static Chunk parse(FileChannel ch, long start, long end) throws IOException {
+		Chunk c = new Chunk();
+		if( end - start > Integer.MAX_VALUE )
+			throw new IOException("Line too long at byte " + start);
+		if( end == start ) return c;
+		MappedByteBuffer mb = ch.map( FileChannel.MapMode.READ_ONLY, start, end - start );
+		byte[] w = new byte[ (int) Math.min( WINDOW, end - start ) ];
+
+		long value = 0;
+		boolean inNumber = false, negative = false;
+		boolean hasHead = false, hasNeighbor = false;
+		int head = 0;
+		long pos = start;
+		while( mb.hasRemaining() ){
+			int len = Math.min( w.length, mb.remaining() );
+			mb.get( w, 0, len );
+			for( int ii = 0; ii < len; ii++, pos++ ){
+				byte b = w[ii];
+				if( b >= '0' && b <= '9' ){
+					value = value * 10 + (b - '0');
+					if( value > Integer.MAX_VALUE + 1L )
+						throw new IOException("Number too large at byte " + pos);
+					inNumber = true;
+					continue;
+				}
+				if( b == '-' && ! inNumber && ! negative ){
+					negative = true;
+					continue;
+				}
+				if( b != ' ' && b != '\t' && b != '\r' && b != '\n' )
+					throw new IOException("Unexpected character '" + (char) b + "' at byte " + pos);
+				if( negative && ! inNumber )
+					throw new IOException("Dangling '-' at byte " + pos);
+				if( inNumber ){
+					int v = toInt( value, negative, pos );
+					if( ! hasHead ){ head = v; hasHead = true; }
+					else { c.edge( head, v ); hasNeighbor = true; }
+					value = 0;
+					inNumber = negative = false;
+				}
+				if( b == '\n' ){
+					if( hasHead && ! hasNeighbor ) c.vertex( head );
+					hasHead = hasNeighbor = false;
+				}
+			}
+		}
+		// last line of the file may not end in a line break
+		if( negative && ! inNumber )
+			throw new IOException("Dangling '-' at byte " + pos);
+		if( inNumber ){
+			int v = toInt( value, negative, pos );
+			if( ! hasHead ){ head = v; hasHead = true; }
+			else { c.edge( head, v ); hasNeighbor = true; }
+		}
+		if( hasHead && ! hasNeighbor ) c.vertex( head );
+		return c;
+	}
+
+	private static int toInt(long value, boolean negative, long pos) throws IOException {
+		if( negative ) value = -value;
+		if( value > Integer.MAX_VALUE )
+			throw new IOException("Number too large at byte " + pos);
+		return (int) value;
+	}
+
+	/**Turns the parsed chunks into a graph. Chunks are emptied along the way.*/
+	static CsrGraph<Void> merge(Chunk[] chunks, boolean directed, ForkJoinPool pool){
+		long total = 0, vertices = 0;
+		int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+		for( Chunk c : chunks ){
+			total += c.m;
+			vertices += c.loneCount;
+			min = Math.min( min, c.min );
+			max = Math.max( max, c.max );
+		}
+		if( total > Integer.MAX_VALUE - 8 )
+			throw new RuntimeException("Too many edges for one graph : " + total);
+		int m = (int) total;
+		if( min > max ) // nothing at all
+			return CsrGraph.fromEdges( new int[0], (Void[]) null, new int[0], new int[0], null, 0, directed );
+
+		// IDs -> indices, in place in the chunks
+		long range = (long) max - min + 1;
+		int[] ids = ( range <= 2 * ( 2L * m + vertices ) + 1024 && range < Integer.MAX_VALUE - 8 )
+				? denseIds( chunks, min, (int) range, pool )
+				: sparseIds( chunks, pool );
+
+		int[] src, dst;
+		if( directed ){
+			src = new int[ m ];
+			dst = new int[ m ];
+			int k = 0;
+			for( int ii = 0; ii < chunks.length; ii++ ){
+				Chunk c = chunks[ii];
+				System.arraycopy( c.src, 0, src, k, c.m );
+				System.arraycopy( c.dst, 0, dst, k, c.m );
+				k += c.m;
+				chunks[ii] = null;
+			}
+		}else{
+			// keep each undirected edge once : sort (lo,hi) pairs packed in a long & drop repeats
+			long[] keys = new long[ m ];
+			int k = 0;
+			for( int ii = 0; ii < chunks.length; ii++ ){
+				Chunk c = chunks[ii];
+				for( int e = 0; e < c.m; e++ ){
+					int a = c.src[e], b = c.dst[e];
+					keys[k++] = ( a < b )? ((long) a << 32) | b : ((long) b << 32) | a;
+				}
+				chunks[ii] = null;
+			}
+			Arrays.parallelSort( keys );
+			int u = 0;
+			for( int ii = 0; ii < m; ii++ )
+				if( ii == 0 || keys[ii] != keys[ii-1] ) u++;
+			src = new int[ u ];
+			dst = new int[ u ];
+			u = 0;
+			for( int ii = 0; ii < m; ii++ ){
+				if( ii > 0 && keys[ii] == keys[ii-1] ) continue;
+				src[u]   = (int) (keys[ii] >>> 32);
+				dst[u++] = (int) keys[ii];
+			}
+			keys = null;
+			m = u;
+		}
+		return CsrGraph.fromEdges( ids, (Void[]) null, src, dst, null, m, directed );
+	}
+
+	/**IDs packed closely enough for an array over {@code [min, min+range)}*/
+	private static int[] denseIds(Chunk[] chunks, int min, int range, ForkJoinPool pool){
+		int[] rank = new int[ range ];
+		// all threads only ever write 1, so racing on the same slot is harmless
+		forEachChunk( chunks, pool, ii -> {
+			Chunk c = chunks[ii];
+			for( int e = 0; e < c.m; e++ ){
+				rank[ c.src[e] - min ] = 1;
+				rank[ c.dst[e] - min ] = 1;
+			}
+			for( int e = 0; e < c.loneCount; e++ )
+				rank[ c.lone[e] - min ] = 1;
+		});
+		int n = 0;
+		for( int r : rank ) n += r;
+		int[] ids = new int[ n ];
+		for( int ii = 0, k = 0; ii < range; ii++ ){
+			if( rank[ii] == 0 ) continue;
+			ids[k] = min + ii;
+			rank[ii] = k++;
+		}
+		forEachChunk( chunks, pool, ii -> {
+			Chunk c = chunks[ii];
+			for( int e = 0; e < c.m; e++ ){
+				c.src[e] = rank[ c.src[e] - min ];
+				c.dst[e] = rank[ c.dst[e] - min ];
+			}
+		});
+		return ids;
+	}
+
+	/**IDs spread too thin for an array : sort them & binary search*/
+	private static int[] sparseIds(Chunk[] chunks, ForkJoinPool pool){
+		int[][] seen = new int[ chunks.length ][];
+		forEachChunk( chunks, pool, ii -> {
+			Chunk c = chunks[ii];
+			int[] all = new int[ 2 * c.m + c.loneCount ];
+			System.arraycopy( c.src, 0, all, 0, c.m );
+			System.arraycopy( c.dst, 0, all, c.m, c.m );
+			System.arraycopy( c.lone, 0, all, 2 * c.m, c.loneCount );
+			seen[ii] = unique( all, all.length );
+		});
+		int len = 0;
+		for( int[] s : seen ) len += s.length;
+		int[] all = new int[ len ];
+		len = 0;
+		for( int ii = 0; ii < seen.length; ii++ ){
+			System.arraycopy( seen[ii], 0, all, len, seen[ii].length );
+			len += seen[ii].length;
+			seen[ii] = null;
+		}
+		int[] ids = unique( all, len );
+		forEachChunk( chunks, pool, ii -> {
+			Chunk c = chunks[ii];
+			for( int e = 0; e < c.m; e++ ){
+				c.src[e] = Arrays.binarySearch( ids, c.src[e] );
+				c.dst[e] = Arrays.binarySearch( ids, c.dst[e] );
+			}
+		});
+		return ids;
+	}
+
+	/**Sorted distinct values of {@code a[0..len)}. Sorts {@code a} in place.*/
+	private static int[] unique(int[] a, int len){
+		Arrays.parallelSort( a, 0, len );
+		int k = 0;
+		for( int ii = 0; ii < len; ii++ )
+			if( k == 0 || a[ii] != a[k-1] ) a[k++] = a[ii];
+		return Arrays.copyOf( a, k );
+	}
+
+	/**Runs {@code action} on the index of every chunk, in parallel*/
+	private static void forEachChunk(Chunk[] chunks, ForkJoinPool pool, IntConsumer action){
+		pool.invoke( new ForEach( action, 0, chunks.length ) );
+	}
+
+	@SuppressWarnings("serial")
+	private static final class ForEach extends RecursiveAction {
+		private final IntConsumer action;
+		private final int lo, hi;
+		ForEach(IntConsumer action, int lo, int hi){ this.action = action; this.lo = lo; this.hi = hi; }
+		@Override
+		protected void compute(){
+			if( hi - lo > 1 ){
+				int mid = (lo + hi) >>> 1;
+				invokeAll( new ForEach( action, lo, mid ), new ForEach( action, mid, hi ) );
+			}else if( hi > lo ){
+				action.accept( lo );
+			}
+		}
+	}
+}
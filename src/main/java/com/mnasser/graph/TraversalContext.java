@@ -0,0 +1,92 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+
+import com.mnasser.graph.Graph.Vertex;
+
+/**
+ * Holds the per-traversal state (visited marks, finishing order) of a graph
+ * algorithm outside of the shared {@link Vertex} objects.
+ * </p>
+ * Each vertex is given a slot by its graph when it is added. The state of a
+ * vertex lives at that slot in plain {@code int[]}s stamped with the current
+ * epoch : a vertex is visited iff its stamp equals the epoch.  Starting over is
+ * just {@code reset()} bumping the epoch, not a sweep over every vertex clearing
+ * flags kept on it.
+ * </p>
+ * Since nothing is written to the graph itself, any number of read only algorithms
+ * can walk the same graph at once as long as each has its own context.
+ * A context itself is not thread safe.
+ *
+ * @author Moe
+ */
+public class TraversalContext {
+
+	/**Creates a context sized for every vertex currently in {@code g}*/
+	public TraversalContext(Graph<?> g){
+		this( g.slotCount() );
+	}
+	/**Creates a context with room for {@code slots} vertices. It grows as needed.*/
+	public TraversalContext(int slots){
+		visited = new int[ Math.max( 16, slots ) ];
+	}
+	public TraversalContext(){
+		this( 16 );
+	}
+
+	private int epoch = 1;
+	private int[] visited;           // visited[slot] == epoch  <=>  visited
+	private int[] orderStamp = null; // orderStamp[slot] == epoch  <=>  order[slot] was set
+	private int[] order = null;
+
+	/**Forgets every visit and finishing order. O(1) save for once every 2^31 resets.*/
+	public void reset(){
+		if( ++epoch == Integer.MAX_VALUE ){ // wrapped. Old stamps could come back to life
+			Arrays.fill( visited, 0 );
+			if( orderStamp != null ) Arrays.fill( orderStamp, 0 );
+			epoch = 1;
+		}
+	}
+
+	public boolean isVisited(Vertex<?> v){
+		int s = slotOf( v );
+		return s < visited.length && visited[s] == epoch;
+	}
+	/**Marks {@code v} as visited.
+	 * @return true if {@code v} had not been visited yet*/
+	public boolean markVisited(Vertex<?> v){
+		int s = slotOf( v );
+		if( s >= visited.length ) visited = Arrays.copyOf( visited, grow( s ) );
+		if( visited[s] == epoch ) return false;
+		visited[s] = epoch;
+		return true;
+	}
+
+	/**Returns the finishing order given to {@code v}, or -1 if it has none.*/
+	public int getOrder(Vertex<?> v){
+		int s = slotOf( v );
+		return ( orderStamp != null && s < orderStamp.length && orderStamp[s] == epoch ) ? order[s] : -1;
+	}
+	public void setOrder(Vertex<?> v, int o){
+		int s = slotOf( v );
+		if( orderStamp == null ){
+			orderStamp = new int[ Math.max( visited.length, s + 1 ) ];
+			order      = new int[ orderStamp.length ];
+		}else if( s >= orderStamp.length ){
+			orderStamp = Arrays.copyOf( orderStamp, grow( s ) );
+			order      = Arrays.copyOf( order, orderStamp.length );
+		}
+		orderStamp[s] = epoch;
+		order[s] = o;
+	}
+
+	private static int grow(int slot){
+		return Math.max( slot + 1, slot + (slot >> 1) );
+	}
+
+	private static int slotOf(Vertex<?> v){
+		if( v.slot < 0 )
+			throw new RuntimeException("Vertex " + v.id + " doesn't belong to a graph. Use the graph's own vertex.");
+		return v.slot;
+	}
+}
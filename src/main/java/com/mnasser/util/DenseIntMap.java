@@ -0,0 +1,109 @@
+package com.mnasser.util;
+
+import java.util.Arrays;
+
+/**
+ * A map of primitive {@code int} keys for key sets which are mostly a contiguous
+ * run of small non-negative numbers, like vertex IDs {@code 1..n}.
+ * </p>
+ * Keys in {@code [0, length)} are stored straight into an array indexed by key, so
+ * a look up is a bounds check and a single array load.  The array grows (doubling)
+ * to take in new keys as long as it stays at least half full.  Keys which would leave
+ * the array too sparse (far away IDs, negatives) go to a backing {@link IntMap} instead.
+ * </p>
+ * Like {@code IntMap}, this is not thread safe.
+ *
+ * @param <V> The type of Values to map to.
+ * @author Moe
+ */
+public class DenseIntMap<V> {
+
+	public DenseIntMap(){
+		this( 16 );
+	}
+	/**Creates a map whose array can already hold keys {@code 0..expectedMaxKey}*/
+	public DenseIntMap(int expectedMaxKey){
+		dense = new Object[ Math.max( 1, expectedMaxKey + 1 ) ];
+	}
+
+	private Object[] dense;                  // dense[k] is the value for key k
+	private int denseCount = 0;              // non-null entries in dense
+	private IntMap<V> sparse = null;         // everything else. Created lazily
+
+	@SuppressWarnings("unchecked")
+	public V get(int key){
+		if( key >= 0 && key < dense.length )
+			return (V) dense[key];
+		return (sparse == null)? null : sparse.get( key );
+	}
+
+	public boolean containsKey(int key){
+		return get( key ) != null;
+	}
+
+	/**Maps {@code key} to {@code value}. Null values are not allowed.
+	 * @return The previous value for this key. Null if there was none.*/
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value){
+		if( value == null ) throw new NullPointerException("DenseIntMap does not accept null values");
+		if( key >= dense.length && key >= 0 && key < 2 * (size() + 1) )
+			grow( key );
+		if( key >= 0 && key < dense.length ){
+			V old = (V) dense[key];
+			dense[key] = value;
+			if( old == null ) denseCount++;
+			return old;
+		}
+		if( sparse == null ) sparse = new IntMap<V>();
+		return sparse.put( key, value );
+	}
+
+	/**Widens the array so it covers {@code key}, pulling in any sparse keys that now fit*/
+	private void grow(int key){
+		int len = Math.max( key + 1, dense.length * 2 );
+		dense = Arrays.copyOf( dense, len );
+		if( sparse == null || sparse.isEmpty() ) return;
+		for( int k : sparse.keys() ){
+			if( k >= 0 && k < len ){
+				dense[k] = sparse.remove( k );
+				denseCount++;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	public V remove(int key){
+		if( key >= 0 && key < dense.length ){
+			V old = (V) dense[key];
+			if( old != null ){
+				dense[key] = null;
+				denseCount--;
+			}
+			return old;
+		}
+		return (sparse == null)? null : sparse.remove( key );
+	}
+
+	public int size(){
+		return denseCount + ((sparse == null)? 0 : sparse.size());
+	}
+
+	public boolean isEmpty(){
+		return size() == 0;
+	}
+
+	public void clear(){
+		Arrays.fill( dense, null );
+		denseCount = 0;
+		sparse = null;
+	}
+
+	/**Number of keys held in the array part of this map*/
+	public int denseSize(){
+		return denseCount;
+	}
+	/**Length of the array part of this map*/
+	public int capacity(){
+		return dense.length;
+	}
+}
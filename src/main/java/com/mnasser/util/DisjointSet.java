@@ -0,0 +1,80 @@
+package com.mnasser.util;
+
+import java.util.Arrays;
+
+/**
+ * Union-Find over the integers {@code 0..n-1}, kept in two flat arrays.
+ * </p>
+ * Union by size plus path halving on every {@code find()}, so any sequence of operations
+ * costs {@code O(alpha(n))} each, amortized. There are no objects per element, and
+ * {@code reset()} puts everything back in its own set without reallocating, which is what
+ * repeated randomized runs (ex: Karger's min cut) want.
+ * </p>
+ * Not thread safe.
+ *
+ * @author Moe
+ */
+public class DisjointSet {
+
+	private final int[] parent;
+	private final int[] size;    // members of each set. Only kept up to date on representatives
+	private int sets;
+
+	/**{@code n} elements, each in a set of its own*/
+	public DisjointSet(int n){
+		parent = new int[ n ];
+		size   = new int[ n ];
+		reset();
+	}
+
+	/**Puts every element back into a set of its own*/
+	public void reset(){
+		for( int ii = 0; ii < parent.length; ii++ )
+			parent[ii] = ii;
+		Arrays.fill( size, 1 );
+		sets = parent.length;
+	}
+
+	/**Representative (leader) of the set holding {@code x}*/
+	public int find(int x){
+		int[] p = parent;
+		while( p[x] != x ){
+			p[x] = p[ p[x] ]; // path halving
+			x = p[x];
+		}
+		return x;
+	}
+
+	/**Merges the sets holding {@code a} & {@code b}.
+	 * @return False if they were in the same set already*/
+	public boolean union(int a, int b){
+		int ra = find( a ), rb = find( b );
+		if( ra == rb ) return false;
+		if( size[ra] < size[rb] ){ // smaller set goes under the bigger one
+			int t = ra; ra = rb; rb = t;
+		}
+		parent[rb] = ra;
+		size[ra] += size[rb];
+		sets--;
+		return true;
+	}
+
+	public boolean connected(int a, int b){
+		return find( a ) == find( b );
+	}
+
+	/**Number of elements in the set holding {@code x}*/
+	public int sizeOf(int x){
+		return size[ find( x ) ];
+	}
+
+	/**Number of disjoint sets left*/
+	public int count(){
+		return sets;
+	}
+
+	/**Number of elements*/
+	public int size(){
+		return parent.length;
+	}
+}
@@ -0,0 +1,189 @@
+package com.mnasser.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import com.mnasser.util.Heap.HEAP;
+
+/**
+ * Binary heap of the int IDs {@code 0..capacity-1}, each with a primitive {@code long} priority
+ * ({@code int}s widen into it).
+ * </p>
+ * Unlike {@link Heap} it knows where every ID sits, so an ID's priority can be changed in place
+ * ({@code decreaseKey()}, {@code increaseKey()}) and any ID can be removed, each in
+ * {@code O(log n)}. Each ID is in the heap at most once, so algorithms which would otherwise push
+ * the same vertex again & again and throw away the stale copies (Prim, Dijkstra, Stoer-Wagner's
+ * maximum adjacency order) keep it at {@code O(n)} entries.
+ * </p>
+ * Everything lives in three parallel arrays : heap position to ID, ID to heap position (-1
+ * when absent) and ID to priority. Returns minimums by default, or maximums when created with
+ * {@code HEAP.MAX_HEAP}.
+ * </p>
+ * Not thread safe.
+ *
+ * @author Moe
+ */
+public class IndexedHeap {
+
+	private final int[]  heap;  // heap position -> id
+	private final int[]  pos;   // id -> heap position. -1 if not in the heap
+	private final long[] key;   // id -> priority
+	private final boolean returnMax;
+	private int size;
+
+	/**Min heap for the IDs {@code 0..capacity-1}*/
+	public IndexedHeap(int capacity){
+		this( capacity, HEAP.MIN_HEAP );
+	}
+	public IndexedHeap(int capacity, HEAP type){
+		heap = new int[ capacity ];
+		pos  = new int[ capacity ];
+		key  = new long[ capacity ];
+		returnMax = type.toBoolean();
+		Arrays.fill( pos, -1 );
+	}
+
+	public int size(){ return size; }
+	public boolean isEmpty(){ return size == 0; }
+	/**Largest ID this heap can take, plus one*/
+	public int capacity(){ return pos.length; }
+
+	public boolean contains(int id){
+		return pos[id] >= 0;
+	}
+
+	/**Priority of {@code id}. Also the last one it had if it has since been removed.*/
+	public long keyOf(int id){
+		return key[id];
+	}
+
+	/**Adds {@code id} with the given priority.
+	 * @throws RuntimeException if it is in the heap already*/
+	public void insert(int id, long priority){
+		if( pos[id] >= 0 ) throw new RuntimeException("ID " + id + " is already in the heap");
+		key[id]    = priority;
+		heap[size] = id;
+		pos[id]    = size;
+		up( size++ );
+	}
+
+	/**ID at the root (smallest priority, or largest for a max heap)*/
+	public int peek(){
+		if( size == 0 ) throw new NoSuchElementException("Heap is empty");
+		return heap[0];
+	}
+	/**Priority of the ID at the root*/
+	public long peekKey(){
+		return key[ peek() ];
+	}
+
+	/**Removes & returns the ID at the root*/
+	public int removeRoot(){
+		int root = peek();
+		removeAt( 0 );
+		return root;
+	}
+
+	/**Takes {@code id} out of the heap wherever it is.
+	 * @return False if it wasn't in the heap*/
+	public boolean remove(int id){
+		int at = pos[id];
+		if( at < 0 ) return false;
+		removeAt( at );
+		return true;
+	}
+
+	/**Lowers the priority of {@code id}, which must be in the heap.
+	 * @throws RuntimeException if {@code priority} is larger than its current one*/
+	public void decreaseKey(int id, long priority){
+		if( priority > key[ check( id ) ] )
+			throw new RuntimeException("Can't decrease key of " + id + " from " + key[id] + " to " + priority);
+		changeKey( id, priority );
+	}
+
+	/**Raises the priority of {@code id}, which must be in the heap.
+	 * @throws RuntimeException if {@code priority} is smaller than its current one*/
+	public void increaseKey(int id, long priority){
+		if( priority < key[ check( id ) ] )
+			throw new RuntimeException("Can't increase key of " + id + " from " + key[id] + " to " + priority);
+		changeKey( id, priority );
+	}
+
+	/**Sets the priority of {@code id}, which must be in the heap, whichever way it moves*/
+	public void changeKey(int id, long priority){
+		int at = pos[ check( id ) ];
+		long old = key[id];
+		key[id] = priority;
+		if( before( priority, old ) ) up( at ); else down( at );
+	}
+
+	/**Inserts {@code id}, or lowers its priority if it's already in with a larger one
+	 * (raises, for a max heap). Dijkstra & Prim's "relax" step.
+	 * @return True if {@code id} was inserted or its priority changed*/
+	public boolean offer(int id, long priority){
+		if( pos[id] < 0 ){
+			insert( id, priority );
+			return true;
+		}
+		if( ! before( priority, key[id] ) ) return false;
+		key[id] = priority;
+		up( pos[id] );
+		return true;
+	}
+
+	/**Empties the heap in {@code O(size)}*/
+	public void clear(){
+		for( int ii = 0; ii < size; ii++ ) pos[ heap[ii] ] = -1;
+		size = 0;
+	}
+
+	private int check(int id){
+		if( pos[id] < 0 ) throw new RuntimeException("ID " + id + " is not in the heap");
+		return id;
+	}
+
+	/**True if priority {@code a} belongs nearer the root than {@code b}*/
+	private boolean before(long a, long b){
+		return returnMax ? a > b : a < b;
+	}
+
+	private void removeAt(int at){
+		int id = heap[at];
+		pos[id] = -1;
+		if( at == --size ) return;
+		int last = heap[size];
+		heap[at] = last;
+		pos[last] = at;
+		if( at > 0 && before( key[last], key[ heap[ (at - 1) >>> 1 ] ] ) ) up( at ); else down( at );
+	}
+
+	private void up(int at){
+		int id = heap[at];
+		long k = key[id];
+		while( at > 0 ){
+			int p = (at - 1) >>> 1;
+			if( ! before( k, key[ heap[p] ] ) ) break;
+			heap[at] = heap[p];
+			pos[ heap[at] ] = at;
+			at = p;
+		}
+		heap[at] = id;
+		pos[id] = at;
+	}
+
+	private void down(int at){
+		int id = heap[at];
+		long k = key[id];
+		int half = size >>> 1;
+		while( at < half ){
+			int child = 2 * at + 1;
+			if( child + 1 < size && before( key[ heap[child+1] ], key[ heap[child] ] ) ) child++;
+			if( ! before( key[ heap[child] ], k ) ) break;
+			heap[at] = heap[child];
+			pos[ heap[at] ] = at;
+			at = child;
+		}
+		heap[at] = id;
+		pos[id] = at;
+	}
+}
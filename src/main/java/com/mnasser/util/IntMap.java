@@ -1,14 +1,25 @@
 package com.mnasser.util;
 
-import java.util.Arrays;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * A hash map that uses primitive {@code int}s as keys
  * to save on the overhead of working with Integer objects
+ * </p>
+ * Implemented as an open addressing table with linear probing.  Keys and values live
+ * in two parallel arrays (no entry objects) whose length is always a power of 2.  The table
+ * doubles once more than {@code loadFactor} of its slots are in use.  Removals shift
+ * the following entries of a probe run back into place, so there are no tombstones
+ * and look ups never slow down after lots of removes.
+ * </p>
+ * Like {@code HashMap}, this is not thread safe.
  *
  * @param <V> The type of Values to map to.
  * @author Moe
@@ -16,41 +27,49 @@ import java.util.stream.Collectors;
 @SuppressWarnings("rawtypes")
 public class IntMap<V> implements Map {
 
-	public IntMap(){}
-	public IntMap(int initialCapacity){
-		bucketSize = 4;
-		bucketCount = initialCapacity / bucketSize;
-		if ( bucketCount < 32 ) bucketCount = 32;
-		_init();
+	public static final int   DEFAULT_CAPACITY    = 32;
+	public static final float DEFAULT_LOAD_FACTOR = 0.6f;
+
+	public IntMap(){
+		this( DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR );
 	}
-	public IntMap(int bucketSize, int bucketCount){
-		this.bucketCount = (bucketCount < 2)? 2 : bucketCount;
-		this.bucketSize = (bucketSize < 2)? 2 : bucketSize;
-		_init();
+	/**Creates a map which can hold {@code expectedSize} entries before needing to resize*/
+	public IntMap(int expectedSize){
+		this( (int) Math.ceil( expectedSize / DEFAULT_LOAD_FACTOR ), DEFAULT_LOAD_FACTOR );
 	}
-	
-	@SuppressWarnings("unchecked")
-	private void _init(){
-		slots = bucketCount * bucketSize;
-		bucketUsage = new int[bucketCount];
-		buckets = new Entry[slots];
+	public IntMap(int initialCapacity, float loadFactor){
+		if( loadFactor <= 0 || loadFactor >= 1 )
+			throw new IllegalArgumentException("Load factor must be in (0,1) : " + loadFactor);
+		this.loadFactor = loadFactor;
+		_init( tableSizeFor( initialCapacity ) );
 	}
 	
+	private final float loadFactor;
+
+	// our actual backing arrays. slot i holds keys[i] -> values[i] iff used[i]
+	private int[]     keys;
+	private Object[]  values;
+	private boolean[] used;
+
+	private int mask;       // slots - 1
+	private int threshold;  // resize once we hold more than this many entries
+	private int entries = 0;  // current entries into this map
+
+	private void _init(int slots){
+		keys   = new int[ slots ];
+		values = new Object[ slots ];
+		used   = new boolean[ slots ];
+		mask   = slots - 1;
+		threshold = Math.min( slots - 1, (int) (slots * loadFactor) );
+	}
 	
-	private int bucketSize  = 4; // size of each bucket
-	private int bucketCount = 32; // total number of buckets
-	private int slots = bucketSize * bucketCount;
-	
-	@SuppressWarnings("unchecked")
-	// our actual backing array where we throw things into  
-	// notice, it's not actual buckets - rather a range of entries in an array
-	private Entry<V>[] buckets = new Entry[ slots ];
-	
-	// how many entries in each bucket have been used
-	private int[] bucketUsage = new int[bucketCount];
-	private int entries = 0;  // current entries into this map 
+	/**Smallest power of 2 which is >= {@code cap} (and at least 2)*/
+	private static int tableSizeFor(int cap){
+		int n = Integer.highestOneBit( Math.max( 2, cap - 1 ) ) << 1;
+		if( n <= 0 ) throw new IllegalArgumentException("Capacity too large : " + cap);
+		return n;
+	}
 	
-	@SuppressWarnings({"unchecked"})
 	public static class Entry<V>{
 		final int key;
 		final V value; // optional parameterized value to hold
@@ -62,15 +81,22 @@ public class IntMap<V> implements Map {
 			return key == other;
 		}
 		
+		@Override
+		@SuppressWarnings({"unchecked"})
 		public boolean equals(Object obj) {
 			if( this == obj ) return true;
 			if( obj instanceof Entry<?> ){
 				Entry<V> e = (Entry<V>)obj;
 				if (this.key  != e.key ) return false;
-				if (this.value != null ) return this.value.equals(e.value);
+				return (this.value == null) ? e.value == null : this.value.equals(e.value);
 			}
 			return false;
 		}
+
+		@Override
+		public int hashCode() {
+			return key * 31 + ((value == null)? 0 : value.hashCode());
+		}
 		
 		@Override
 		public String toString(){
@@ -78,79 +104,55 @@ public class IntMap<V> implements Map {
 		}
 	}
 	
-	// figures out which 'bucket' this key would hash into
-	private int bucket(int key){
-		int mod = key % bucketCount;
-		if ( mod < 0 ) mod = mod + bucketCount; // corrected modulus
-		return mod;
+	// figures out which slot this key would ideally land on.
+	// Fibonacci hashing spreads runs of sequential IDs across the whole table
+	private int slot(int key){
+		int h = key * 0x9E3779B9;
+		return ( h ^ (h >>> 16) ) & mask;
 	}
 	
-	public V put( int key , V value ){
-		V val = null;
-		while( (val = _addEntry( buckets, bucket( key ), new Entry<V>(key , value) )) == null ){
-			resize();
+	/**Returns the slot holding {@code key}, or -1 if it isn't in this map*/
+	private int find(int key){
+		for( int ii = slot(key); used[ii]; ii = (ii + 1) & mask ){
+			if( keys[ii] == key )
+				return ii;
 		}
-		return val;
+		return -1;
 	}
 	
-	/**Enters the given entry into the given bucket array.
-	 * @return The entry value that was added or the previous value if 
-	 * this key is being over written.  Null if there was no room in this bucket.*/
-	private V _addEntry(Entry<V>[] buckets, int bucket, Entry<V> entry){
-		int start = bucket * bucketSize; // first slot available 
-		for( int ii = start, end = start+bucketSize ; ii < end; ii++){
-			if( buckets[ii] == null ){
-				buckets[ii] = entry;
-				entries ++;
-				bucketUsage[bucket] ++;
-				return entry.value;
-			}else{
-				if( buckets[ii].key == entry.key ){ // replace an old value
-					V old = buckets[ii].value;
-					buckets[ii] = entry;
-					return old;
-				}
+	/**Maps {@code key} to {@code value}.
+	 * @return The previous value for this key. Null if there was none.*/
+	@SuppressWarnings("unchecked")
+	public V put( int key , V value ){
+		int ii = slot( key );
+		for( ; used[ii]; ii = (ii + 1) & mask ){
+			if( keys[ii] == key ){ // replace an old value
+				V old = (V) values[ii];
+				values[ii] = value;
+				return old;
 			}
 		}
+		keys[ii]   = key;
+		values[ii] = value;
+		used[ii]   = true;
+		if( ++entries > threshold )
+			resize();
 		return null;
 	}
 	
-	@SuppressWarnings("unchecked")
-	private synchronized boolean resize(){
-		this.bucketCount = this.bucketCount * 4; // more buckets
-		this.slots = bucketCount * bucketSize;   // more slots 
-		this.bucketUsage = new int[bucketCount]; 
-		this.entries = 0; //start over
-		// start filling new bucket area
-		Entry<V>[] newBuckets = new Entry[ slots ];
-		boolean success = true ;
-		for( Entry<V> e : buckets ){
-			if ( e != null ) {
-				if ( _addEntry( newBuckets,  bucket(e.key), e ) == null ){
-					// couldn't add entry even after a resize? 
-					// fail
-					newBuckets = null;
-					success = false;
-					break;
-				}
-			}
+	private void resize(){
+		int[]     oldKeys   = keys;
+		Object[]  oldValues = values;
+		boolean[] oldUsed   = used;
+		_init( keys.length * 2 );
+		for( int ii = 0; ii < oldKeys.length; ii++ ){
+			if( ! oldUsed[ii] ) continue;
+			int jj = slot( oldKeys[ii] );
+			while( used[jj] ) jj = (jj + 1) & mask;
+			keys[jj]   = oldKeys[ii];
+			values[jj] = oldValues[ii];
+			used[jj]   = true;
 		}
-		
-		if( success && ! needsMoreRoom() ){
-			this.buckets = null;
-			this.buckets = newBuckets;
-			//System.out.println(" IntMap resized! New capacity : " + slots);
-			return true;
-		}
-		return resize(); // do it again until we actually fit everything
-	}
-	/**Returns true if any of our buckets are already at capacity*/
-	private boolean needsMoreRoom(){
-		for( int usage : bucketUsage ){
-			if ( usage >= bucketSize )
-				return true; // we already don't have room.
-		}
-		return false;
 	}
 
 	@Override
@@ -163,8 +165,9 @@ public class IntMap<V> implements Map {
 		return entries == 0;
 	}
 
+	/**Number of slots in the backing table*/
 	public int capacity(){
-		return slots;
+		return keys.length;
 	}
 	
 	@Override
@@ -172,58 +175,61 @@ public class IntMap<V> implements Map {
 		throw new RuntimeException("Unsupported Method! Use containsKey(int k) instead.");
 	}
 	public boolean containsKey( int key ){
-		int bucket = bucket( key );
-		if ( bucketUsage[bucket] == 0 ) return false; // we have nothing here
-		for( int ii = bucket*bucketSize, len = ii + bucketSize; ii < len; ii ++ ){
-			if( buckets[ii].key == key  )
-				return true;
-		}
-		return false;
+		return find( key ) >= 0;
 	}
 
 	@Override
 	public boolean containsValue(Object value) {
-		// TODO: can implement in O(n) time
-		throw new RuntimeException("Unsupported Method!");
+		for( int ii = 0; ii < keys.length; ii++ ){
+			if( used[ii] && (value == null ? values[ii] == null : value.equals( values[ii] )) )
+				return true;
+		}
+		return false;
 	}
 
 	@Override
 	public Object get(Object key) {
 		throw new RuntimeException("Unsupported Method! Use get(int k) instead.");
 	}
+	@SuppressWarnings("unchecked")
 	public V get(int key){
-		int bucket = bucket( key );
-		if ( bucketUsage[bucket] == 0 ) return null; // we have nothing here
-		for( int ii = bucket*bucketSize, len = ii + bucketSize; ii < len; ii ++ ){
-			if( buckets[ii] != null && buckets[ii].key == key  )
-				return buckets[ii].value;
+		for( int ii = slot(key); used[ii]; ii = (ii + 1) & mask ){
+			if( keys[ii] == key )
+				return (V) values[ii];
 		}
 		return null;
 	}
 
 	@Override
 	public Object put(Object key, Object value) {
-		throw new RuntimeException("Unsupported Method! Use get(int k) instead.");
+		throw new RuntimeException("Unsupported Method! Use put(int k, V value) instead.");
 	}
 
 	@Override
 	public Object remove(Object key) {
 		throw new RuntimeException("Unsupported Method! Use remove(int key) instead.");
 	}
+	@SuppressWarnings("unchecked")
 	public V remove(int key){
-		int bucket = bucket( key );
-		if ( bucketUsage[bucket] == 0 ) return null; // we have nothing here
-		for( int ii = bucket*bucketSize, len = ii + bucketSize; ii < len; ii ++ ){
-			if( buckets[ii].key == key  ){
-				Entry<V> e = buckets[ii];
-				buckets[ii] = null;
-				bucketUsage[bucket]--;
-				entries --;
-				return e.value;
+		int ii = find( key );
+		if( ii < 0 ) return null;
+		V old = (V) values[ii];
+
+		// backward shift : pull later members of this probe run into the hole
+		// if the hole sits between their home slot and where they are now
+		int hole = ii;
+		for( int jj = (hole + 1) & mask; used[jj]; jj = (jj + 1) & mask ){
+			int home = slot( keys[jj] );
+			if( ((jj - home) & mask) >= ((jj - hole) & mask) ){
+				keys[hole]   = keys[jj];
+				values[hole] = values[jj];
+				hole = jj;
 			}
 		}
-		return null;
-		
+		used[hole]   = false;
+		values[hole] = null;
+		entries --;
+		return old;
 	}
 
 	@Override
@@ -232,36 +238,67 @@ public class IntMap<V> implements Map {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
-	public synchronized void clear() {
-		buckets = null;
+	public void clear() {
+		for( int ii = 0; ii < keys.length; ii++ ){
+			used[ii]   = false;
+			values[ii] = null;
+		}
 		entries = 0;
-		bucketUsage = new int[bucketCount];
-		buckets = new Entry[ slots ];
 	}
 
+	/**Returns a new array with every key in this map. No boxing.*/
+	public int[] keys(){
+		int[] ks = new int[ entries ];
+		for( int ii = 0, k = 0; ii < keys.length; ii++ )
+			if( used[ii] ) ks[k++] = keys[ii];
+		return ks;
+	}
+
+	/**Note this will auto-box every key. See {@code keys()}*/
 	@Override
 	public Set keySet() {
-		return Arrays.stream( buckets )
-				.filter( b -> b != null )
-				.map( b -> b.key )
-				.collect( Collectors.toSet() );
+		Set<Integer> ks = new HashSet<Integer>( entries * 2 );
+		for( int k : keys() ) ks.add( k );
+		return ks;
 	}
 
 	@Override
 	public Collection<V> values() {
-		return Arrays.stream( buckets )
-				.filter( b -> b != null )
-				.map( b -> b.value )
-				.collect( Collectors.toList() ); // might hurt resources if extremely large 
+		return new AbstractCollection<V>() {
+			@Override public Iterator<V> iterator() { return new SlotIterator<V>(){
+				@Override @SuppressWarnings("unchecked") V at(int ii) { return (V) values[ii]; }
+			}; }
+			@Override public int size() { return entries; }
+		};
 	}
 
 	@Override
 	public Set<Entry<V>> entrySet() {
-		return Arrays.stream( buckets )
-				.filter( e -> e != null )
-				.collect( Collectors.toSet() );
+		return new AbstractSet<Entry<V>>() {
+			@Override public Iterator<Entry<V>> iterator() { return new SlotIterator<Entry<V>>(){
+				@Override @SuppressWarnings("unchecked") Entry<V> at(int ii) { return new Entry<V>( keys[ii], (V) values[ii] ); }
+			}; }
+			@Override public int size() { return entries; }
+		};
 	}
 	
+	/**Walks the used slots of the table*/
+	private abstract class SlotIterator<T> implements Iterator<T> {
+		private int next = advance( 0 );
+
+		private int advance(int from){
+			while( from < used.length && ! used[from] ) from++;
+			return from;
+		}
+		abstract T at(int slot);
+
+		@Override public boolean hasNext() { return next < used.length; }
+		@Override public T next() {
+			if( ! hasNext() ) throw new NoSuchElementException();
+			T t = at( next );
+			next = advance( next + 1 );
+			return t;
+		}
+	}
 	
 }
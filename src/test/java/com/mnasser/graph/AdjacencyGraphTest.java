@@ -1,5 +1,7 @@
 package com.mnasser.graph;
 
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -159,4 +161,141 @@ public class AdjacencyGraphTest {
 		Assert.assertEquals( e, g.getVertex(b).getEdge(a) );
 		Assert.assertTrue( g.getVertex(b).hasNeighbor(a) );
 	}
+	
+	@Test
+	public void testBuilder() throws Exception {
+		AdjacencyListGraph.Builder<String> b = new AdjacencyListGraph.Builder<String>();
+		b.addVertex( 7 )                 // lonely
+		 .addEdge( 1, 2, 5 )
+		 .addEdge( 2, 1, 9 )              // same edge, other way round
+		 .addEdges( new int[]{ 2, 3, 1 }, new int[]{ 3, 4, 2 }, null, 0, 3 )
+		 .addEdge( 4, 4 );
+		Assert.assertEquals( 6, b.getEdgeCount() );
+		
+		AdjacencyListGraph<String> g = b.build();
+		Assert.assertEquals( 4, b.getEdgeCount() );
+		Assert.assertEquals( 5, g.getVertexCount() );
+		Assert.assertEquals( 4, g.getEdgeCount() );
+		Assert.assertEquals( 5, g.getEdge( 1, 2 ).cost() ); // first one wins
+		Assert.assertTrue( g.hasEdge( 3, 2 ) );
+		Assert.assertTrue( g.hasEdge( 4, 4 ) );
+		Assert.assertTrue( g.getVertex( 7 ).edges.isEmpty() );
+		Assert.assertEquals( 7, g.getVertices().get(0).id );
+		Assert.assertEquals( 2, g.getVertex( 2 ).edges.size() );
+		Assert.assertFalse( g.isDirected() );
+		
+		// same input, directed : 2->1 is a different edge than 1->2
+		AdjacencyListGraph.Builder<String> d = new AdjacencyListGraph.Builder<String>( true );
+		d.addEdge( 1, 2 ).addEdge( 2, 1 ).addEdge( 1, 2, 3 );
+		g = d.build();
+		Assert.assertTrue( g instanceof DirectedGraph );
+		Assert.assertEquals( 2, g.getEdgeCount() );
+		Assert.assertEquals( 1, g.getVertex( 1 ).getOutBound().size() );
+		
+		// edges with elements, merged from two builders
+		Graph<String> h = new AdjacencyListGraph<String>();
+		h.addEdge( "a", "b", 1 );
+		h.addEdge( "b", "c", 2 );
+		AdjacencyListGraph.Builder<String> b1 = new AdjacencyListGraph.Builder<String>(), 
+				b2 = new AdjacencyListGraph.Builder<String>();
+		b1.addEdges( h.getEdges() );
+		b2.addEdges( h.getEdges().toArray( new Edge[0] ) );
+		g = b1.addAll( b2 ).build();
+		Assert.assertEquals( 2, g.getEdgeCount() );
+		Assert.assertEquals( "c", g.getVertex( h.getVertex("c").id ).element );
+		Assert.assertTrue( g.hasEdge( "a", "b" ) );
+		Assert.assertEquals( h.toMatrixString(), g.toMatrixString() );
+	}
+	
+	@Test(expected=AdjacencyListGraph.BadVertexAddition.class)
+	public void testBuilderConflictingElements() throws Exception {
+		new AdjacencyListGraph.Builder<String>().addVertex( 1, "a" ).addVertex( 1, "b" );
+	}
+	
+	/**A hub well past the index threshold, with parallel edges, a self loop & removals,
+	 * checked against plain scans of its edge list*/
+	@Test
+	public void testNeighborIndex() throws Exception {
+		AdjacencyListGraph<Void> g = new AdjacencyListGraph<Void>();
+		int N = NeighborIndex.MIN_DEGREE * 4;
+		for( int ii = 2; ii <= N; ii++ )
+			g.addEdge( 1, ii, ii );
+		g.addEdge( 5, 1, 55 );  // parallel, other way round
+		g.addEdge( 1, 5, 555 );
+		g.addEdge( 1, 1 );      // self loop
+		Vertex<Void> hub = g.getVertex( 1 );
+		
+		Assert.assertNotNull( hub.index() );
+		Assert.assertEquals( 5, hub.getEdge( g.getVertex(5) ).cost() );
+		Assert.assertEquals( 3, hub.numEdges( g.getVertex(5) ) );
+		Assert.assertEquals( 2, hub.numEdges( hub ) );
+		Assert.assertTrue( g.hasEdge( 1, 1 ) );
+		Assert.assertTrue( g.hasEdge( new Edge<Void>( new Vertex<Void>(N), new Vertex<Void>(1) ) ) );
+		Assert.assertFalse( g.hasEdge( 1, N + 1 ) );
+		
+		g.removeEdge( g.getEdge( 1, 5 ) );
+		Assert.assertEquals( 55, hub.getEdge( g.getVertex(5) ).cost() );
+		g.removeEdge( g.getEdge( 1, 1 ) );
+		Assert.assertFalse( g.hasEdge( 1, 1 ) );
+		g.removeVertex( g.getVertex(7) );
+		Assert.assertFalse( hub.hasNeighbor( new Vertex<Void>(7) ) );
+		g.addEdge( 1, 7, 77 );
+		Assert.assertEquals( 77, g.getEdge( 7, 1 ).cost() );
+		
+		// every answer agrees with scanning the list
+		for( int ii = 0; ii <= N + 1; ii++ ){
+			Vertex<Void> b = new Vertex<Void>( ii );
+			int count = 0;
+			Edge<Void> first = null;
+			for( Edge<Void> e : hub.edges )
+				if( b.equals( e.otherSide( hub ) ) ){
+					count++;
+					if( first == null ) first = e;
+				}
+			Assert.assertEquals( count, hub.numEdges( b ) );
+			if( count == 1 ) Assert.assertSame( first, hub.getEdge( b ) );
+			else if( count > 1 ) Assert.assertEquals( first, hub.getEdge( b ) ); // removals reorder parallel edges
+			Assert.assertEquals( count > 0, hub.hasNeighbor( b ) );
+		}
+		
+		// directed : only edges leaving the hub count as out edges
+		DirectedGraph<Void> d = new DirectedGraph<Void>();
+		for( int ii = 2; ii <= N; ii++ )
+			d.addEdge( ii, 1 );
+		d.addEdge( 1, 3 );
+		Assert.assertNotNull( d.getVertex(1).index() );
+		Assert.assertTrue( d.hasEdge( 1, 3 ) );
+		Assert.assertFalse( d.hasEdge( 1, 2 ) );
+		Assert.assertTrue( d.hasEdge( 2, 1 ) );
+	}
+	
+	/**Every edge's remembered positions still point at it after lots of swap removals*/
+	@Test
+	public void testRemoveEdgePositions() throws Exception {
+		java.util.Random r = new java.util.Random( 8 );
+		for( AdjacencyListGraph<Void> g : new AdjacencyListGraph[]{ new AdjacencyListGraph<Void>(), new DirectedGraph<Void>() } ){
+			for( int ii = 0; ii < 2_000; ii++ )
+				g.addEdge( r.nextInt( 50 ), r.nextInt( 50 ) ); // plenty of parallel edges & self loops
+			for( int ii = 0; ii < 1_000 && g.getEdgeCount() > 0; ii++ ){
+				List<Edge<Void>> es = g.getEdges();
+				Edge<Void> e = es.get( r.nextInt( es.size() ) );
+				g.removeEdge( ii % 2 == 0 ? e : new Edge<Void>( e.src, e.dst ) ); // ours, or just an equal one
+				if( ii % 250 == 0 ) g.removeVertex( g.getVertices().get( r.nextInt( g.getVertexCount() ) ) );
+			}
+			int ends = 0;
+			for( int ii = 0; ii < g.getEdgeCount(); ii++ ){
+				Edge<Void> e = g.getEdges().get( ii );
+				Assert.assertEquals( ii, e.slot );
+				Assert.assertSame( e, e.src.edges.get( e.srcPos ) );
+				Assert.assertSame( e, e.dst.edges.get( e.dstPos ) );
+				if( e.isSelfLoop() ) Assert.assertTrue( e.srcPos != e.dstPos );
+				if( g.isDirected() ){
+					Assert.assertSame( e, e.src.outEdges.get( e.outPos ) );
+					Assert.assertSame( e, e.dst.inEdges.get( e.inPos ) );
+				}
+			}
+			for( Vertex<Void> v : g.getVertices() ) ends += v.edges.size();
+			Assert.assertEquals( 2 * g.getEdgeCount(), ends );
+		}
+	}
 }
@@ -0,0 +1,71 @@
+package com.mnasser.graph;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mnasser.graph.Graph.Edge;
+
+public class BoruvkaMSTTest {
+
+	/**{@code n} vertices on a path (so it's connected) plus {@code extra} random edges, costs in [-1000,1000)*/
+	static Graph<Void> randomWeighted(int n, int extra, long seed){
+		Random r = new Random( seed );
+		AdjacencyListGraph.Builder<Void> b = new AdjacencyListGraph.Builder<Void>();
+		for( int ii = 1; ii < n; ii++ )
+			b.addEdge( ii, ii + 1, r.nextInt( 2000 ) - 1000 );
+		for( int ii = 0; ii < extra; ii++ ){
+			int x = r.nextInt( n ) + 1, y = r.nextInt( n ) + 1;
+			if( x != y ) b.addEdge( x, y, r.nextInt( 2000 ) - 1000 );
+		}
+		return b.build();
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testBoruvka() throws Exception {
+		Graph G = KruskalMSTTest.loadTestGraph("edges_graph.txt");
+		long expected = 0;
+		for( Edge e : (List<Edge>) PrimMST.findMSTNaive( G ).getEdges() )
+			expected += e.cost();
+
+		SpanningTree T = BoruvkaMST.findMST( G, new ForkJoinPool( 4 ) );
+		Assert.assertEquals( expected, T.getTotalCost() );
+		Assert.assertEquals( 499, T.getEdgeCount() );
+		Assert.assertTrue( T.isSpanning() );
+
+		// lots of equal costs : ties must not make a cycle
+		Graph<Void> ties = new AdjacencyListGraph<Void>();
+		for( int a = 1; a <= 30; a++ )
+			for( int b = a + 1; b <= 30; b++ )
+				ties.addEdge( a, b, 7 );
+		T = BoruvkaMST.findMST( ties );
+		Assert.assertEquals( 29, T.getEdgeCount() );
+		Assert.assertEquals( 29 * 7, T.getTotalCost() );
+
+		// forest, directed edges & parallel edges
+		DirectedGraph<Void> d = new DirectedGraph<Void>();
+		d.addEdge( 1, 2, 5 ); d.addEdge( 2, 1, 3 ); d.addEdge( 2, 3, 1 ); d.addEdge( 3, 1, 9 );
+		d.addEdge( 10, 11, 0 );
+		T = BoruvkaMST.findMST( d );
+		Assert.assertEquals( 2, T.getTreeCount() );
+		Assert.assertEquals( 3 + 1 + 0, T.getTotalCost() );
+		Assert.assertEquals( 3, T.getCost( T.getParent( 1 ) == 1 ? 2 : 1 ) );
+	}
+
+	@Test
+	public void testAgainstPrim(){
+		for( int seed = 0; seed < 5; seed++ ){
+			Graph<Void> g = randomWeighted( 3_000, 20_000, seed );
+			Assert.assertEquals( PrimMST.findMST( g ).getTotalCost(), BoruvkaMST.findMST( g ).getTotalCost() );
+		}
+	}
+
+	@Test(expected=RuntimeException.class)
+	public void testCycle(){
+		SpanningTree.fromEdges( new int[]{ 1, 2, 3 }, new int[]{ 0, 1, 2 }, new int[]{ 1, 2, 0 }, new int[]{ 1, 1, 1 }, 3 );
+	}
+}
@@ -0,0 +1,144 @@
+package com.mnasser.graph;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mnasser.graph.Graph.Edge;
+import com.mnasser.graph.Graph.Vertex;
+import com.mnasser.graph.StronglyConnectedComponents.CountingMap;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class CsrGraphTest {
+
+	static Graph smallGraph(){
+		Graph G = Graph.getInstance();
+		G.addEdge( new Edge( new Vertex(1), new Vertex(2) , 1) );
+		G.addEdge( new Edge( new Vertex(1), new Vertex(3) , 5) );
+		G.addEdge( new Edge( new Vertex(1), new Vertex(4) , 3) );
+		G.addEdge( new Edge( new Vertex(1), new Vertex(5) , 4) );
+		G.addEdge( new Edge( new Vertex(2), new Vertex(3) , 7) );
+		G.addEdge( new Edge( new Vertex(3), new Vertex(4) , 6) );
+		G.addEdge( new Edge( new Vertex(4), new Vertex(5) , 2) );
+		return G;
+	}
+
+	static DirectedGraph sccGraph(){
+		DirectedGraph g = new DirectedGraph();
+		g.addEdge(  new Vertex(7) , new Vertex(1) );
+		g.addEdge(  new Vertex(4) , new Vertex(7) );
+		g.addEdge(  new Vertex(1) , new Vertex(4) );
+		g.addEdge(  new Vertex(9) , new Vertex(7) );
+		g.addEdge(  new Vertex(6) , new Vertex(9) );
+		g.addEdge(  new Vertex(3) , new Vertex(6) );
+		g.addEdge(  new Vertex(9) , new Vertex(3) );
+		g.addEdge(  new Vertex(8) , new Vertex(6) );
+		g.addEdge(  new Vertex(2) , new Vertex(8) );
+		g.addEdge(  new Vertex(5) , new Vertex(2) );
+		g.addEdge(  new Vertex(8) , new Vertex(5) );
+		return g;
+	}
+
+	static long totalCost(Graph T){
+		long total = 0;
+		for( Edge e : (List<Edge>) T.getEdges() )
+			total += e.cost();
+		return total;
+	}
+
+	@Test
+	public void testFreeze(){
+		Graph G = smallGraph();
+		CsrGraph C = CsrGraph.freeze( G );
+
+		Assert.assertEquals( 5, C.getVertexCount() );
+		Assert.assertEquals( 7, C.getEdgeCount() );
+		Assert.assertEquals( 7, C.getEdges().size() );
+		Assert.assertFalse( C.isDirected() );
+		Assert.assertFalse( C.hasDisjointNodes() );
+
+		Assert.assertTrue( C.hasVertex(3) );
+		Assert.assertFalse( C.hasVertex(6) );
+		Assert.assertNull( C.getVertex(6) );
+		Assert.assertEquals( new Vertex(3), C.getVertex(3) );
+		Assert.assertTrue( C.getVertex(3) == C.getVertex(3) ); // same handle every time
+
+		Assert.assertTrue( C.hasEdge(1, 2) );
+		Assert.assertTrue( C.hasEdge(2, 1) ); // undirected
+		Assert.assertFalse( C.hasEdge(2, 5) );
+		Assert.assertTrue( C.hasEdge( new Edge( new Vertex(4), new Vertex(3) ) ) );
+		Assert.assertEquals( 6, C.getEdge(4, 3).cost() );
+		Assert.assertNull( C.getEdge(2, 4) );
+
+		Vertex one = C.getVertex(1);
+		Assert.assertEquals( 4, one.getEdges().size() );
+		Assert.assertTrue( one.hasNeighbor( C.getVertex(5) ) );
+		Assert.assertEquals( 1, one.numEdges( C.getVertex(5) ) );
+		Assert.assertEquals( G.toMatrixString(), C.toMatrixString() );
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testImmutable(){
+		CsrGraph.freeze( smallGraph() ).addEdge( 1, 5 );
+	}
+
+	@Test
+	public void testParameterized(){
+		Graph<String> G = Graph.getInstance();
+		G.addEdge( "john", "sally", 1 );
+		G.addEdge( "moe", "shmoe", 1 );
+		G.addEdge( "john", "moe", 10 );
+
+		CsrGraph<String> C = CsrGraph.freeze( G );
+		Assert.assertTrue( C.hasVertex("moe") );
+		Assert.assertTrue( C.hasEdge("john", "moe") );
+		Assert.assertFalse( C.hasEdge("sally", "moe") );
+		Assert.assertEquals( "sally", C.getVertex( G.getVertex("sally").id ).element );
+	}
+
+	@Test
+	public void testDirected(){
+		DirectedGraph g = sccGraph();
+		CsrGraph C = CsrGraph.freeze( g );
+
+		Assert.assertTrue( C.isDirected() );
+		Assert.assertEquals( g.getEdgeCount(), C.getEdgeCount() );
+		Assert.assertTrue( C.hasEdge(7, 1) );
+		Assert.assertFalse( C.hasEdge(1, 7) );
+
+		Vertex nine = C.getVertex(9);
+		Assert.assertEquals( 2, nine.getOutBound().size() );
+		Assert.assertEquals( 1, nine.getInBound().size() );
+		Assert.assertEquals( 3, nine.getEdges().size() );
+	}
+
+	@Test
+	public void testAlgorithmsOnFrozenGraph() throws IOException, URISyntaxException{
+		// SCC
+		CountingMap expected = StronglyConnectedComponents.doSCC( sccGraph() );
+		CountingMap actual   = StronglyConnectedComponents.doSCC( CsrGraph.freeze( sccGraph() ) );
+		Assert.assertEquals( expected, actual );
+		Assert.assertEquals( Integer.valueOf(3), actual.get(3) );
+
+		// DFS
+		CsrGraph C = CsrGraph.freeze( sccGraph() );
+		DFS.RunningTotal rt = new DFS.RunningTotal();
+		DFS.traverseDFS( C.getVertex(9), null, false, rt );
+		Assert.assertEquals( 6, rt.getSize() ); // 9 -> 3 -> 6 -> 9 & 9 -> 7 -> 1 -> 4
+
+		// MSTs
+		Graph G = KruskalMSTTest.loadTestGraph("edges_graph.txt");
+		long cost = totalCost( KruskalMST.findMSTNaive( G ) );
+
+		Graph T = KruskalMST.findMSTNaive( CsrGraph.freeze( G ) );
+		Assert.assertEquals( G.getVertexCount() - 1, T.getEdgeCount() );
+		Assert.assertEquals( cost, totalCost( T ) );
+
+		T = PrimMST.findMSTNaive( CsrGraph.freeze( G ) );
+		Assert.assertEquals( G.getVertexCount() - 1, T.getEdgeCount() );
+		Assert.assertEquals( cost, totalCost( T ) );
+	}
+}
@@ -1,12 +1,18 @@
 package com.mnasser.graph;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.mnasser.graph.Graph.Edge;
 import com.mnasser.graph.Graph.Vertex;
+import com.mnasser.graph.StronglyConnectedComponents.CountingMap;
 
 public class DFSTest {
 
@@ -36,9 +42,128 @@ public class DFSTest {
 		System.out.println("=========TRAVERSING======");
 		for( Vertex v : (List<Vertex>) g.getVertices() ) {
 			System.out.println("\nStarting at " + v);
-			g.clearVisited();
 			DFS.traverseDFS( v );
 		}
 		
 	}
+	
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testTraversalContext(){
+		DirectedGraph g = CsrGraphTest.sccGraph();
+		TraversalContext ctx = new TraversalContext( g );
+		
+		DFS.RunningTotal rt = new DFS.RunningTotal();
+		DFS.traverseDFS( g.getVertex(9), null, false, rt, ctx );
+		Assert.assertEquals( 6, rt.getSize() );
+		Assert.assertTrue( ctx.isVisited( g.getVertex(1) ) );
+		Assert.assertFalse( ctx.isVisited( g.getVertex(8) ) );
+		
+		// same context : the already walked part isn't walked again 
+		rt = new DFS.RunningTotal();
+		DFS.traverseDFS( g.getVertex(8), null, false, rt, ctx );
+		Assert.assertEquals( 3, rt.getSize() ); // 8, 5, 2
+		
+		ctx.reset();
+		Assert.assertFalse( ctx.isVisited( g.getVertex(1) ) );
+		rt = new DFS.RunningTotal();
+		DFS.traverseDFS( g.getVertex(8), null, false, rt, ctx );
+		Assert.assertEquals( 9, rt.getSize() );
+	}
+	
+	/**Calls sharing a {@code FinishingOrder} share its visited marks, as Kosaraju's first pass needs*/
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testFinishingOrderKeepsVisits(){
+		DirectedGraph g = CsrGraphTest.sccGraph();
+		DFS.FinishingOrder fo = new DFS.FinishingOrder();
+		
+		DFS.RunningTotal rt = new DFS.RunningTotal();
+		DFS.traverseDFS( g.getVertex(9), fo, false, rt );
+		Assert.assertEquals( 6, rt.getSize() );
+		rt = new DFS.RunningTotal();
+		DFS.traverseDFS( g.getVertex(8), fo, false, rt );
+		Assert.assertEquals( 3, rt.getSize() );  // 8, 5, 2 : the rest was walked already
+		Assert.assertEquals( 9, fo.getCurrentOrder() );
+		
+		// no FinishingOrder : each call starts afresh
+		rt = new DFS.RunningTotal();
+		DFS.traverseDFS( g.getVertex(8), null, false, rt );
+		Assert.assertEquals( 9, rt.getSize() );
+	}
+	
+	@Test
+	public void testConcurrentSCC() throws Exception {
+		DirectedGraph<Void> g = randomDirectedGraph( 50_000, 2 );
+		CountingMap expected = StronglyConnectedComponents.doSCC( g );
+		
+		// several SCC runs sharing one graph, each with its own context
+		List<Future<CountingMap>> results = new ArrayList<>();
+		ExecutorService pool = Executors.newFixedThreadPool( 4 );
+		for( int ii = 0; ii < 8; ii++ )
+			results.add( pool.submit( () -> StronglyConnectedComponents.doSCC( g, new TraversalContext( g ) ) ) );
+		for( Future<CountingMap> f : results )
+			Assert.assertEquals( expected, f.get() );
+		pool.shutdown();
+	}
+	
+	static DirectedGraph<Void> randomDirectedGraph(int n, int outDegree){
+		Random r = new Random(42);
+		DirectedGraph<Void> g = new DirectedGraph<Void>(n);
+		for( int ii = 1; ii <= n; ii++ )
+			for( int jj = 0; jj < outDegree; jj++ )
+				g.addEdge( ii, r.nextInt(n) + 1 );
+		return g;
+	}
+	
+	/**A directed vertex which can't hand out edge lists, to prove the traversals never ask for one*/
+	static class ListlessVertex extends Vertex<Void> {
+		ListlessVertex(int id, int slot){
+			super( id );
+			this.slot = slot;
+			this.directed = true;
+			this.outEdges = new ArrayList<Edge<Void>>();
+			this.inEdges  = new ArrayList<Edge<Void>>();
+		}
+		@Override
+		List<Edge<Void>> getOutBound(){
+			throw new AssertionError("getOutBound() called on " + id);
+		}
+		@Override
+		List<Edge<Void>> getInBound(){
+			throw new AssertionError("getInBound() called on " + id);
+		}
+	}
+	
+	/**Traversals walk neighbors in place with the visitors, rather than through
+	 * {@code getOutBound()}/{@code getInBound()} which build a list per vertex*/
+	@Test
+	public void testTraversalsBuildNoEdgeLists(){
+		int N = 50;
+		Vertex<Void>[] vs = new ListlessVertex[ N ];
+		for( int ii = 0; ii < N; ii++ )
+			vs[ii] = new ListlessVertex( ii + 1, ii );
+		for( int ii = 0; ii < N; ii++ ){ // a ring, plus chords
+			for( int to : new int[]{ ( ii + 1 ) % N, ( ii * 7 ) % N } ){
+				Edge<Void> e = new Edge<Void>( vs[ii], vs[to] );
+				vs[ii].addEdge( e );
+				vs[to].addEdge( e );
+			}
+		}
+		
+		for( boolean reverse : new boolean[]{ false, true } ){
+			DFS.FinishingOrder fo = new DFS.FinishingOrder( new TraversalContext( N ) );
+			DFS.RunningTotal rt = new DFS.RunningTotal();
+			DFS.traverseDFS( vs[0], fo, reverse, rt );
+			Assert.assertEquals( N, rt.getSize() );
+			Assert.assertEquals( N, fo.getOrdering().size() );
+		}
+		
+		int[] sum = new int[1];
+		for( Vertex<Void> v : vs ){
+			v.forEachOutNeighborId( id -> sum[0] += id );
+			v.forEachInNeighbor( u -> sum[0] -= u.id );
+		}
+		Assert.assertEquals( 0, sum[0] );
+	}
 }
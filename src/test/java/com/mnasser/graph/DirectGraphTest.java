@@ -1,7 +1,11 @@
 package com.mnasser.graph;
 
+import org.junit.Assert;
 import org.junit.Test;
 
+import com.mnasser.graph.Graph.Edge;
+import com.mnasser.graph.Graph.Vertex;
+
 public class DirectGraphTest {
 
 	@Test
@@ -21,4 +25,50 @@ public class DirectGraphTest {
 		Graph g2 = (AdjacencyListGraph)Graph.copyOf(g);
 		System.out.println(g2);
 	}
+	
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testInOutAdjacency() throws Exception {
+		DirectedGraph g = new DirectedGraph();
+		g.addEdge( 1, 2 );
+		g.addEdge( 1, 3 );
+		g.addEdge( 2, 3 );
+		g.addEdge( 3, 1 );
+		
+		Vertex one = g.getVertex(1);
+		Assert.assertEquals( 3, one.edges.size() );
+		Assert.assertEquals( 2, one.outEdges.size() );
+		Assert.assertEquals( 1, one.inEdges.size() );
+		Assert.assertEquals( 2, one.getOutBound().size() );
+		Assert.assertEquals( 1, one.getInBound().size() );
+		
+		// direction matters now
+		Assert.assertTrue( g.hasEdge( 1, 3 ) );
+		Assert.assertTrue( g.hasEdge( 3, 1 ) );
+		Assert.assertTrue( g.hasEdge( 2, 3 ) );
+		Assert.assertFalse( g.hasEdge( 3, 2 ) );
+		Assert.assertFalse( g.hasEdge( new Edge( new Vertex(2), new Vertex(1) ) ) );
+		
+		// the reverse of an existing edge is not a parallel edge
+		g.addEdge( new Edge( new Vertex(3), new Vertex(2) ) );
+		Assert.assertEquals( 5, g.getEdgeCount() );
+		Assert.assertTrue( g.hasEdge( 3, 2 ) );
+		g.addEdge( new Edge( new Vertex(3), new Vertex(2) ) ); // but this one is
+		Assert.assertEquals( 5, g.getEdgeCount() );
+		
+		// removing 3->2 must leave 2->3 alone
+		g.removeEdge( new Edge( new Vertex(3), new Vertex(2) ) );
+		Assert.assertEquals( 4, g.getEdgeCount() );
+		Assert.assertFalse( g.hasEdge( 3, 2 ) );
+		Assert.assertTrue( g.hasEdge( 2, 3 ) );
+		Vertex three = g.getVertex(3);
+		Assert.assertEquals( 1, three.outEdges.size() );
+		Assert.assertEquals( 2, three.inEdges.size() );
+		Assert.assertEquals( 3, three.edges.size() );
+		
+		g.removeVertex( one );
+		Assert.assertEquals( 1, g.getEdgeCount() );
+		Assert.assertEquals( 0, three.outEdges.size() );
+		Assert.assertEquals( 1, three.inEdges.size() );
+	}
 }
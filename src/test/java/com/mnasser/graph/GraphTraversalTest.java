@@ -0,0 +1,130 @@
+package com.mnasser.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mnasser.graph.DFS.FinishingOrder;
+import com.mnasser.graph.DFS.RunningTotal;
+import com.mnasser.graph.Graph.Vertex;
+import com.mnasser.graph.GraphTraversal.BFSResult;
+
+public class GraphTraversalTest {
+
+	/**Plain single threaded queue based BFS to check against*/
+	static <X> int[] referenceHops(Graph<X> g, Vertex<X> s){
+		int[] hops = new int[ g.slotCount() ];
+		Arrays.fill( hops, -1 );
+		ArrayDeque<Vertex<X>> q = new ArrayDeque<Vertex<X>>();
+		hops[ s.slot ] = 0;
+		q.add( s );
+		while( ! q.isEmpty() ){
+			Vertex<X> v = q.poll();
+			v.forEachOutNeighbor( n -> {
+				if( hops[ n.slot ] == -1 ){
+					hops[ n.slot ] = hops[ v.slot ] + 1;
+					q.add( n );
+				}
+			});
+		}
+		return hops;
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testBfs(){
+		DirectedGraph g = CsrGraphTest.sccGraph();
+		BFSResult r = GraphTraversal.bfs( g, g.getVertex(9) );
+
+		Assert.assertEquals( 0 , r.getHops( g.getVertex(9) ) );
+		Assert.assertEquals( 1 , r.getHops( g.getVertex(3) ) );
+		Assert.assertEquals( 1 , r.getHops( g.getVertex(7) ) );
+		Assert.assertEquals( 2 , r.getHops( g.getVertex(6) ) );
+		Assert.assertEquals( 3 , r.getHops( g.getVertex(4) ) );
+		Assert.assertFalse( r.isReached( g.getVertex(8) ) );
+		Assert.assertEquals( 6 , r.getReachedCount() );
+		Assert.assertEquals( 3 , r.getLevels() );
+
+		Assert.assertEquals( 2 , GraphTraversal.hops( g, g.getVertex(8), g.getVertex(9) ) );
+		Assert.assertEquals( -1, GraphTraversal.hops( g, g.getVertex(9), g.getVertex(8) ) );
+
+		// against the edges : who can reach 9?
+		r = GraphTraversal.bfs( g, Collections.<Vertex<?>>singleton( g.getVertex(9) ), true, ForkJoinPool.commonPool() );
+		Assert.assertEquals( 1 , r.getHops( g.getVertex(6) ) );
+		Assert.assertEquals( 2 , r.getHops( g.getVertex(8) ) );
+		Assert.assertFalse( r.isReached( g.getVertex(1) ) );
+
+		// undirected graphs go both ways
+		Graph u = CsrGraphTest.smallGraph();
+		r = GraphTraversal.bfs( u, u.getVertex(5) );
+		Assert.assertEquals( 5 , r.getReachedCount() );
+		Assert.assertEquals( 2 , r.getHops( u.getVertex(2) ) );
+	}
+
+	@Test
+	public void testParallelBfs(){
+		DirectedGraph<Void> g = DFSTest.randomDirectedGraph( 200_000, 3 );
+		Vertex<Void> s = g.getVertex(1);
+		int[] expected = referenceHops( g, s );
+
+		BFSResult r = GraphTraversal.bfs( g, s );
+		int reached = 0;
+		for( Vertex<Void> v : g.getVertices() ){
+			Assert.assertEquals( expected[ v.slot ], r.getHops( v ) );
+			if( expected[ v.slot ] >= 0 ) reached++;
+		}
+		Assert.assertEquals( reached, r.getReachedCount() );
+
+		// same on the frozen copy
+		CsrGraph<Void> c = CsrGraph.freeze( g );
+		r = GraphTraversal.bfs( c, c.getVertex(1) );
+		for( Vertex<Void> v : g.getVertices() )
+			Assert.assertEquals( expected[ v.slot ], r.getHops( c.getVertex( v.id ) ) );
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testDfsFinishingOrder(){
+		DirectedGraph g = new DirectedGraph();
+		g.addEdge( new Vertex(1), new Vertex(2) );
+		g.addEdge( new Vertex(1), new Vertex(3) );
+		g.addEdge( new Vertex(2), new Vertex(3) );
+		g.addEdge( new Vertex(2), new Vertex(4) );
+		g.addEdge( new Vertex(3), new Vertex(4) );
+
+		TraversalContext ctx = new TraversalContext( g );
+		FinishingOrder fo = new FinishingOrder( ctx );
+		RunningTotal rt = new RunningTotal();
+		GraphTraversal.dfs( g.getVertex(1), fo, false, rt, ctx );
+
+		// 1 -> 2 -> 3 -> 4, same as walking recursively
+		Assert.assertEquals( Arrays.asList( 4, 3, 2, 1 ), fo.getOrdering() );
+		Assert.assertEquals( 4 , rt.getSize() );
+		Assert.assertEquals( 1 , ctx.getOrder( g.getVertex(4) ) );
+		Assert.assertEquals( 4 , ctx.getOrder( g.getVertex(1) ) );
+	}
+
+	@Test
+	public void testDeepDfs(){
+		// a 1,000,000 long path would blow the stack of a recursive walk
+		int N = 1_000_000;
+		DirectedGraph<Void> g = new DirectedGraph<Void>( N );
+		for( int ii = 1; ii < N; ii++ )
+			g.addEdge( ii, ii + 1 );
+
+		TraversalContext ctx = new TraversalContext( g );
+		FinishingOrder fo = new FinishingOrder( ctx );
+		RunningTotal rt = new RunningTotal();
+		DFS.traverseDFS( g.getVertex(1), fo, false, rt, ctx );
+
+		Assert.assertEquals( N , rt.getSize() );
+		List<Integer> order = fo.getOrdering();
+		Assert.assertEquals( Integer.valueOf(N), order.get(0) );
+		Assert.assertEquals( Integer.valueOf(1), order.get(N-1) );
+	}
+}
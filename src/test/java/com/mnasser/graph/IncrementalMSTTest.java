@@ -0,0 +1,95 @@
+package com.mnasser.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IncrementalMSTTest {
+
+	@Test
+	public void testIncrementalMST(){
+		IncrementalMST t = new IncrementalMST();
+		Assert.assertTrue( t.addEdge( 1, 2, 5 ) );
+		Assert.assertTrue( t.addEdge( 2, 3, 3 ) );
+		Assert.assertEquals( 8, t.getTotalCost() );
+		Assert.assertEquals( 5, t.getMaxCost( 1, 3 ) );
+
+		Assert.assertFalse( t.addEdge( 1, 3, 5 ) );  // a tie changes nothing
+		Assert.assertTrue( t.addEdge( 1, 3, 1 ) );   // 1 - 2 gets swapped out
+		Assert.assertEquals( 4, t.getTotalCost() );
+		Assert.assertFalse( t.hasEdge( 1, 2 ) );
+		Assert.assertTrue( t.hasEdge( 3, 1 ) );
+		Assert.assertEquals( 1, t.getCost( 1, 3 ) );
+		Assert.assertEquals( 2, t.getEdgeCount() );
+
+		Assert.assertFalse( t.addEdge( 4, 4, 0 ) );  // self loop, but 4 is in now
+		Assert.assertTrue( t.hasVertex( 4 ) );
+		Assert.assertFalse( t.connected( 1, 4 ) );
+		Assert.assertEquals( 2, t.getTreeCount() );
+		Assert.assertTrue( t.addEdge( 4, 2, -7 ) );
+		Assert.assertTrue( t.isSpanning() );
+		Assert.assertEquals( -3, t.getTotalCost() );
+
+		SpanningTree s = t.toSpanningTree();
+		Assert.assertEquals( -3, s.getTotalCost() );
+		Assert.assertTrue( s.hasEdge( 2, 4 ) && s.hasEdge( 1, 3 ) && s.hasEdge( 2, 3 ) );
+	}
+
+	@Test(expected=RuntimeException.class)
+	public void testNoPath(){
+		IncrementalMST t = new IncrementalMST();
+		t.addEdge( 1, 2, 5 );
+		t.addVertex( 3 );
+		t.getMaxCost( 1, 3 );
+	}
+
+	/**The graph of the cheapest edge seen between each pair. {@code Builder} keeps the first.*/
+	static Graph<Void> cheapest(Map<Long, Integer> edges){
+		AdjacencyListGraph.Builder<Void> b = new AdjacencyListGraph.Builder<Void>();
+		for( Map.Entry<Long, Integer> e : edges.entrySet() ){
+			int x = (int) ( e.getKey() >> 32 ), y = (int) (long) e.getKey();
+			if( x == y ) b.addVertex( x );
+			else b.addEdge( x, y, e.getValue() );
+		}
+		return b.build();
+	}
+	static void offer(Map<Long, Integer> edges, int x, int y, int c){
+		long k = x < y ? (long) x << 32 | y : (long) y << 32 | x;
+		edges.merge( k, c, Math::min );
+	}
+
+	/**Stream random edges in, checking against a rebuilt MST as it goes*/
+	@Test
+	public void testAgainstRebuild(){
+		Random r = new Random( 5 );
+		int n = 300;
+		IncrementalMST t = new IncrementalMST( 2 );  // makes it grow
+		Map<Long, Integer> seen = new HashMap<Long, Integer>();
+		for( int ii = 1; ii <= 3_000; ii++ ){
+			int x = r.nextInt( n ), y = r.nextInt( n ), c = r.nextInt( 100 ) - 50;
+			t.addEdge( x, y, c );
+			offer( seen, x, y, c );
+			if( ii % 100 == 0 ){
+				SpanningTree s = KruskalMST.findMSTSorted( cheapest( seen ) );
+				Assert.assertEquals( s.getTotalCost(), t.getTotalCost() );
+				Assert.assertEquals( s.getTreeCount(), t.getTreeCount() );
+				Assert.assertEquals( t.getTotalCost(), t.toSpanningTree().getTotalCost() );
+			}
+		}
+
+		Graph<Void> g = BoruvkaMSTTest.randomWeighted( 2_000, 8_000, 3 );
+		IncrementalMST u = new IncrementalMST( g );
+		Assert.assertEquals( PrimMST.findMST( g ).getTotalCost(), u.getTotalCost() );
+		Graph<Void> more = BoruvkaMSTTest.randomWeighted( 2_000, 8_000, 4 );
+		u.addEdges( more );
+		seen.clear();
+		for( Graph<Void> h : Arrays.asList( g, more ) )
+			for( Graph.Edge<Void> e : h.getEdges() )
+				offer( seen, e.src.id, e.dst.id, e.cost() );
+		Assert.assertEquals( PrimMST.findMST( cheapest( seen ) ).getTotalCost(), u.getTotalCost() );
+	}
+}
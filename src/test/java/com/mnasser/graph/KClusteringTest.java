@@ -4,10 +4,13 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.mnasser.graph.Graph.Edge;
 import com.mnasser.util.LeftRight;
 
 public class KClusteringTest {
@@ -50,7 +53,67 @@ public class KClusteringTest {
 		
 		System.out.println("T       : "  + res.left.toInfoLine());
 		System.out.println("Spacing : "  + res.right);
+		Assert.assertEquals( 106L, res.right.longValue() );
+	}
+	
+	@Test
+	public void testDendrogram(){
+		Graph<Void> g = new AdjacencyListGraph<Void>();
+		g.addEdge( 1, 2, 1 );
+		g.addEdge( 3, 4, 2 );
+		g.addEdge( 2, 3, 5 );
+		g.addEdge( 1, 4, 9 );
+		g.addVertex( 7 );  // a component of its own
+		
+		Dendrogram d = Dendrogram.of( g );
+		Assert.assertEquals( 5, d.getVertexCount() );
+		Assert.assertEquals( 3, d.getMergeCount() );
+		Assert.assertEquals( 2, d.getMinClusters() );
+		Assert.assertEquals( 1, d.getMaxSpacing( 5 ) );
+		Assert.assertEquals( 2, d.getMaxSpacing( 4 ) );
+		Assert.assertEquals( 5, d.getMaxSpacing( 3 ) );
+		Assert.assertEquals( Long.MAX_VALUE, d.getMaxSpacing( 2 ) );
 		
+		int[][] c = d.getClusters( 3 );
+		Assert.assertEquals( 3, c.length );
+		int[] label = d.getLabels( 3 );
+		int[] ids = d.getIds();  // 1 2 3 4 7
+		Assert.assertEquals( label[0], label[1] );
+		Assert.assertEquals( label[2], label[3] );
+		Assert.assertTrue( label[0] != label[2] && label[0] != label[4] && label[2] != label[4] );
+		Assert.assertEquals( 7, ids[4] );
+		
+		Graph<Void> T = d.toGraph( g, 3 );
+		Assert.assertEquals( 5, T.getVertexCount() );
+		Assert.assertTrue( T.hasEdge( 1, 2 ) && T.hasEdge( 3, 4 ) );
+		Assert.assertFalse( T.hasEdge( 2, 3 ) );
+	}
+	
+	@Test(expected=RuntimeException.class)
+	public void testTooFewClusters(){
+		Graph<Void> g = new AdjacencyListGraph<Void>();
+		g.addEdge( 1, 2, 1 );
+		g.addEdge( 3, 4, 1 );
+		Dendrogram.of( g ).getLabels( 1 );
+	}
+	
+	/**The spacing at each k is the cheapest edge between two clusters, checked over every edge*/
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testSpacingAgainstLabels() throws IOException {
+		Graph g = loadClusterFile();
+		Dendrogram d = Dendrogram.of( g );
+		int[] ids = d.getIds();
+		for( int k : new int[]{ 2, 3, 4, 10, 100, 499 } ){
+			int[] label = d.getLabels( k );
+			Assert.assertEquals( k, d.getClusters( k ).length );
+			long min = Long.MAX_VALUE;
+			for( Edge e : (List<Edge>) g.getEdges() ){
+				int a = label[ Arrays.binarySearch( ids, e.src.id ) ], b = label[ Arrays.binarySearch( ids, e.dst.id ) ];
+				if( a != b ) min = Math.min( min, e.cost() );
+			}
+			Assert.assertEquals( min, d.getMaxSpacing( k ) );
+		}
 	}
 	
 	@SuppressWarnings("rawtypes")
@@ -47,6 +47,27 @@ public class KruskalMSTTest {
 		Assert.assertTrue( T.getVertexCount() == 5 );
 	}
 	
+	/**Every vertex is in T well before T is connected : 1-2 & 3-4 are only joined by the heaviest edge*/
+	@Test
+	public void testHeaviestEdgeJoinsComponents(){
+		Graph<Void> G = new AdjacencyListGraph<Void>();
+		G.addEdge( 1, 2, 1 );
+		G.addEdge( 3, 4, 1 );
+		G.addEdge( 2, 3, 5 );
+		Assert.assertEquals( 3, KruskalMST.findMSTNaive( G ).getEdgeCount() );
+		Assert.assertEquals( 3, KruskalMST.findMSTLazyUnionByRank( G ).getEdgeCount() );
+		Assert.assertEquals( 7, totalCost( KruskalMST.findMSTNaive( G ) ) );
+		
+		// a removed vertex leaves its slot behind
+		G.addEdge( 4, 5, 2 );
+		G.removeVertex( G.getVertex( 5 ) );
+		Assert.assertEquals( 3, KruskalMST.findMSTNaive( G ).getEdgeCount() );
+		
+		// two components stay a forest
+		G.addEdge( 6, 7, 1 );
+		Assert.assertEquals( 4, KruskalMST.findMSTNaive( G ).getEdgeCount() );
+	}
+	
 	@Test
 	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public void largeMSTtest() throws IOException, URISyntaxException{
@@ -222,4 +243,108 @@ public class KruskalMSTTest {
 	Total cost of MST  : -822,480
 
 	 */
+	
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testSortedKruskal() throws IOException, URISyntaxException {
+		Graph G = loadTestGraph("edges_graph.txt");
+		long expected = 0;
+		for( Edge e : (List<Edge>) KruskalMST.findMSTLazyUnionByRank( G ).getEdges() )
+			expected += e.cost();
+		
+		SpanningTree T = KruskalMST.findMSTSorted( G );
+		Assert.assertEquals( expected, T.getTotalCost() );
+		Assert.assertEquals( 499, T.getEdgeCount() );
+		Assert.assertTrue( T.isSpanning() );
+		
+		for( int seed = 0; seed < 3; seed++ ){
+			Graph<Void> g = BoruvkaMSTTest.randomWeighted( 2_000, 10_000, seed );
+			Assert.assertEquals( PrimMST.findMST( g ).getTotalCost(), KruskalMST.findMSTSorted( g ).getTotalCost() );
+		}
+		
+		// costs either side of 0 keep their order once packed
+		Assert.assertTrue( KruskalMST.key( -1, 5 ) < KruskalMST.key( 0, 0 ) );
+		Assert.assertTrue( KruskalMST.key( Integer.MIN_VALUE, Integer.MAX_VALUE ) < KruskalMST.key( -1, 0 ) );
+		Assert.assertTrue( KruskalMST.key( 3, 1 ) < KruskalMST.key( 3, 2 ) );
+	}
+	
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static long totalCost(Graph T){
+		long total = 0;
+		for( Edge e : (List<Edge>) T.getEdges() )
+			total += e.cost();
+		return total;
+	}
+	
+	@Test
+	public void testFilteredKruskal() throws IOException, URISyntaxException {
+		Graph<?> G = loadTestGraph("edges_graph.txt");
+		Graph<?> T = KruskalMST.findMSTFiltered( G );
+		Assert.assertEquals( totalCost( KruskalMST.findMSTLazyUnionByRank( G ) ), totalCost( T ) );
+		Assert.assertEquals( 499, T.getEdgeCount() );
+		
+		// big enough to be split a few times
+		for( int seed = 0; seed < 3; seed++ ){
+			Graph<Void> g = BoruvkaMSTTest.randomWeighted( 2_000, 20_000, seed );
+			Assert.assertEquals( PrimMST.findMST( g ).getTotalCost(), totalCost( KruskalMST.findMSTFiltered( g ) ) );
+		}
+		
+		// all one cost : nothing to split on
+		Graph<Void> ties = new AdjacencyListGraph<Void>();
+		for( int a = 1; a <= 60; a++ )
+			for( int b = a + 1; b <= 60; b++ )
+				ties.addEdge( a, b, 7 );
+		T = KruskalMST.findMSTFiltered( ties );
+		Assert.assertEquals( 59, T.getEdgeCount() );
+		Assert.assertEquals( 59 * 7, totalCost( T ) );
+		
+		// costs already in order, then reversed : bad splits for median of three
+		for( int dir : new int[]{ 1, -1 } ){
+			Graph<Void> line = new AdjacencyListGraph<Void>();
+			for( int ii = 1; ii < 5_000; ii++ )
+				line.addEdge( ii, ii + 1, dir * ii );
+			for( int ii = 1; ii + 2 <= 5_000; ii++ )
+				line.addEdge( ii, ii + 2, dir * ii + 10_000 );
+			Assert.assertEquals( PrimMST.findMST( line ).getTotalCost(), totalCost( KruskalMST.findMSTFiltered( line ) ) );
+		}
+	}
+	
+	/**Two components joined only by the heaviest edge : it still has to be taken*/
+	@Test
+	public void testFilteredJoinsComponentsLast(){
+		Graph<Void> G = new AdjacencyListGraph<Void>();
+		G.addEdge( 1, 2, 1 );
+		G.addEdge( 3, 4, 1 );
+		G.addEdge( 2, 3, 5 );
+		Graph<Void> T = KruskalMST.findMSTFiltered( G );
+		Assert.assertEquals( 3, T.getEdgeCount() );
+		Assert.assertEquals( 7, totalCost( T ) );
+		
+		// same again past SORT_BELOW, so the bridge sits on the heavy side of a split
+		Graph<Void> big = new AdjacencyListGraph<Void>();
+		int half = KruskalMST.SORT_BELOW;
+		for( int ii = 1; ii < half; ii++ ){
+			big.addEdge( ii, ii + 1, ii % 7 );
+			big.addEdge( half + ii, half + ii + 1, ii % 5 );
+		}
+		big.addEdge( half / 2, half + half / 2, 1_000 );
+		Assert.assertEquals( PrimMST.findMST( big ).getTotalCost(), totalCost( KruskalMST.findMSTFiltered( big ) ) );
+		Assert.assertEquals( 2 * half - 1, KruskalMST.findMSTFiltered( big ).getEdgeCount() );
+	}
+	
+	/**Edges go through the {@code UnionDecision} just as with {@code findMST()}*/
+	@Test
+	public void testFilteredUnionDecision(){
+		Graph<Void> g = BoruvkaMSTTest.randomWeighted( 3_000, 20_000, 11 );
+		int[] calls = new int[ 2 ];
+		KruskalMST.findMST( g, true, (e, c1, c2, sets, G) -> { calls[0]++; return KruskalMST.UnionDecision.DEFAULT_DECISION.union( e, c1, c2, sets, G ); } );
+		KruskalMST.findMSTFiltered( g, (e, c1, c2, sets, G) -> { calls[1]++; return KruskalMST.UnionDecision.DEFAULT_DECISION.union( e, c1, c2, sets, G ); } );
+		Assert.assertEquals( calls[0], calls[1] );
+		
+		// STOP as soon as every vertex is in T
+		calls[1] = 0;
+		Graph<Void> T = KruskalMST.findMSTFiltered( g, (e, c1, c2, sets, G) -> { calls[1]++; sets.union( c1, c2 ); return KruskalMST.UnionDecision.UnionResult.STOP; } );
+		Assert.assertEquals( g.getVertexCount(), T.getVertexCount() );
+		Assert.assertEquals( T.getEdgeCount(), calls[1] );
+	}
 }
@@ -0,0 +1,67 @@
+package com.mnasser.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappedGraphTest {
+
+	static File tempFile(String suffix) throws IOException {
+		File f = File.createTempFile( "graph", suffix );
+		f.deleteOnExit();
+		return f;
+	}
+
+	@Test
+	@SuppressWarnings({ "rawtypes" })
+	public void testRoundTrip() throws IOException {
+		File f = tempFile(".csr");
+
+		Graph G = CsrGraphTest.smallGraph();
+		MappedGraph.write( G, f );
+		MappedGraph mg = MappedGraph.open( f );
+		Assert.assertFalse( mg.isDirected() );
+		Assert.assertEquals( 5, mg.getVertexCount() );
+		Assert.assertEquals( 7, mg.getEdgeCount() );
+
+		int one = mg.indexOf(1);
+		Assert.assertEquals( 1, mg.idAt( one ) );
+		Assert.assertEquals( 4, mg.degree( one ) );
+		int[] sum = new int[1];
+		mg.forEachNeighbor( one, t -> sum[0] += mg.idAt( t ) );
+		Assert.assertEquals( 2 + 3 + 4 + 5, sum[0] );
+		Assert.assertEquals( -1, mg.indexOf(6) );
+
+		CsrGraph C = mg.toCsrGraph();
+		Assert.assertEquals( G.toMatrixString(), C.toMatrixString() );
+		Assert.assertEquals( CsrGraphTest.totalCost( G ), CsrGraphTest.totalCost( C ) );
+
+		DirectedGraph D = CsrGraphTest.sccGraph();
+		MappedGraph.write( D, f ); // overwrite
+		C = MappedGraph.open( f ).toCsrGraph();
+		Assert.assertTrue( C.isDirected() );
+		Assert.assertEquals( StronglyConnectedComponents.doSCC( D ), StronglyConnectedComponents.doSCC( C ) );
+	}
+
+	@Test
+	public void testSparseIds() throws IOException {
+		File f = tempFile(".csr");
+		Graph<Void> G = Graph.getInstance();
+		G.addEdge( 10, 2_000_000, 3 );
+		G.addEdge( -5, 10, 4 );
+		MappedGraph.write( G, f );
+		MappedGraph mg = MappedGraph.open( f );
+		Assert.assertEquals( 0, mg.indexOf( -5 ) );
+		Assert.assertEquals( 2, mg.indexOf( 2_000_000 ) );
+		Assert.assertEquals( -1, mg.indexOf( 11 ) );
+		Assert.assertTrue( mg.toCsrGraph().hasEdge( 2_000_000, 10 ) );
+	}
+
+	@Test(expected=IOException.class)
+	public void testNotAGraph() throws IOException, URISyntaxException {
+		MappedGraph.open( new File( MinimumCut.class.getResource("/kargerMinCut.txt").toURI() ) );
+	}
+}
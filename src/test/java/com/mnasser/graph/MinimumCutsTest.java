@@ -158,5 +158,135 @@ public class MinimumCutsTest {
 		Graph g = MinimumCut.loadGraph("kargerTest.txt");
 		System.out.println( "Min cut = " +  MinimumCut.repeatFindMinimumCut(g, 1000) );
 	}
-
+	
+	/**Two cliques of {@code k} joined by {@code bridges} edges, IDs 1..2k*/
+	static Graph<Void> twoCliques(int k, int bridges){
+		Graph<Void> g = new AdjacencyListGraph<Void>();
+		for( int a = 1; a <= k; a++ )
+			for( int b = a + 1; b <= k; b++ ){
+				g.addEdge( a, b );
+				g.addEdge( k + a, k + b );
+			}
+		for( int ii = 1; ii <= bridges; ii++ )
+			g.addEdge( ii, k + ii );
+		return g;
+	}
+	
+	@Test
+	public void testKargerMinCut() throws Exception {
+		Graph<Void> g = twoCliques( 10, 2 );
+		KargerMinCut k = new KargerMinCut( g );
+		Assert.assertEquals( 20, k.getVertexCount() );
+		Assert.assertEquals( 2 * 45 + 2, k.getEdgeCount() );
+		Assert.assertEquals( 2, k.minCut( 500, 1 ) );
+		Assert.assertEquals( 92, g.getEdgeCount() ); // graph untouched
+		
+		KargerMinCut.Contraction c = k.new Contraction();
+		java.util.SplittableRandom rnd = new java.util.SplittableRandom( 2 );
+		int cut;
+		while( (cut = c.run( rnd )) != 2 ) Assert.assertTrue( cut > 2 );
+		Assert.assertTrue( c.sameSide( 1, 10 ) );
+		Assert.assertTrue( c.sameSide( 11, 20 ) );
+		Assert.assertFalse( c.sameSide( 1, 11 ) );
+		
+		// in pieces already
+		g.addEdge( 100, 101 );
+		Assert.assertEquals( 0, new KargerMinCut( g ).minCut( 10, 3 ) );
+		
+		// directed edges count either way round
+		DirectedGraph<Void> d = new DirectedGraph<Void>();
+		d.addEdge( 1, 2 ); d.addEdge( 2, 3 ); d.addEdge( 3, 1 ); d.addEdge( 3, 4 );
+		Assert.assertEquals( 1, new KargerMinCut( d ).minCut( 50, 4 ) );
+		
+		Graph<?> karger = MinimumCut.loadGraph( "/kargerMinCut.txt" );
+		Assert.assertEquals( 17, MinimumCut.findMinimumCut( karger, 2_000 ) );
+	}
+	
+	@Test
+	public void testParallelKarger() throws Exception {
+		Graph<?> karger = MinimumCut.loadGraph( "/kargerMinCut.txt" );
+		KargerMinCut k = new KargerMinCut( karger );
+		
+		KargerMinCut.Result r = k.minCut( 3_000, 0, new java.util.concurrent.ForkJoinPool( 4 ), 7 );
+		Assert.assertEquals( 17, r.getCut() );
+		Assert.assertEquals( 3_000, r.getTrials() );
+		
+		// a budget stops it well short of 10 million trials
+		r = k.minCut( 10_000_000, 200, java.util.concurrent.ForkJoinPool.commonPool(), 8 );
+		Assert.assertTrue( r.getTrials() < 10_000_000 );
+		Assert.assertTrue( r.getNanos() < 5_000_000_000L );
+		Assert.assertEquals( 17, r.getCut() );
+		
+		// disconnected : stops at the first 0
+		Graph<Void> g = twoCliques( 5, 0 );
+		r = new KargerMinCut( g ).minCut( 1_000_000, 0, java.util.concurrent.ForkJoinPool.commonPool(), 9 );
+		Assert.assertEquals( 0, r.getCut() );
+		Assert.assertTrue( r.getTrials() < 1_000_000 );
+		
+		Assert.assertEquals( 2, MinimumCut.findMinimumCut( twoCliques( 8, 2 ), 0.999, 0 ) );
+		// n = 200 at 1 - 1/n confidence : n(n-1)/2 ln n
+		Assert.assertEquals( (int) Math.ceil( 200 * 199 / 2 * Math.log( 200 ) ), KargerMinCut.trialsFor( 200, 1 - 1/200.0 ) );
+	}
+	
+	@Test
+	public void testKargerStein() throws Exception {
+		java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool( 4 );
+		Graph<?> karger = MinimumCut.loadGraph( "/kargerMinCut.txt" );
+		KargerMinCut k = new KargerMinCut( karger );
+		Assert.assertEquals( 17, k.recursiveMinCut( KargerMinCut.recursiveRunsFor( 200, 0.999 ), pool, 11 ) );
+		Assert.assertEquals( 17, MinimumCut.findMinimumCutRecursive( karger, 0.999 ) );
+		Assert.assertTrue( MinimumCut.findPossibleMinimumCutRecursive( karger ) >= 17 );
+		
+		Assert.assertEquals( 3, new KargerMinCut( twoCliques( 40, 3 ) ).recursiveMinCut( 30, pool, 12 ) );
+		Assert.assertEquals( 0, new KargerMinCut( twoCliques( 40, 0 ) ).recursiveMinCut( 5, pool, 13 ) );
+		
+		// small enough to be cut exactly straight away
+		Graph<Void> g = new AdjacencyListGraph<Void>();
+		g.addEdge( 1, 2 ); g.addEdge( 2, 3 ); g.addEdge( 3, 4 ); g.addEdge( 4, 1 ); g.addEdge( 1, 3 );
+		Assert.assertEquals( 2, new KargerMinCut( g ).recursiveMinCut( 1, pool, 14 ) );
+		Assert.assertEquals( 2, KargerMinCut.exactCut( new int[]{ 0, 1, 0 }, new int[]{ 1, 2, 1 }, new int[]{ 1, 2, 3 }, 3, 3 ) );
+		
+		Assert.assertEquals( 12, KargerMinCut.recursiveRunsFor( 1024, 1 - 1/Math.E ) ); // log2(n) + 2 runs
+	}
+	
+	@Test
+	public void testStoerWagner() throws Exception {
+		// the example from Stoer & Wagner's paper
+		Graph<Void> g = new AdjacencyListGraph<Void>();
+		g.addEdge( 1, 2, 2 ); g.addEdge( 1, 5, 3 ); g.addEdge( 2, 3, 3 ); g.addEdge( 2, 5, 2 );
+		g.addEdge( 2, 6, 2 ); g.addEdge( 3, 4, 4 ); g.addEdge( 3, 7, 2 ); g.addEdge( 4, 7, 2 );
+		g.addEdge( 4, 8, 2 ); g.addEdge( 5, 6, 3 ); g.addEdge( 6, 7, 1 ); g.addEdge( 7, 8, 3 );
+		StoerWagner sw = new StoerWagner( g );
+		Assert.assertEquals( 4, sw.getCut() );
+		int[] a = sw.getSide(), b = sw.getOtherSide();
+		if( a[0] == 1 ){ int[] x = a; a = b; b = x; }
+		Assert.assertArrayEquals( new int[]{ 3, 4, 7, 8 }, a );
+		Assert.assertArrayEquals( new int[]{ 1, 2, 5, 6 }, b );
+		Assert.assertEquals( 4, MinimumCut.findWeightedMinimumCut( g ) );
+		// every edge as 1 : vertex 1 has only 2
+		Assert.assertEquals( 2, new StoerWagner( g, false ).getCut() );
+		
+		sw = new StoerWagner( twoCliques( 12, 3 ), false );
+		Assert.assertEquals( 3, sw.getCut() );
+		Assert.assertEquals( sw.isOnSide( 1 ), sw.isOnSide( 12 ) );
+		Assert.assertTrue( sw.isOnSide( 1 ) != sw.isOnSide( 13 ) );
+		
+		Assert.assertEquals( 0, new StoerWagner( twoCliques( 4, 0 ), false ).getCut() );
+		
+		Graph<?> karger = MinimumCut.loadGraph( "/kargerMinCut.txt" );
+		sw = new StoerWagner( karger, false );
+		Assert.assertEquals( 17, sw.getCut() );
+		int crossing = 0;
+		for( Graph.Edge<?> e : karger.getEdges() )
+			if( sw.isOnSide( e.getSrcVertex().id ) != sw.isOnSide( e.getDstVertex().id ) ) crossing++;
+		Assert.assertEquals( 17, crossing );
+		Assert.assertEquals( 200, sw.getSide().length + sw.getOtherSide().length );
+	}
+	
+	@Test(expected=RuntimeException.class)
+	public void testStoerWagnerNegativeCost(){
+		Graph<Void> g = new AdjacencyListGraph<Void>();
+		g.addEdge( 1, 2, 5 ); g.addEdge( 2, 3, -1 );
+		new StoerWagner( g );
+	}
 }
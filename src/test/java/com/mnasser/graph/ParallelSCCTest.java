@@ -0,0 +1,100 @@
+package com.mnasser.graph;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mnasser.graph.Graph.Vertex;
+import com.mnasser.graph.GraphTraversal.BFSResult;
+import com.mnasser.graph.StronglyConnectedComponents.Components;
+
+public class ParallelSCCTest {
+
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testSmall(){
+		DirectedGraph g = CsrGraphTest.sccGraph();
+		Components cs = ParallelSCC.find( g );
+
+		Assert.assertEquals( 3, cs.getComponentCount() );
+		Assert.assertEquals( StronglyConnectedComponents.doSCC( g ), cs.getSizeCounts() );
+		Assert.assertEquals( cs.getComponent(1), cs.getComponent(4) );
+		Assert.assertEquals( cs.getComponent(1), cs.getComponent(7) );
+		Assert.assertEquals( cs.getComponent(3), cs.getComponent( g.getVertex(9) ) );
+		Assert.assertTrue( cs.getComponent(1) != cs.getComponent(9) );
+		Assert.assertTrue( cs.getComponent(9) != cs.getComponent(8) );
+		Assert.assertEquals( -1, cs.getComponent(100) );
+	}
+
+	/**Two vertices share a component iff each reaches the other*/
+	@Test
+	public void testAgainstReachability(){
+		// sparse enough to leave lots of small components & singletons around
+		DirectedGraph<Void> g = DFSTest.randomDirectedGraph( 400, 1 );
+		Random r = new Random(5);
+		for( int ii = 0; ii < 150; ii++ )
+			g.addEdge( r.nextInt(400) + 1, r.nextInt(400) + 1 );
+
+		Components cs = ParallelSCC.find( g );
+		List<Vertex<Void>> vs = g.getVertices();
+		BFSResult[] reach = new BFSResult[ vs.size() ];
+		for( int ii = 0; ii < vs.size(); ii++ )
+			reach[ii] = GraphTraversal.bfs( g, vs.get(ii) );
+
+		for( int ii = 0; ii < vs.size(); ii++ )
+			for( int jj = 0; jj < vs.size(); jj++ ){
+				boolean strong = reach[ii].isReached( vs.get(jj) ) && reach[jj].isReached( vs.get(ii) );
+				Assert.assertEquals( strong, cs.getComponent( vs.get(ii) ) == cs.getComponent( vs.get(jj) ) );
+			}
+		Assert.assertEquals( StronglyConnectedComponents.doSCC( g ), cs.getSizeCounts() );
+	}
+
+	@Test
+	public void testLarge(){
+		// big enough for the parallel trim & searches to kick in
+		DirectedGraph<Void> g = DFSTest.randomDirectedGraph( 100_000, 2 );
+		Components cs = ParallelSCC.find( CsrGraph.freeze( g ), new ForkJoinPool( 4 ) );
+		Assert.assertEquals( StronglyConnectedComponents.doSCC( g ), cs.getSizeCounts() );
+	}
+
+	/**Lots of tiny components : each mustn't cost a FW-BW step (& a stack frame) of its own*/
+	@Test
+	public void testManySmallCycles(){
+		// 2,000 disjoint 2-cycles
+		DirectedGraph<Void> g = new DirectedGraph<Void>();
+		for( int ii = 0; ii < 2_000; ii++ ){
+			g.addEdge( 2*ii, 2*ii + 1 );
+			g.addEdge( 2*ii + 1, 2*ii );
+		}
+		Components cs = ParallelSCC.find( g );
+		Assert.assertEquals( 2_000, cs.getComponentCount() );
+		Assert.assertEquals( cs.getComponent( 10 ), cs.getComponent( 11 ) );
+		Assert.assertTrue( cs.getComponent( 11 ) != cs.getComponent( 12 ) );
+
+		// chains of 2-cycles & 3-cycles, well past PARALLEL_THRESHOLD, with edges back & forth between them
+		g = new DirectedGraph<Void>();
+		int pairs = 30_000, triples = 20_000, base = 2 * pairs;
+		for( int ii = 0; ii < pairs; ii++ ){
+			g.addEdge( 2*ii, 2*ii + 1 );
+			g.addEdge( 2*ii + 1, 2*ii );
+			if( ii > 0 ) g.addEdge( 2*ii - 1, 2*ii );
+		}
+		for( int ii = 0; ii < triples; ii++ ){
+			int a = base + 3*ii;
+			g.addEdge( a, a + 1 ); g.addEdge( a + 1, a + 2 ); g.addEdge( a + 2, a );
+			if( ii > 0 ) g.addEdge( a - 1, a );
+		}
+		Random r = new Random( 8 );
+		for( int ii = 0; ii < 5_000; ii++ ) // only ever forwards, so no two cycles merge
+			g.addEdge( r.nextInt( pairs ) * 2 + 1, base + 3 * r.nextInt( triples ) );
+		CsrGraph<Void> c = CsrGraph.freeze( g );
+		cs = ParallelSCC.find( c, new ForkJoinPool( 4 ) );
+		Assert.assertEquals( pairs + triples, cs.getComponentCount() );
+		Assert.assertEquals( StronglyConnectedComponents.findComponents( c ).getSizeCounts(), cs.getSizeCounts() );
+		Assert.assertEquals( cs.getComponent( base ), cs.getComponent( base + 2 ) );
+		Assert.assertTrue( cs.getComponent( base + 2 ) != cs.getComponent( base + 3 ) );
+	}
+}
@@ -59,5 +59,40 @@ public class PrimMSTTest {
 		
 		System.out.println("Total cost of MST  : " + total_cost);
 	}
-
+	
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testEagerPrim() throws IOException, URISyntaxException{
+		Graph G = KruskalMSTTest.loadTestGraph("edges_graph.txt");
+		long expected = 0;
+		for( Edge e : (List<Edge>) PrimMST.findMSTNaive( G ).getEdges() )
+			expected += e.cost();
+		
+		SpanningTree T = PrimMST.findMST( G );
+		Assert.assertEquals( expected, T.getTotalCost() );
+		Assert.assertEquals( 500, T.getVertexCount() );
+		Assert.assertEquals( 499, T.getEdgeCount() );
+		Assert.assertTrue( T.isSpanning() );
+		
+		Graph<Void> asGraph = T.toGraph();
+		Assert.assertEquals( 499, asGraph.getEdgeCount() );
+		for( Graph.Edge<Void> e : asGraph.getEdges() ){
+			Assert.assertTrue( G.hasEdge( e.getSrcVertex().id, e.getDstVertex().id ) );
+			Assert.assertTrue( T.hasEdge( e.getDstVertex().id, e.getSrcVertex().id ) );
+		}
+		
+		// two components & a lone vertex make a forest of three
+		Graph<Void> F = new AdjacencyListGraph<Void>();
+		F.addEdge( 1, 2, 4 ); F.addEdge( 2, 3, 1 ); F.addEdge( 1, 3, 2 );
+		F.addEdge( 10, 11, -5 );
+		F.addVertex( 20 );
+		T = PrimMST.findMST( F );
+		Assert.assertEquals( 3, T.getTreeCount() );
+		Assert.assertEquals( 3, T.getEdgeCount() );
+		Assert.assertEquals( 1 + 2 - 5, T.getTotalCost() );
+		Assert.assertFalse( T.hasEdge( 1, 2 ) );
+		Assert.assertEquals( 20, T.getParent( 20 ) );
+		Assert.assertEquals( 0, T.getCost( 20 ) );
+	}
+	
 }
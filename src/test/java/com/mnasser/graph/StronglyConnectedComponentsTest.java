@@ -0,0 +1,58 @@
+package com.mnasser.graph;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mnasser.graph.StronglyConnectedComponents.Components;
+import com.mnasser.graph.StronglyConnectedComponents.CountingMap;
+
+public class StronglyConnectedComponentsTest {
+
+	@Test
+	public void testSinglePass(){
+		DirectedGraph<?> g = CsrGraphTest.sccGraph();
+		CsrGraph<?> c = CsrGraph.freeze( g );
+		Components cs = StronglyConnectedComponents.findComponents( c );
+
+		Assert.assertEquals( 3, cs.getComponentCount() );
+		Assert.assertEquals( cs.getComponent(1), cs.getComponent(4) );
+		Assert.assertEquals( cs.getComponent(5), cs.getComponent(8) );
+		Assert.assertEquals( cs.getComponent(3), cs.getComponent(9) );
+		Assert.assertTrue( cs.getComponent(1) != cs.getComponent(9) );
+		Assert.assertTrue( cs.getComponent(2) != cs.getComponent(6) );
+
+		Assert.assertEquals( StronglyConnectedComponents.doSCC( g ), StronglyConnectedComponents.doSCCSinglePass( g ) );
+	}
+
+	@Test
+	public void testSinglePassAgainstKosaraju(){
+		for( int degree = 1; degree <= 3; degree++ ){
+			DirectedGraph<Void> g = DFSTest.randomDirectedGraph( 50_000, degree );
+			CountingMap expected = StronglyConnectedComponents.doSCC( g );
+			Assert.assertEquals( expected, StronglyConnectedComponents.doSCCSinglePass( g ) );
+
+			Components single = StronglyConnectedComponents.findComponents( CsrGraph.freeze( g ) );
+			Components fwbw   = ParallelSCC.find( g );
+			Assert.assertEquals( fwbw.getComponentCount(), single.getComponentCount() );
+			for( int ii = 1; ii < 2000; ii++ ) // same partition, whatever the numbering
+				Assert.assertEquals( fwbw.getComponent(ii) == fwbw.getComponent(ii+1),
+						single.getComponent(ii) == single.getComponent(ii+1) );
+		}
+	}
+
+	@Test
+	public void testLongCycle(){
+		// one 1,000,000 long cycle : a single component, and far too deep to recurse
+		int N = 1_000_000;
+		int[] ids = new int[N], src = new int[N], dst = new int[N];
+		for( int ii = 0; ii < N; ii++ ){
+			ids[ii] = ii + 1;
+			src[ii] = ii;
+			dst[ii] = (ii + 1) % N;
+		}
+		CsrGraph<Void> c = CsrGraph.fromEdges( ids, null, src, dst, null, N, true );
+		Components cs = StronglyConnectedComponents.findComponents( c );
+		Assert.assertEquals( 1, cs.getComponentCount() );
+		Assert.assertEquals( N, cs.getComponentSizes()[0] );
+	}
+}
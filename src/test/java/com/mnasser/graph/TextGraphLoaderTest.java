@@ -0,0 +1,71 @@
+package com.mnasser.graph;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TextGraphLoaderTest {
+
+	static File textFile(String content) throws IOException {
+		File f = MappedGraphTest.tempFile(".txt");
+		try( Writer w = new FileWriter( f ) ){
+			w.write( content );
+		}
+		return f;
+	}
+
+	@Test
+	public void testKargerMinCut() throws IOException, URISyntaxException {
+		File f = new File( MinimumCut.class.getResource("/kargerMinCut.txt").toURI() );
+		Graph<?> expected = MinimumCut.loadGraph( f );
+		CsrGraph<Void> g = TextGraphLoader.load( f, false );
+
+		Assert.assertFalse( g.isDirected() );
+		Assert.assertEquals( expected.getVertexCount(), g.getVertexCount() );
+		Assert.assertEquals( expected.getEdges().size(), g.getEdgeCount() );
+		Assert.assertEquals( CsrGraph.freeze( expected ).toMatrixString(), g.toMatrixString() );
+
+		// tiny ranges : most lines get a range to themselves & longer lines straddle several targets
+		Assert.assertEquals( g.toMatrixString(), TextGraphLoader.load( f, false, new ForkJoinPool( 4 ), 64 ).toMatrixString() );
+	}
+
+	@Test
+	public void testFormatting() throws IOException {
+		// CRLF, blank lines, stray spaces, negative & sparse IDs, a lone vertex and no final line break
+		File f = textFile("1\t2 3\r\n\r\n  2   -7\r\n\t\r\n3 1\n-7 1000000\n42\n1000000 2");
+		for( long chunk : new long[]{ TextGraphLoader.CHUNK_BYTES, 1, 5 } ){
+			CsrGraph<Void> d = TextGraphLoader.load( f, true, ForkJoinPool.commonPool(), chunk );
+			Assert.assertTrue( d.isDirected() );
+			Assert.assertEquals( 6, d.getVertexCount() );
+			Assert.assertEquals( 6, d.getEdgeCount() );
+			Assert.assertTrue( d.hasEdge( 1, 3 ) );
+			Assert.assertTrue( d.hasEdge( 3, 1 ) );
+			Assert.assertTrue( d.hasEdge( -7, 1_000_000 ) );
+			Assert.assertFalse( d.hasEdge( 1_000_000, -7 ) );
+			Assert.assertNotNull( d.getVertex( 42 ) );
+			Assert.assertTrue( d.getVertex( 42 ).getEdges().isEmpty() );
+
+			CsrGraph<Void> u = TextGraphLoader.load( f, false, ForkJoinPool.commonPool(), chunk );
+			Assert.assertEquals( 6, u.getVertexCount() );
+			Assert.assertEquals( 5, u.getEdgeCount() ); // 1-3 listed from both ends
+			Assert.assertTrue( u.hasEdge( 1_000_000, -7 ) );
+		}
+		Assert.assertEquals( 0, TextGraphLoader.load( textFile(""), false ).getVertexCount() );
+	}
+
+	@Test(expected=IOException.class)
+	public void testNotANumber() throws IOException {
+		TextGraphLoader.load( textFile("1 2\n2 x\n"), false );
+	}
+
+	@Test(expected=IOException.class)
+	public void testTooLarge() throws IOException {
+		TextGraphLoader.load( textFile("1 2147483648\n"), false );
+	}
+}
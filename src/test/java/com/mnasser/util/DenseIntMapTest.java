@@ -0,0 +1,75 @@
+package com.mnasser.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DenseIntMapTest {
+
+	@Test
+	public void testDense(){
+		DenseIntMap<String> dm = new DenseIntMap<String>( 4 );
+		Assert.assertTrue( dm.isEmpty() );
+		Assert.assertEquals( 5 , dm.capacity() );
+
+		for( int ii = 1; ii <= 100; ii++ )
+			dm.put( ii , "v" + ii );
+
+		Assert.assertEquals( 100 , dm.size() );
+		Assert.assertEquals( 100 , dm.denseSize() ); // all of 1..n went into the array
+		Assert.assertEquals( "v1"  , dm.get(1) );
+		Assert.assertEquals( "v100", dm.get(100) );
+		Assert.assertNull( dm.get(0) );
+		Assert.assertNull( dm.get(101) );
+
+		Assert.assertEquals( "v50", dm.put( 50, "fifty" ) );
+		Assert.assertEquals( "fifty", dm.remove( 50 ) );
+		Assert.assertNull( dm.remove( 50 ) );
+		Assert.assertFalse( dm.containsKey( 50 ) );
+		Assert.assertEquals( 99 , dm.size() );
+	}
+
+	@Test
+	public void testSparse(){
+		DenseIntMap<String> dm = new DenseIntMap<String>( 4 );
+		dm.put( 1, "one" );
+		dm.put( 1_000_000, "million" );
+		dm.put( -7, "negative" );
+
+		Assert.assertEquals( 3 , dm.size() );
+		Assert.assertEquals( 1 , dm.denseSize() );
+		Assert.assertTrue( dm.capacity() < 1000 ); // didn't blow up the array for one far id
+		Assert.assertEquals( "million" , dm.get( 1_000_000 ) );
+		Assert.assertEquals( "negative", dm.get( -7 ) );
+
+		// fill in the gap. The far key gets pulled into the array once it's dense enough
+		for( int ii = 2; ii < 1_000_000; ii++ )
+			dm.put( ii , "x" );
+		Assert.assertEquals( 1_000_001 , dm.size() );
+		Assert.assertEquals( 1_000_000 , dm.denseSize() );
+		Assert.assertEquals( "million" , dm.get( 1_000_000 ) );
+		Assert.assertEquals( "negative", dm.remove( -7 ) );
+		Assert.assertEquals( 1_000_000 , dm.size() );
+	}
+
+	@Test
+	public void testAgainstHashMap(){
+		DenseIntMap<Integer> dm = new DenseIntMap<Integer>();
+		Map<Integer,Integer> hm = new HashMap<Integer,Integer>();
+		Random r = new Random(11);
+		for( int ii = 0; ii < 100_000; ii++ ){
+			int k = r.nextInt(10) == 0 ? r.nextInt() : r.nextInt( 1 + ii / 4 );
+			Integer v = ii;
+			if( r.nextInt(4) == 0 )
+				Assert.assertEquals( hm.remove(k), dm.remove(k) );
+			else
+				Assert.assertEquals( hm.put(k, v), dm.put(k, v) );
+		}
+		Assert.assertEquals( hm.size(), dm.size() );
+		for( Map.Entry<Integer,Integer> e : hm.entrySet() )
+			Assert.assertEquals( e.getValue(), dm.get( e.getKey().intValue() ) );
+	}
+}
@@ -0,0 +1,58 @@
+package com.mnasser.util;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DisjointSetTest {
+
+	@Test
+	public void testUnion(){
+		DisjointSet ds = new DisjointSet( 6 );
+		Assert.assertEquals( 6, ds.count() );
+		Assert.assertEquals( 6, ds.size() );
+		Assert.assertTrue( ds.union( 0, 1 ) );
+		Assert.assertTrue( ds.union( 2, 3 ) );
+		Assert.assertFalse( ds.union( 1, 0 ) );
+		Assert.assertTrue( ds.union( 1, 3 ) );
+		Assert.assertEquals( 3, ds.count() );
+		Assert.assertTrue( ds.connected( 0, 2 ) );
+		Assert.assertFalse( ds.connected( 0, 4 ) );
+		Assert.assertEquals( ds.find( 0 ), ds.find( 3 ) );
+		Assert.assertEquals( 4, ds.sizeOf( 2 ) );
+		Assert.assertEquals( 1, ds.sizeOf( 5 ) );
+
+		ds.reset();
+		Assert.assertEquals( 6, ds.count() );
+		Assert.assertFalse( ds.connected( 0, 1 ) );
+		Assert.assertEquals( 1, ds.sizeOf( 0 ) );
+	}
+
+	/**Against a naive "relabel everything" union find*/
+	@Test
+	public void testAgainstNaive(){
+		int N = 2_000;
+		Random r = new Random( 4 );
+		DisjointSet ds = new DisjointSet( N );
+		int[] label = new int[ N ];
+		for( int ii = 0; ii < N; ii++ ) label[ii] = ii;
+		int sets = N;
+		for( int ii = 0; ii < 3_000; ii++ ){
+			int a = r.nextInt( N ), b = r.nextInt( N );
+			boolean merged = label[a] != label[b];
+			if( merged ){
+				int from = label[b];
+				for( int k = 0; k < N; k++ ) if( label[k] == from ) label[k] = label[a];
+				sets--;
+			}
+			Assert.assertEquals( merged, ds.union( a, b ) );
+			int c = r.nextInt( N ), d = r.nextInt( N );
+			Assert.assertEquals( label[c] == label[d], ds.connected( c, d ) );
+			int members = 0;
+			for( int k = 0; k < N; k++ ) if( label[k] == label[c] ) members++;
+			Assert.assertEquals( members, ds.sizeOf( c ) );
+		}
+		Assert.assertEquals( sets, ds.count() );
+	}
+}
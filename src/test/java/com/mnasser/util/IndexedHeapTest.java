@@ -0,0 +1,104 @@
+package com.mnasser.util;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.mnasser.util.Heap.HEAP;
+
+public class IndexedHeapTest {
+
+	@Test
+	public void testIndexedHeap(){
+		IndexedHeap h = new IndexedHeap( 10 );
+		Assert.assertTrue( h.isEmpty() );
+		h.insert( 3, 30 );
+		h.insert( 7, 10 );
+		h.insert( 1, 20 );
+		h.insert( 9, 40 );
+		Assert.assertEquals( 4, h.size() );
+		Assert.assertEquals( 7, h.peek() );
+		Assert.assertEquals( 10, h.peekKey() );
+
+		h.decreaseKey( 9, 5 );
+		Assert.assertEquals( 9, h.peek() );
+		h.increaseKey( 9, 50 );
+		Assert.assertEquals( 7, h.peek() );
+		Assert.assertFalse( h.offer( 1, 25 ) ); // no better
+		Assert.assertTrue( h.offer( 1, 2 ) );
+		Assert.assertTrue( h.offer( 5, 15 ) );
+
+		Assert.assertTrue( h.remove( 3 ) );
+		Assert.assertFalse( h.remove( 3 ) );
+		Assert.assertFalse( h.contains( 3 ) );
+		Assert.assertEquals( 30, h.keyOf( 3 ) );
+
+		Assert.assertEquals( 1, h.removeRoot() );
+		Assert.assertEquals( 7, h.removeRoot() );
+		Assert.assertEquals( 5, h.removeRoot() );
+		Assert.assertEquals( 9, h.removeRoot() );
+		Assert.assertTrue( h.isEmpty() );
+
+		IndexedHeap max = new IndexedHeap( 4, HEAP.MAX_HEAP );
+		max.insert( 0, 1 ); max.insert( 1, 3 ); max.insert( 2, 2 );
+		Assert.assertEquals( 1, max.peek() );
+		max.increaseKey( 0, 9 );
+		Assert.assertEquals( 0, max.removeRoot() );
+		max.clear();
+		Assert.assertTrue( max.isEmpty() );
+		Assert.assertFalse( max.contains( 1 ) );
+		max.insert( 1, Long.MIN_VALUE );
+		Assert.assertEquals( 1, max.peek() );
+	}
+
+	@Test(expected=RuntimeException.class)
+	public void testDecreaseUp(){
+		IndexedHeap h = new IndexedHeap( 2 );
+		h.insert( 0, 5 );
+		h.decreaseKey( 0, 6 );
+	}
+
+	@Test(expected=RuntimeException.class)
+	public void testInsertTwice(){
+		IndexedHeap h = new IndexedHeap( 2 );
+		h.insert( 0, 5 );
+		h.insert( 0, 6 );
+	}
+
+	/**Random inserts, key changes & removals against a TreeSet of (key, id) pairs*/
+	@Test
+	public void testAgainstTreeSet(){
+		int N = 500;
+		Random r = new Random( 3 );
+		for( HEAP type : HEAP.values() ){
+			IndexedHeap h = new IndexedHeap( N, type );
+			TreeSet<long[]> t = new TreeSet<long[]>( (a, b) -> a[0] != b[0] ? Long.compare( a[0], b[0] ) : Long.compare( a[1], b[1] ) );
+			long[] keys = new long[ N ];
+			for( int ii = 0; ii < 20_000; ii++ ){
+				int id = r.nextInt( N );
+				long k = r.nextInt( 1000 ) - 500;
+				switch( r.nextInt( 4 ) ){
+				case 0 :
+					if( h.contains( id ) ) t.remove( new long[]{ keys[id], id } );
+					if( h.contains( id ) ) h.changeKey( id, k ); else h.insert( id, k );
+					keys[id] = k;
+					t.add( new long[]{ k, id } );
+					break;
+				case 1 :
+					Assert.assertEquals( t.remove( new long[]{ keys[id], id } ), h.remove( id ) );
+					break;
+				default :
+					if( h.isEmpty() ) break;
+					long[] top = type == HEAP.MIN_HEAP ? t.first() : t.last();
+					Assert.assertEquals( top[0], h.peekKey() );
+					id = h.removeRoot();
+					Assert.assertEquals( top[0], keys[id] );
+					t.remove( new long[]{ keys[id], id } );
+				}
+				Assert.assertEquals( t.size(), h.size() );
+			}
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package com.mnasser.util;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -21,7 +24,7 @@ public class IntMapTest {
 		Assert.assertEquals( "sally" , is.get(1) );
 		Assert.assertEquals( 1 , is.size() );
 		Assert.assertFalse( is.isEmpty() );
-		Assert.assertEquals( 256 , is.capacity() );
+		Assert.assertEquals( IntMap.DEFAULT_CAPACITY , is.capacity() );
 		
 		// not found
 		Assert.assertNull( is.get( 1313 ) );
@@ -124,32 +127,56 @@ public class IntMapTest {
 	
 	@Test
 	public void testResize(){
-		IntMap<String> is = new IntMap<String>( 2 , 2 ); // 4 slots only!
+		IntMap<String> is = new IntMap<String>( 4 , 0.75f ); // 4 slots, resizes past 3 entries
 		
-		is.put( 1 , "sally"); // first  bucket
-		is.put( 2 , "john");  // second bucket
-		
-		is.put( 3 , "frank"); // first bucket again 
-		is.put( 4,  "alice"); // second bucket.
-		// we should be full
-		
-		Assert.assertEquals( is.size() , is.capacity() );
+		is.put( 1 , "sally");
+		is.put( 2 , "john");
+		is.put( 3 , "frank");
 		
-		is.put( 5 ,  "bob"); // resize & re-hashing of all keys should have been triggered
+		Assert.assertEquals( 3 , is.size() );
+		Assert.assertEquals( 4 , is.capacity() ); // at the load factor, not past it
 		
-		Assert.assertEquals( 5 , is.size());
-		Assert.assertEquals( 16 , is.capacity() ); // 4x space 
+		is.put( 4,  "alice"); // resize & re-hashing of all keys should have been triggered
 		
+		Assert.assertEquals( 4 , is.size());
+		Assert.assertEquals( 8 , is.capacity() ); // 2x space 
 		
 		is.put( 16 , "joe");
-		is.put( 32, "shmoe"); // will fill up both slots of the 0th buckets
+		is.put( 32, "shmoe");
 		
-		Assert.assertEquals( 7 , is.size());
-		Assert.assertEquals( 16 , is.capacity() ); // hasn't changed yet
+		Assert.assertEquals( 6 , is.size());
+		Assert.assertEquals( 8 , is.capacity() ); // 6/8 hasn't passed the load factor yet
 		
 		is.put( 48 , "moe"); // resize
 		
-		Assert.assertEquals( 8 , is.size());
-		Assert.assertEquals( 64 , is.capacity() ); // 4x again
+		Assert.assertEquals( 7 , is.size());
+		Assert.assertEquals( 16 , is.capacity() ); // 2x again
+		
+		Assert.assertEquals( "sally" , is.get(1) );
+		Assert.assertEquals( "alice" , is.get(4) );
+		Assert.assertEquals( "moe"   , is.get(48) );
+	}
+	
+	@Test
+	public void testAgainstHashMap(){
+		// lots of colliding puts & removes. The backward shifting on remove has to keep 
+		// every remaining key reachable
+		IntMap<Integer> is = new IntMap<Integer>();
+		Map<Integer,Integer> hm = new HashMap<Integer,Integer>();
+		Random r = new Random(7);
+		for( int ii = 0; ii < 200_000; ii++ ){
+			int k = r.nextInt( 5_000 ) * ( r.nextBoolean() ? 1 : -1024 );
+			if( r.nextInt(3) == 0 ){
+				Assert.assertEquals( hm.remove(k), is.remove( k ) );
+			}else{
+				Integer v = ii;
+				Assert.assertEquals( hm.put(k, v), is.put(k, v) );
+			}
+		}
+		Assert.assertEquals( hm.size(), is.size() );
+		for( Map.Entry<Integer,Integer> e : hm.entrySet() )
+			Assert.assertEquals( e.getValue(), is.get( e.getKey().intValue() ) );
+		Assert.assertEquals( hm.keySet(), is.keySet() );
+		Assert.assertTrue( is.size() <= is.capacity() * IntMap.DEFAULT_LOAD_FACTOR );
 	}
 }